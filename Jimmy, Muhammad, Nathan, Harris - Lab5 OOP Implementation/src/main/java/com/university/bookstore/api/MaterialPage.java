@@ -0,0 +1,148 @@
+package com.university.bookstore.api;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.university.bookstore.model.Material;
+
+/**
+ * One page of a keyset-paginated query, in {@link Material#compareTo} order.
+ * 
+ * <p>Keyset pagination resumes after the (title, ID) of the last material returned
+ * instead of skipping an offset, so later pages cost no more than the first and stay
+ * stable while materials are added or removed ahead of the cursor.</p>
+ * 
+ * @param items the materials on this page
+ * @param next the cursor for the following page, empty on the last page
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+public record MaterialPage(List<Material> items, Optional<Cursor> next) {
+    
+    /**
+     * Compact constructor for validation.
+     */
+    public MaterialPage {
+        items = List.copyOf(items);
+        Objects.requireNonNull(next, "Next cursor cannot be null");
+    }
+    
+    /**
+     * Builds a page from up to {@code limit + 1} candidates in sort order; the extra
+     * candidate only signals that a further page exists.
+     * 
+     * @param candidates the first candidates after the cursor, sorted
+     * @param limit the page size
+     * @return the page
+     */
+    public static MaterialPage of(List<Material> candidates, int limit) {
+        if (candidates.size() <= limit) {
+            return new MaterialPage(candidates, Optional.empty());
+        }
+        List<Material> items = candidates.subList(0, limit);
+        return new MaterialPage(items, Optional.of(Cursor.after(items.get(limit - 1))));
+    }
+    
+    /**
+     * Takes a page from a list already in {@link Material#compareTo} order, locating
+     * the cursor by binary search.
+     * 
+     * @param sorted the materials in natural order
+     * @param after the cursor from the previous page, or null for the first page
+     * @param limit the page size
+     * @return the page
+     * @throws IllegalArgumentException if the page size is not positive
+     */
+    public static MaterialPage from(List<Material> sorted, Cursor after, int limit) {
+        int count = probeSize(limit);
+        int start = after == null ? 0 : after.firstIndexAfter(sorted);
+        int end = start + Math.min(count, sorted.size() - start);
+        return of(sorted.subList(start, end), limit);
+    }
+    
+    /**
+     * Gets the number of candidates to fetch for a page: one more than the page size,
+     * saturating at {@code Integer.MAX_VALUE}.
+     * 
+     * @param limit the page size
+     * @return the number of candidates to fetch
+     * @throws IllegalArgumentException if the page size is not positive
+     */
+    public static int probeSize(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + limit);
+        }
+        return limit == Integer.MAX_VALUE ? limit : limit + 1;
+    }
+    
+    /**
+     * Checks whether a further page exists.
+     * 
+     * @return true if there is a next cursor
+     */
+    public boolean hasNext() {
+        return next.isPresent();
+    }
+    
+    /**
+     * Position in {@link Material#compareTo} order: a title, compared ignoring case,
+     * then an ID.
+     * 
+     * @param title the title of the last material returned
+     * @param id the ID of the last material returned
+     */
+    public record Cursor(String title, String id) {
+        
+        /**
+         * Compact constructor for validation.
+         */
+        public Cursor {
+            Objects.requireNonNull(title, "Cursor title cannot be null");
+            Objects.requireNonNull(id, "Cursor ID cannot be null");
+        }
+        
+        /**
+         * Creates the cursor positioned just after a material.
+         * 
+         * @param material the last material returned
+         * @return the cursor
+         */
+        public static Cursor after(Material material) {
+            return new Cursor(material.getTitle(), material.getId());
+        }
+        
+        /**
+         * Checks whether a material sorts after this cursor.
+         * 
+         * @param material the material to test
+         * @return true if the material belongs on a later page
+         */
+        public boolean precedes(Material material) {
+            int titleComparison = material.getTitle().compareToIgnoreCase(title);
+            return titleComparison > 0 || (titleComparison == 0 && material.getId().compareTo(id) > 0);
+        }
+        
+        /**
+         * Finds where the materials after this cursor begin in a list sorted in
+         * {@link Material#compareTo} order, by binary search.
+         * 
+         * @param sorted the sorted materials
+         * @return the index of the first material after the cursor
+         */
+        public int firstIndexAfter(List<Material> sorted) {
+            int low = 0;
+            int high = sorted.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (precedes(sorted.get(mid))) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+    }
+}
\ No newline at end of file
@@ -1,11 +1,15 @@
 package com.university.bookstore.api;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.university.bookstore.model.Material;
 import com.university.bookstore.model.Media;
+import com.university.bookstore.search.TopK;
 
 /**
  * Interface defining operations for a polymorphic material store that demonstrates interface segregation and
@@ -134,6 +138,126 @@ public interface MaterialStore {
      */
     List<Material> getSorted(java.util.Comparator<Material> comparator);
 
+    /**
+     * Gets the first k materials in comparator order without sorting the whole
+     * inventory. The default selects with a bounded heap in O(n log k).
+     *
+     * @param k the number of materials to return
+     * @param comparator the order to select by
+     * @param type the type to restrict to, or null for every type
+     * @return at most k materials in comparator order
+     * @throws IllegalArgumentException if k is negative
+     */
+    default List<Material> topK(int k, Comparator<Material> comparator, Material.MaterialType type) {
+        TopK.checkLimit(k);
+        List<Material> candidates = type == null ? getAllMaterials() : getMaterialsByType(type);
+        return TopK.select(candidates, k, comparator);
+    }
+
+    /**
+     * Gets the k cheapest materials.
+     *
+     * @param k the number of materials to return
+     * @param type the type to restrict to, or null for every type
+     * @return at most k materials in ascending price order
+     */
+    default List<Material> findCheapest(int k, Material.MaterialType type) {
+        return topK(k, Comparator.comparingDouble(Material::getPrice), type);
+    }
+
+    /**
+     * Gets the k most expensive materials.
+     *
+     * @param k the number of materials to return
+     * @param type the type to restrict to, or null for every type
+     * @return at most k materials in descending price order
+     */
+    default List<Material> findMostExpensive(int k, Material.MaterialType type) {
+        return topK(k, Comparator.comparingDouble(Material::getPrice).reversed(), type);
+    }
+
+    /**
+     * Gets the k most recently published materials.
+     *
+     * @param k the number of materials to return
+     * @param type the type to restrict to, or null for every type
+     * @return at most k materials in descending year order
+     */
+    default List<Material> findNewest(int k, Material.MaterialType type) {
+        return topK(k, Comparator.comparingInt(Material::getYear).reversed(), type);
+    }
+
+    /**
+     * Streams every material. Implementations produce the stream lazily from their
+     * own storage where they can; the default streams a copy.
+     *
+     * @return stream of all materials
+     */
+    default Stream<Material> streamMaterials() {
+        return getAllMaterials().stream();
+    }
+
+    /**
+     * Streams the materials whose title matches, with the same matching rules as
+     * {@link #searchByTitle(String)}. Implementations produce matches lazily where
+     * they can, so a consumer that stops early never builds the full result.
+     *
+     * @param title the title to search for
+     * @return stream of matching materials
+     */
+    default Stream<Material> streamByTitle(String title) {
+        return searchByTitle(title).stream();
+    }
+
+    /**
+     * Gets one page of a title search by offset and limit. Matches are produced
+     * lazily, so memory is bounded by the page rather than by the result.
+     *
+     * @param title the title to search for
+     * @param offset the number of matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the matches on the page, in {@link #streamByTitle(String)} order
+     * @throws IllegalArgumentException if the offset or limit is negative
+     */
+    default List<Material> searchByTitle(String title, int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative: " + offset);
+        }
+        TopK.checkLimit(limit);
+        return streamByTitle(title).skip(offset).limit(limit).collect(Collectors.toList());
+    }
+
+    /**
+     * Gets one page of all materials in natural order, resuming after a cursor.
+     *
+     * @param after the cursor from the previous page, or null for the first page
+     * @param limit the page size
+     * @return the page
+     * @throws IllegalArgumentException if the page size is not positive
+     */
+    default MaterialPage getSortedPage(MaterialPage.Cursor after, int limit) {
+        return MaterialPage.of(firstAfter(streamMaterials(), after, MaterialPage.probeSize(limit)), limit);
+    }
+
+    /**
+     * Gets one page of a title search in natural order, resuming after a cursor.
+     * Matches are streamed into a heap bounded by the page size.
+     *
+     * @param title the title to search for
+     * @param after the cursor from the previous page, or null for the first page
+     * @param limit the page size
+     * @return the page
+     * @throws IllegalArgumentException if the page size is not positive
+     */
+    default MaterialPage searchByTitlePage(String title, MaterialPage.Cursor after, int limit) {
+        return MaterialPage.of(firstAfter(streamByTitle(title), after, MaterialPage.probeSize(limit)), limit);
+    }
+
+    private static List<Material> firstAfter(Stream<Material> materials, MaterialPage.Cursor after, int count) {
+        Stream<Material> remaining = after == null ? materials : materials.filter(after::precedes);
+        return TopK.select(remaining::iterator, count, Comparator.naturalOrder());
+    }
+
     /**
      * Gets materials within a price range.
      *
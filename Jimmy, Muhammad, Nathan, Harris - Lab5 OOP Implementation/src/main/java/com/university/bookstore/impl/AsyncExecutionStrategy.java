@@ -0,0 +1,206 @@
+package com.university.bookstore.impl;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Chooses where the async operations of a store run, according to their cost.
+ * 
+ * <p>Handing a task to a pool costs a queue insertion, a thread wake-up and a
+ * cache-cold completion, which dwarfs an O(1) map lookup. In {@link Mode#ADAPTIVE}
+ * mode cheap operations therefore complete inline on the calling thread, CPU-bound
+ * scans run on the compute pool, and blocking work runs one task per virtual thread.
+ * Virtual threads are found reflectively, so the same Java 17 build uses them when
+ * run on Java 21 and falls back to a cached platform thread pool otherwise. {@link Mode#POOLED}
+ * sends every operation to the compute pool, as the store did before.</p>
+ * 
+ * <p>The strategy counts inline completions and thread hops so the effect of the
+ * mode can be observed.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+public final class AsyncExecutionStrategy implements AutoCloseable {
+    
+    /**
+     * How an operation uses the thread that runs it.
+     */
+    public enum Workload {
+        /**
+         * Constant-time in-memory work such as a lookup or a single insert.
+         */
+        CHEAP,
+        
+        /**
+         * Work that waits on I/O or other threads, such as a persistence-backed lookup.
+         */
+        BLOCKING,
+        
+        /**
+         * Scans and other work that keeps a CPU busy in proportion to the data size.
+         */
+        COMPUTE
+    }
+    
+    /**
+     * How workloads are mapped to threads.
+     */
+    public enum Mode {
+        /**
+         * Every operation runs on the compute pool.
+         */
+        POOLED,
+        
+        /**
+         * Cheap operations run inline, blocking ones on virtual threads when
+         * available, and compute-bound ones on the compute pool.
+         */
+        ADAPTIVE
+    }
+    
+    private final ExecutorService computePool;
+    private final ExecutorService blockingExecutor;
+    private final boolean virtualThreads;
+    private final LongAdder inlineCompletions;
+    private final LongAdder threadHops;
+    private volatile Mode mode;
+    
+    /**
+     * Creates a strategy around a compute pool owned by the caller.
+     * 
+     * @param computePool the pool for compute-bound work
+     * @param mode the initial mode
+     */
+    public AsyncExecutionStrategy(ExecutorService computePool, Mode mode) {
+        this.computePool = Objects.requireNonNull(computePool, "Compute pool cannot be null");
+        this.mode = Objects.requireNonNull(mode, "Mode cannot be null");
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.blockingExecutor = virtual != null ? virtual : Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "MaterialStore-Blocking");
+            t.setDaemon(true);
+            return t;
+        });
+        this.inlineCompletions = new LongAdder();
+        this.threadHops = new LongAdder();
+    }
+    
+    /**
+     * Runs a task according to its workload and the current mode.
+     * 
+     * @param workload the cost class of the task
+     * @param task the task
+     * @param <T> the result type
+     * @return a future completed with the task's result or failure
+     */
+    public <T> CompletableFuture<T> supply(Workload workload, Supplier<T> task) {
+        if (mode == Mode.POOLED) {
+            threadHops.increment();
+            return CompletableFuture.supplyAsync(task, computePool);
+        }
+        
+        switch (workload) {
+            case CHEAP:
+                inlineCompletions.increment();
+                try {
+                    return CompletableFuture.completedFuture(task.get());
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            case BLOCKING:
+                threadHops.increment();
+                return CompletableFuture.supplyAsync(task, blockingExecutor);
+            default:
+                threadHops.increment();
+                return CompletableFuture.supplyAsync(task, computePool);
+        }
+    }
+    
+    /**
+     * Gets how operations are currently dispatched.
+     * 
+     * @return the current mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+    
+    /**
+     * Changes how subsequent operations are dispatched.
+     * 
+     * @param mode the new mode
+     */
+    public void setMode(Mode mode) {
+        this.mode = Objects.requireNonNull(mode, "Mode cannot be null");
+    }
+    
+    /**
+     * Checks whether blocking work runs on virtual threads.
+     * 
+     * @return true on a runtime with virtual threads
+     */
+    public boolean hasVirtualThreads() {
+        return virtualThreads;
+    }
+    
+    /**
+     * Gets the number of operations completed on the calling thread.
+     * 
+     * @return the inline completion count
+     */
+    public long getInlineCompletions() {
+        return inlineCompletions.sum();
+    }
+    
+    /**
+     * Gets the number of operations handed to another thread.
+     * 
+     * @return the thread hop count
+     */
+    public long getThreadHops() {
+        return threadHops.sum();
+    }
+    
+    /**
+     * Shuts down the blocking executor; the compute pool belongs to the caller.
+     */
+    @Override
+    public void close() {
+        blockingExecutor.shutdown();
+        try {
+            if (!blockingExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                blockingExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            blockingExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("AsyncExecutionStrategy[Mode=%s, VirtualThreads=%b, Inline=%d, Hops=%d]",
+            mode, virtualThreads, getInlineCompletions(), getThreadHops());
+    }
+    
+    /**
+     * Creates a virtual-thread-per-task executor on Java 21 and later.
+     * 
+     * @return the executor, or null on older runtimes
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
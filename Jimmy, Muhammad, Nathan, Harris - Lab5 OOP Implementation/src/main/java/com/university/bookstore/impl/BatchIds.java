@@ -0,0 +1,81 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.university.bookstore.api.ModernMaterialStore.BatchOperationResult;
+
+/**
+ * The IDs of a bulk remove, with nulls and repeats filtered out and reported as
+ * failures before any store state is touched.
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+final class BatchIds {
+    
+    private final int submitted;
+    private final List<String> unique;
+    private final List<String> errors;
+    
+    private BatchIds(int submitted, List<String> unique, List<String> errors) {
+        this.submitted = submitted;
+        this.unique = unique;
+        this.errors = errors;
+    }
+    
+    /**
+     * Filters a batch of IDs, keeping the first occurrence of each in submission order.
+     * 
+     * @param ids the IDs to remove
+     * @return the filtered batch
+     */
+    static BatchIds of(Collection<String> ids) {
+        Objects.requireNonNull(ids, "IDs cannot be null");
+        
+        List<String> unique = new ArrayList<>(ids.size());
+        List<String> errors = new ArrayList<>();
+        Set<String> seen = new HashSet<>(ids.size() * 2);
+        int position = 0;
+        for (String id : ids) {
+            if (id == null) {
+                errors.add("Null ID at position " + position);
+            } else if (!seen.add(id)) {
+                errors.add("Duplicate ID in batch: " + id);
+            } else {
+                unique.add(id);
+            }
+            position++;
+        }
+        return new BatchIds(position, unique, errors);
+    }
+    
+    /**
+     * Gets the distinct IDs to remove.
+     * 
+     * @return the IDs in submission order
+     */
+    List<String> unique() {
+        return unique;
+    }
+    
+    /**
+     * Builds the result once the distinct IDs have been processed.
+     * 
+     * @param removed the number of materials removed
+     * @param notFound the distinct IDs that matched no material
+     * @return the batch result
+     */
+    BatchOperationResult result(int removed, List<String> notFound) {
+        List<String> allErrors = new ArrayList<>(errors);
+        for (String id : notFound) {
+            allErrors.add("Material not found: " + id);
+        }
+        return new BatchOperationResult(removed, submitted - removed, allErrors);
+    }
+}
\ No newline at end of file
@@ -15,19 +15,25 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.university.bookstore.api.MaterialStore;
-import com.university.bookstore.model.Magazine;
+import com.university.bookstore.api.ModernMaterialStore.BatchOperationResult;
+import com.university.bookstore.model.CurrentYear;
 import com.university.bookstore.model.Material;
 import com.university.bookstore.model.Media;
-import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.search.MaterialIndex;
+import com.university.bookstore.search.SearchText;
 
 /**
  * Thread-safe implementation of MaterialStore using synchronization primitives.
  * Demonstrates concurrency patterns and thread safety in multi-threaded environments.
  * 
  * <p>This implementation uses ReentrantReadWriteLock to optimize for read-heavy workloads
- * and ConcurrentHashMap for thread-safe storage with minimal locking overhead.</p>
+ * and ConcurrentHashMap for thread-safe storage with minimal locking overhead.
+ * Type, year, creator and price lookups are served by a {@link MaterialIndex}
+ * and inventory statistics by running aggregates, both updated under the write lock.
+ * Titles and creators are normalized for search once on ingest ({@link SearchKeys}).</p>
  * 
  * @author Navid Mohaghegh
  * @version 3.0
@@ -36,6 +42,9 @@ import com.university.bookstore.model.PrintedBook;
 public class ConcurrentMaterialStore implements MaterialStore {
     
     private final Map<String, Material> materials;
+    private final Map<String, SearchKeys> searchKeys;
+    private final MaterialIndex index;
+    private final InventoryAggregates aggregates;
     private final ReadWriteLock lock;
     private final Lock readLock;
     private final Lock writeLock;
@@ -45,6 +54,9 @@ public class ConcurrentMaterialStore implements MaterialStore {
      */
     public ConcurrentMaterialStore() {
         this.materials = new ConcurrentHashMap<>();
+        this.searchKeys = new ConcurrentHashMap<>();
+        this.index = new MaterialIndex();
+        this.aggregates = new InventoryAggregates();
         this.lock = new ReentrantReadWriteLock();
         this.readLock = lock.readLock();
         this.writeLock = lock.writeLock();
@@ -71,9 +83,17 @@ public class ConcurrentMaterialStore implements MaterialStore {
         }
         
         writeLock.lock();
+        aggregates.enterWrite();
         try {
-            return materials.putIfAbsent(material.getId(), material) == null;
+            if (materials.putIfAbsent(material.getId(), material) != null) {
+                return false;
+            }
+            searchKeys.put(material.getId(), SearchKeys.of(material));
+            index.add(material);
+            aggregates.add(material);
+            return true;
         } finally {
+            aggregates.exitWrite();
             writeLock.unlock();
         }
     }
@@ -85,13 +105,54 @@ public class ConcurrentMaterialStore implements MaterialStore {
         }
         
         writeLock.lock();
+        aggregates.enterWrite();
         try {
-            return Optional.ofNullable(materials.remove(id));
+            Material removed = materials.remove(id);
+            if (removed != null) {
+                searchKeys.remove(id);
+                index.remove(removed);
+                aggregates.remove(removed);
+            }
+            return Optional.ofNullable(removed);
         } finally {
+            aggregates.exitWrite();
             writeLock.unlock();
         }
     }
     
+    /**
+     * Removes many materials under a single write lock acquisition, updating the
+     * indexes and aggregates once for the whole batch.
+     * 
+     * @param ids the IDs to remove; nulls and repeats are reported as failures
+     * @return the number removed and the reasons for any failures
+     */
+    public BatchOperationResult removeMaterialsBatch(Collection<String> ids) {
+        BatchIds batch = BatchIds.of(ids);
+        List<Material> removed = new ArrayList<>(batch.unique().size());
+        List<String> notFound = new ArrayList<>();
+        
+        writeLock.lock();
+        aggregates.enterWrite();
+        try {
+            for (String id : batch.unique()) {
+                Material material = materials.remove(id);
+                if (material != null) {
+                    searchKeys.remove(id);
+                    removed.add(material);
+                } else {
+                    notFound.add(id);
+                }
+            }
+            index.removeAll(removed);
+            aggregates.removeAll(removed);
+        } finally {
+            aggregates.exitWrite();
+            writeLock.unlock();
+        }
+        return batch.result(removed.size(), notFound);
+    }
+    
     @Override
     public Optional<Material> findById(String id) {
         if (id == null) {
@@ -112,28 +173,59 @@ public class ConcurrentMaterialStore implements MaterialStore {
             return new ArrayList<>();
         }
         
-        String searchTerm = title.toLowerCase().trim();
+        String searchTerm = SearchText.normalize(title).trim();
         readLock.lock();
         try {
-            return materials.values().stream()
-                .filter(m -> m.getTitle().toLowerCase().contains(searchTerm))
+            return searchKeys.values().stream()
+                .filter(keys -> keys.title().contains(searchTerm))
+                .map(SearchKeys::material)
                 .collect(Collectors.toList());
         } finally {
             readLock.unlock();
         }
     }
     
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Matches are produced lazily from the backing map without holding the read
+     * lock; the stream is weakly consistent with writes made while it is consumed.</p>
+     */
+    @Override
+    public Stream<Material> streamByTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            return Stream.empty();
+        }
+        
+        String searchTerm = SearchText.normalize(title).trim();
+        return searchKeys.values().stream()
+            .filter(keys -> keys.title().contains(searchTerm))
+            .map(SearchKeys::material);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Streams the backing map lazily; the stream is weakly consistent with writes
+     * made while it is consumed.</p>
+     */
+    @Override
+    public Stream<Material> streamMaterials() {
+        return materials.values().stream();
+    }
+    
     @Override
     public List<Material> searchByCreator(String creator) {
         if (creator == null || creator.trim().isEmpty()) {
             return new ArrayList<>();
         }
         
-        String searchTerm = creator.toLowerCase().trim();
+        String searchTerm = SearchText.normalize(creator).trim();
         readLock.lock();
         try {
-            return materials.values().stream()
-                .filter(m -> m.getCreator().toLowerCase().contains(searchTerm))
+            return searchKeys.values().stream()
+                .filter(keys -> keys.creator().contains(searchTerm))
+                .map(SearchKeys::material)
                 .collect(Collectors.toList());
         } finally {
             readLock.unlock();
@@ -148,9 +240,7 @@ public class ConcurrentMaterialStore implements MaterialStore {
         
         readLock.lock();
         try {
-            return materials.values().stream()
-                .filter(m -> m.getType() == type)
-                .collect(Collectors.toList());
+            return index.findByType(type);
         } finally {
             readLock.unlock();
         }
@@ -193,9 +283,7 @@ public class ConcurrentMaterialStore implements MaterialStore {
         
         readLock.lock();
         try {
-            return materials.values().stream()
-                .filter(m -> m.getPrice() >= minPrice && m.getPrice() <= maxPrice)
-                .collect(Collectors.toList());
+            return index.findByPriceRange(minPrice, maxPrice);
         } finally {
             readLock.unlock();
         }
@@ -205,9 +293,7 @@ public class ConcurrentMaterialStore implements MaterialStore {
     public List<Material> getMaterialsByYear(int year) {
         readLock.lock();
         try {
-            return materials.values().stream()
-                .filter(m -> m.getYear() == year)
-                .collect(Collectors.toList());
+            return index.findByYear(year);
         } finally {
             readLock.unlock();
         }
@@ -237,82 +323,31 @@ public class ConcurrentMaterialStore implements MaterialStore {
     
     @Override
     public double getTotalInventoryValue() {
-        readLock.lock();
-        try {
-            return materials.values().stream()
-                .mapToDouble(Material::getPrice)
-                .sum();
-        } finally {
-            readLock.unlock();
-        }
+        return aggregates.totalValue();
     }
     
     @Override
     public double getTotalDiscountedValue() {
-        readLock.lock();
-        try {
-            return materials.values().stream()
-                .mapToDouble(Material::getDiscountedPrice)
-                .sum();
-        } finally {
-            readLock.unlock();
-        }
+        return aggregates.totalDiscountedValue(materials.values());
     }
     
     @Override
     public InventoryStats getInventoryStats() {
-        readLock.lock();
-        try {
-            if (materials.isEmpty()) {
-                return new InventoryStats(0, 0, 0, 0, 0, 0);
-            }
-            
-            List<Double> prices = materials.values().stream()
-                .map(Material::getPrice)
-                .sorted()
-                .collect(Collectors.toList());
-            
-            double averagePrice = prices.stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
-            
-            double medianPrice = prices.size() % 2 == 0
-                ? (prices.get(prices.size() / 2 - 1) + prices.get(prices.size() / 2)) / 2
-                : prices.get(prices.size() / 2);
-            
-            int uniqueTypes = (int) materials.values().stream()
-                .map(Material::getType)
-                .distinct()
-                .count();
-            
-            int mediaCount = (int) materials.values().stream()
-                .filter(m -> m instanceof Media)
-                .count();
-            
-            int printCount = (int) materials.values().stream()
-                .filter(m -> m instanceof PrintedBook || m instanceof Magazine)
-                .count();
-            
-            return new InventoryStats(
-                materials.size(),
-                averagePrice,
-                medianPrice,
-                uniqueTypes,
-                mediaCount,
-                printCount
-            );
-        } finally {
-            readLock.unlock();
-        }
+        // Aggregates are updated under the write lock and publish their own snapshot
+        return aggregates.stats();
     }
     
     @Override
     public void clearInventory() {
         writeLock.lock();
+        aggregates.enterWrite();
         try {
             materials.clear();
+            searchKeys.clear();
+            index.clear();
+            aggregates.clear();
         } finally {
+            aggregates.exitWrite();
             writeLock.unlock();
         }
     }
@@ -343,14 +378,11 @@ public class ConcurrentMaterialStore implements MaterialStore {
             throw new IllegalArgumentException("Years cannot be negative: " + years);
         }
         
-        int currentYear = java.time.Year.now().getValue();
-        int cutoffYear = currentYear - years;
+        int cutoffYear = CurrentYear.get() - years;
         
         readLock.lock();
         try {
-            return materials.values().stream()
-                .filter(material -> material.getYear() >= cutoffYear)
-                .collect(Collectors.toList());
+            return index.findSinceYear(cutoffYear);
         } finally {
             readLock.unlock();
         }
@@ -374,9 +406,7 @@ public class ConcurrentMaterialStore implements MaterialStore {
         
         readLock.lock();
         try {
-            return materials.values().stream()
-                .filter(material -> creatorSet.contains(material.getCreator()))
-                .collect(Collectors.toList());
+            return index.findByCreators(creatorSet);
         } finally {
             readLock.unlock();
         }
@@ -414,6 +444,36 @@ public class ConcurrentMaterialStore implements MaterialStore {
         }
     }
     
+    @Override
+    public List<Material> findCheapest(int k, Material.MaterialType type) {
+        readLock.lock();
+        try {
+            return index.findCheapest(k, type);
+        } finally {
+            readLock.unlock();
+        }
+    }
+    
+    @Override
+    public List<Material> findMostExpensive(int k, Material.MaterialType type) {
+        readLock.lock();
+        try {
+            return index.findMostExpensive(k, type);
+        } finally {
+            readLock.unlock();
+        }
+    }
+    
+    @Override
+    public List<Material> findNewest(int k, Material.MaterialType type) {
+        readLock.lock();
+        try {
+            return index.findNewest(k, type);
+        } finally {
+            readLock.unlock();
+        }
+    }
+    
     /**
      * Gets all display info for materials (thread-safe).
      * 
@@ -467,14 +527,7 @@ public class ConcurrentMaterialStore implements MaterialStore {
      * @return total discount amount
      */
     public double getTotalDiscountAmount() {
-        readLock.lock();
-        try {
-            return materials.values().stream()
-                .mapToDouble(m -> m.getPrice() * m.getDiscountRate())
-                .sum();
-        } finally {
-            readLock.unlock();
-        }
+        return aggregates.totalDiscountAmount(materials.values());
     }
     
     @Override
@@ -0,0 +1,759 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import com.university.bookstore.api.MaterialStore.InventoryStats;
+import com.university.bookstore.model.CurrentYear;
+import com.university.bookstore.model.Magazine;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+
+/**
+ * Running inventory aggregates maintained on every add and remove, so a store can
+ * answer {@code getInventoryStats()} without touching its materials.
+ * 
+ * <p>Counts and sums are striped by material ID: each writer updates the stripe its
+ * material hashes to, under that stripe's lock, so writers of different materials
+ * rarely meet. The sums use Kahan compensation so long add/remove sequences do not
+ * drift. For the median, each stripe also queues its price changes in primitive
+ * arrays. The queues are applied in order to a pair of heaps when statistics are read,
+ * or by a writer whose stripe queue is full, so only one write in
+ * {@value #PENDING_CAPACITY} per stripe takes the median's lock. Because a material
+ * always maps to the same stripe, its removal is never applied before its addition.
+ * Each heap update is O(log n) amortized, and the median is read from the heap tops.</p>
+ * 
+ * <p>Per-type counts of media and discounted materials let the store scan only the type
+ * buckets of its index that can match. Discounted value, discount amount and the
+ * discounted counts are maintained the same way, but discount rates depend on the
+ * current date, so they are only trusted until the end of the calendar month they
+ * were computed in. After that they are rebuilt once from the
+ * store's own materials. Writers bracket each change to the store and its aggregates
+ * with {@link #enterWrite()} and {@link #exitWrite()}; a rebuild closes that gate and
+ * waits for the writes in flight, so it never disagrees with them. Writers count
+ * themselves in on a striped counter, and both sides park on a monitor rather than
+ * spin while the gate is closed.</p>
+ * 
+ * <p>The last computed stats and summary are cached with the update count they were
+ * computed at, and reused until the next update, so repeated polling neither
+ * allocates nor takes a lock.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+final class InventoryAggregates {
+    
+    private static final InventoryStats EMPTY = new InventoryStats(0, 0, 0, 0, 0, 0);
+    private static final Material.MaterialType[] TYPES = Material.MaterialType.values();
+    private static final int TYPE_COUNT = TYPES.length;
+    private static final int MAX_STRIPES = 64;
+    private static final int PENDING_CAPACITY = 1024;
+    
+    /**
+     * Counts, sums and queued price changes for the materials that hash to it, guarded
+     * by its own monitor.
+     */
+    private static final class Stripe {
+        final int[] typeCounts = new int[TYPE_COUNT];
+        final int[] mediaTypeCounts = new int[TYPE_COUNT];
+        final int[] discountedTypeCounts = new int[TYPE_COUNT];
+        int count;
+        int mediaCount;
+        int printCount;
+        final CompensatedSum priceSum = new CompensatedSum();
+        final CompensatedSum discountedSum = new CompensatedSum();
+        final CompensatedSum discountAmountSum = new CompensatedSum();
+        final double[] pendingPrices = new double[PENDING_CAPACITY];
+        final boolean[] pendingRemoved = new boolean[PENDING_CAPACITY];
+        int pending;
+        
+        void clearDiscounts() {
+            Arrays.fill(discountedTypeCounts, 0);
+            discountedSum.reset();
+            discountAmountSum.reset();
+        }
+        
+        void clear() {
+            Arrays.fill(typeCounts, 0);
+            Arrays.fill(mediaTypeCounts, 0);
+            count = 0;
+            mediaCount = 0;
+            printCount = 0;
+            priceSum.reset();
+            pending = 0;
+            clearDiscounts();
+        }
+    }
+    
+    /**
+     * A cached result and the update count it was computed at.
+     */
+    private record Cached<T>(T value, long updates) {
+    }
+    
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    // Guarded by its own monitor, always taken after a stripe's and never before one
+    private final MedianPrices prices = new MedianPrices();
+    // Completed updates; bumped after the stripe, so a reader that sees it sees the change
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder writesInFlight = new LongAdder();
+    private final Object rebuildLock = new Object();
+    // Writers wait here while a rebuild runs, and the rebuild waits here for writers to leave
+    private final Object gate = new Object();
+    private volatile boolean rebuilding;
+    // Wall clock time after which the discount sums must be rebuilt
+    private volatile long discountsValidUntil;
+    
+    private volatile Cached<InventoryStats> cachedStats;
+    private volatile Cached<ModernConcurrentMaterialStore.Summary> cachedSummary;
+    
+    /**
+     * Creates empty aggregates.
+     */
+    InventoryAggregates() {
+        int wanted = Math.min(MAX_STRIPES, 4 * Runtime.getRuntime().availableProcessors());
+        int count = Integer.highestOneBit(Math.max(1, wanted - 1)) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = count - 1;
+        this.discountsValidUntil = CurrentYear.endOfMonth();
+    }
+    
+    /**
+     * Marks the start of a change to the store and these aggregates. Waits while the
+     * discount sums are being rebuilt. Every call must be paired with
+     * {@link #exitWrite()}, and the aggregates must not be read in between.
+     */
+    void enterWrite() {
+        while (true) {
+            writesInFlight.increment();
+            if (!rebuilding) {
+                return;
+            }
+            exitWrite();
+            boolean interrupted = false;
+            synchronized (gate) {
+                while (rebuilding) {
+                    try {
+                        gate.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Marks the end of a change started with {@link #enterWrite()}, once it is visible
+     * in the store.
+     */
+    void exitWrite() {
+        writesInFlight.decrement();
+        if (rebuilding) {
+            synchronized (gate) {
+                gate.notifyAll();
+            }
+        }
+    }
+    
+    /**
+     * Records a material that was added to the store.
+     * 
+     * @param material the added material
+     */
+    void add(Material material) {
+        record(material, 1);
+    }
+    
+    /**
+     * Records many materials that were added to the store.
+     * 
+     * @param materials the added materials
+     */
+    void addAll(Collection<Material> materials) {
+        for (Material material : materials) {
+            record(material, 1);
+        }
+    }
+    
+    /**
+     * Records a material that was removed from the store.
+     * 
+     * @param material the removed material
+     */
+    void remove(Material material) {
+        record(material, -1);
+    }
+    
+    /**
+     * Records many materials that were removed from the store.
+     * 
+     * @param materials the removed materials
+     */
+    void removeAll(Collection<Material> materials) {
+        for (Material material : materials) {
+            record(material, -1);
+        }
+    }
+    
+    private void record(Material material, int sign) {
+        Stripe stripe = stripeFor(material);
+        synchronized (stripe) {
+            stripe.pendingPrices[stripe.pending] = material.getPrice() + 0.0;
+            stripe.pendingRemoved[stripe.pending] = sign < 0;
+            if (++stripe.pending == PENDING_CAPACITY) {
+                applyPending(stripe);
+            }
+            stripe.typeCounts[material.getType().ordinal()] += sign;
+            if (material instanceof Media) {
+                stripe.mediaCount += sign;
+                stripe.mediaTypeCounts[material.getType().ordinal()] += sign;
+            }
+            if (isPrint(material)) {
+                stripe.printCount += sign;
+            }
+            stripe.count += sign;
+            stripe.priceSum.add(sign * material.getPrice());
+            if (discountsValid()) {
+                addDiscounts(stripe, material, sign);
+            }
+        }
+        updates.increment();
+    }
+    
+    /**
+     * Resets all aggregates to the empty inventory.
+     */
+    void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+        synchronized (prices) {
+            prices.clear();
+        }
+        discountsValidUntil = CurrentYear.endOfMonth();
+        updates.increment();
+    }
+    
+    /**
+     * Gets the current inventory statistics.
+     * 
+     * @return the statistics, shared between calls until the next update
+     */
+    InventoryStats stats() {
+        long current = updates.sum();
+        Cached<InventoryStats> cached = cachedStats;
+        if (cached != null && cached.updates() == current) {
+            return cached.value();
+        }
+        
+        int count = 0;
+        int mediaCount = 0;
+        int printCount = 0;
+        int[] typeCounts = new int[TYPE_COUNT];
+        CompensatedSum priceSum = new CompensatedSum();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.count;
+                mediaCount += stripe.mediaCount;
+                printCount += stripe.printCount;
+                for (int i = 0; i < TYPE_COUNT; i++) {
+                    typeCounts[i] += stripe.typeCounts[i];
+                }
+                priceSum.add(stripe.priceSum.value());
+                applyPending(stripe);
+            }
+        }
+        
+        InventoryStats stats = EMPTY;
+        if (count > 0) {
+            double median;
+            synchronized (prices) {
+                median = prices.median();
+            }
+            stats = new InventoryStats(count, priceSum.value() / count, median,
+                uniqueTypes(typeCounts), mediaCount, printCount);
+        }
+        cachedStats = new Cached<>(stats, current);
+        return stats;
+    }
+    
+    /**
+     * Gets the count, number of types and total value, taken together.
+     * 
+     * @return the summary, shared between calls until the next update
+     */
+    ModernConcurrentMaterialStore.Summary summary() {
+        long current = updates.sum();
+        Cached<ModernConcurrentMaterialStore.Summary> cached = cachedSummary;
+        if (cached != null && cached.updates() == current) {
+            return cached.value();
+        }
+        
+        int count = 0;
+        int[] typeCounts = new int[TYPE_COUNT];
+        CompensatedSum priceSum = new CompensatedSum();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.count;
+                for (int i = 0; i < TYPE_COUNT; i++) {
+                    typeCounts[i] += stripe.typeCounts[i];
+                }
+                priceSum.add(stripe.priceSum.value());
+            }
+        }
+        
+        ModernConcurrentMaterialStore.Summary summary = new ModernConcurrentMaterialStore.Summary(
+            count, uniqueTypes(typeCounts), count == 0 ? 0.0 : priceSum.value());
+        cachedSummary = new Cached<>(summary, current);
+        return summary;
+    }
+    
+    /**
+     * Gets the total price of all materials.
+     * 
+     * @return the total inventory value
+     */
+    double totalValue() {
+        return total(stripe -> stripe.priceSum.value());
+    }
+    
+    /**
+     * Gets the total discounted price of all materials.
+     * 
+     * @param materials the store's materials, read only if the month has changed
+     * @return the total discounted value
+     */
+    double totalDiscountedValue(Collection<Material> materials) {
+        ensureDiscountsValid(materials);
+        return total(stripe -> stripe.discountedSum.value());
+    }
+    
+    /**
+     * Gets the total amount saved by discounts.
+     * 
+     * @param materials the store's materials, read only if the month has changed
+     * @return the total discount amount
+     */
+    double totalDiscountAmount(Collection<Material> materials) {
+        ensureDiscountsValid(materials);
+        return total(stripe -> stripe.discountAmountSum.value());
+    }
+    
+    /**
+     * Gets the types that currently have at least one media material, so a media scan
+     * can skip the type buckets that hold none.
+     * 
+     * @return the types with media materials, in declaration order
+     */
+    List<Material.MaterialType> mediaTypes() {
+        return typesWith(stripe -> stripe.mediaTypeCounts);
+    }
+    
+    /**
+     * Gets the types that currently have at least one discounted material, so a
+     * discount scan can skip the type buckets that hold none.
+     * 
+     * @param materials the store's materials, read only if the month has changed
+     * @return the types with discounted materials, in declaration order
+     */
+    List<Material.MaterialType> discountedTypes(Collection<Material> materials) {
+        ensureDiscountsValid(materials);
+        return typesWith(stripe -> stripe.discountedTypeCounts);
+    }
+    
+    /**
+     * Recomputes a total from scratch with compensated summation.
+     * 
+     * @param materials the materials to sum
+     * @param value the per-material value
+     * @return the sum
+     */
+    static double exactSum(Collection<Material> materials, ToDoubleFunction<Material> value) {
+        CompensatedSum sum = new CompensatedSum();
+        for (Material material : materials) {
+            sum.add(value.applyAsDouble(material));
+        }
+        return sum.value();
+    }
+    
+    private double total(ToDoubleFunction<Stripe> value) {
+        int count = 0;
+        CompensatedSum sum = new CompensatedSum();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.count;
+                sum.add(value.applyAsDouble(stripe));
+            }
+        }
+        // Rounding residue must not outlive the last material
+        return count == 0 ? 0.0 : sum.value();
+    }
+    
+    private List<Material.MaterialType> typesWith(Function<Stripe, int[]> counts) {
+        int[] totals = new int[TYPE_COUNT];
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                int[] stripeCounts = counts.apply(stripe);
+                for (int i = 0; i < TYPE_COUNT; i++) {
+                    totals[i] += stripeCounts[i];
+                }
+            }
+        }
+        
+        List<Material.MaterialType> types = new ArrayList<>();
+        for (int i = 0; i < TYPE_COUNT; i++) {
+            if (totals[i] > 0) {
+                types.add(TYPES[i]);
+            }
+        }
+        return types;
+    }
+    
+    private static int uniqueTypes(int[] typeCounts) {
+        int unique = 0;
+        for (int typeCount : typeCounts) {
+            if (typeCount > 0) {
+                unique++;
+            }
+        }
+        return unique;
+    }
+    
+    private static boolean isPrint(Material material) {
+        return material instanceof PrintedBook || material instanceof Magazine;
+    }
+    
+    private static void addDiscounts(Stripe stripe, Material material, int sign) {
+        double rate = material.getDiscountRate();
+        if (rate > 0) {
+            stripe.discountedTypeCounts[material.getType().ordinal()] += sign;
+        }
+        stripe.discountedSum.add(sign * material.getPrice() * (1.0 - rate));
+        stripe.discountAmountSum.add(sign * material.getPrice() * rate);
+    }
+    
+    private boolean discountsValid() {
+        return CurrentYear.millis() < discountsValidUntil;
+    }
+    
+    /**
+     * Rebuilds the discount sums once the month they were computed in has passed. New
+     * writes wait at the gate and the writes in flight are let through first, so the
+     * materials read here are exactly those the sums must cover. The caller must not be
+     * inside a write.
+     */
+    private void ensureDiscountsValid(Collection<Material> materials) {
+        if (discountsValid()) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            if (discountsValid()) {
+                return;
+            }
+            rebuilding = true;
+            try {
+                awaitWritesInFlight();
+                CompensatedSum discounted = new CompensatedSum();
+                CompensatedSum discountAmount = new CompensatedSum();
+                int[] discountedTypeCounts = new int[TYPE_COUNT];
+                for (Material material : materials) {
+                    double rate = material.getDiscountRate();
+                    if (rate > 0) {
+                        discountedTypeCounts[material.getType().ordinal()]++;
+                    }
+                    discounted.add(material.getPrice() * (1.0 - rate));
+                    discountAmount.add(material.getPrice() * rate);
+                }
+                for (Stripe stripe : stripes) {
+                    synchronized (stripe) {
+                        stripe.clearDiscounts();
+                    }
+                }
+                synchronized (stripes[0]) {
+                    System.arraycopy(discountedTypeCounts, 0, stripes[0].discountedTypeCounts, 0, TYPE_COUNT);
+                    stripes[0].discountedSum.add(discounted.value());
+                    stripes[0].discountAmountSum.add(discountAmount.value());
+                }
+                discountsValidUntil = CurrentYear.endOfMonth();
+            } finally {
+                rebuilding = false;
+                synchronized (gate) {
+                    gate.notifyAll();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Parks until every write that entered before the gate closed has exited. A writer
+     * exiting while the gate is closed notifies the gate, so no wake-up is lost.
+     */
+    private void awaitWritesInFlight() {
+        boolean interrupted = false;
+        synchronized (gate) {
+            while (writesInFlight.sum() != 0) {
+                try {
+                    gate.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private Stripe stripeFor(Material material) {
+        int hash = material.getId().hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    }
+    
+    /**
+     * Applies a stripe's queued price changes to the median heaps, in the order they
+     * were made. Called with the stripe's monitor held.
+     */
+    private void applyPending(Stripe stripe) {
+        if (stripe.pending == 0) {
+            return;
+        }
+        synchronized (prices) {
+            for (int i = 0; i < stripe.pending; i++) {
+                if (stripe.pendingRemoved[i]) {
+                    prices.remove(stripe.pendingPrices[i]);
+                } else {
+                    prices.insert(stripe.pendingPrices[i]);
+                }
+            }
+        }
+        stripe.pending = 0;
+    }
+    
+    /**
+     * Multiset of prices split at the median into a max-heap of the lower half and a
+     * min-heap of the upper half, kept within one element of each other in size.
+     * Removals are lazy: a removed price goes on a matching heap of removed prices and
+     * is discarded once both reach the top together, and a half is compacted when its
+     * removed prices outnumber its live ones. Not thread-safe.
+     */
+    private static final class MedianPrices {
+        // The lower half is stored negated so that both halves are min-heaps
+        private final DoubleHeap lower = new DoubleHeap();
+        private final DoubleHeap lowerRemoved = new DoubleHeap();
+        private final DoubleHeap upper = new DoubleHeap();
+        private final DoubleHeap upperRemoved = new DoubleHeap();
+        private int lowerSize;
+        private int upperSize;
+        
+        /**
+         * Adds a price. Callers normalize -0.0 to 0.0 first.
+         */
+        void insert(double price) {
+            if (lowerSize == 0 || price <= lowerTop()) {
+                lower.push(-price);
+                lowerSize++;
+            } else {
+                upper.push(price);
+                upperSize++;
+            }
+            rebalance();
+        }
+        
+        /**
+         * Removes one occurrence of a price, which must be held. Every lower price is
+         * at most every upper one, so a price no greater than the lower top is held in
+         * the lower half.
+         */
+        void remove(double price) {
+            if (lowerSize > 0 && price <= lowerTop()) {
+                lowerRemoved.push(-price);
+                lowerSize--;
+                if (lowerRemoved.size() > lowerSize + 64) {
+                    lower.subtract(lowerRemoved);
+                }
+            } else {
+                upperRemoved.push(price);
+                upperSize--;
+                if (upperRemoved.size() > upperSize + 64) {
+                    upper.subtract(upperRemoved);
+                }
+            }
+            rebalance();
+        }
+        
+        void clear() {
+            lower.clear();
+            lowerRemoved.clear();
+            upper.clear();
+            upperRemoved.clear();
+            lowerSize = 0;
+            upperSize = 0;
+        }
+        
+        /**
+         * Gets the median, averaging the two middle prices of an even count.
+         */
+        double median() {
+            if (lowerSize == 0) {
+                return 0.0;
+            }
+            if (lowerSize > upperSize) {
+                return lowerTop();
+            }
+            return (lowerTop() + upperTop()) / 2;
+        }
+        
+        private void rebalance() {
+            while (lowerSize > upperSize + 1) {
+                upper.push(lowerTop());
+                lower.pop();
+                lowerSize--;
+                upperSize++;
+            }
+            while (upperSize > lowerSize) {
+                lower.push(-upperTop());
+                upper.pop();
+                upperSize--;
+                lowerSize++;
+            }
+        }
+        
+        private double lowerTop() {
+            lower.discardRemoved(lowerRemoved);
+            return -lower.peek();
+        }
+        
+        private double upperTop() {
+            upper.discardRemoved(upperRemoved);
+            return upper.peek();
+        }
+    }
+    
+    /**
+     * Binary min-heap of primitive doubles. Not thread-safe.
+     */
+    private static final class DoubleHeap {
+        private double[] values = new double[16];
+        private int size;
+        
+        int size() {
+            return size;
+        }
+        
+        double peek() {
+            return values[0];
+        }
+        
+        void push(double value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (values[parent] <= value) {
+                    break;
+                }
+                values[i] = values[parent];
+                i = parent;
+            }
+            values[i] = value;
+        }
+        
+        double pop() {
+            double top = values[0];
+            double last = values[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && values[child + 1] < values[child]) {
+                    child++;
+                }
+                if (last <= values[child]) {
+                    break;
+                }
+                values[i] = values[child];
+                i = child;
+            }
+            values[i] = last;
+            return top;
+        }
+        
+        void clear() {
+            size = 0;
+        }
+        
+        /**
+         * Pops values that are also at the top of a heap of removed values, until the
+         * top of this heap is live.
+         */
+        void discardRemoved(DoubleHeap removed) {
+            while (removed.size > 0 && values[0] == removed.values[0]) {
+                pop();
+                removed.pop();
+            }
+        }
+        
+        /**
+         * Removes every value held in a heap of removed values, and empties it. Both are
+         * sorted and merged, and a sorted array is already a valid heap.
+         */
+        void subtract(DoubleHeap removed) {
+            Arrays.sort(values, 0, size);
+            Arrays.sort(removed.values, 0, removed.size);
+            int kept = 0;
+            int r = 0;
+            for (int i = 0; i < size; i++) {
+                if (r < removed.size && values[i] == removed.values[r]) {
+                    r++;
+                } else {
+                    values[kept++] = values[i];
+                }
+            }
+            size = kept;
+            removed.size = 0;
+        }
+    }
+    
+    /**
+     * Kahan compensated running sum.
+     */
+    private static final class CompensatedSum {
+        private double sum;
+        private double compensation;
+        
+        void add(double value) {
+            double y = value - compensation;
+            double t = sum + y;
+            compensation = (t - sum) - y;
+            sum = t;
+        }
+        
+        double value() {
+            return sum;
+        }
+        
+        void reset() {
+            sum = 0;
+            compensation = 0;
+        }
+    }
+}
\ No newline at end of file
@@ -3,26 +3,42 @@ package com.university.bookstore.impl;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.university.bookstore.api.MaterialPage;
 import com.university.bookstore.api.MaterialStore;
-import com.university.bookstore.model.Magazine;
+import com.university.bookstore.api.ModernMaterialStore.BatchOperationResult;
+import com.university.bookstore.model.CurrentYear;
 import com.university.bookstore.model.Material;
 import com.university.bookstore.model.Media;
-import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.search.MaterialIndex;
+import com.university.bookstore.search.SearchText;
+import com.university.bookstore.search.TopK;
 
 /**
- * Implementation of MaterialStore using ArrayList with polymorphic handling.
+ * Implementation of MaterialStore with polymorphic handling.
  * Demonstrates polymorphism, SOLID principles, and defensive programming.
+ * Type, year, creator and price lookups are served by a {@link MaterialIndex}
+ * and inventory statistics by running aggregates. Those lookups return materials
+ * sharing a type, year or price in insertion order, and year and price ranges
+ * ordered by key first.
+ * 
+ * <p>Materials are kept in an insertion-ordered map, so removal is constant time
+ * rather than a list scan and shift, together with their title and creator
+ * normalized for search on ingest ({@link SearchKeys}). Writes are synchronized. Lookups by ID go to a
+ * concurrent map and need no lock; scans iterate an immutable snapshot of the
+ * inventory that is published through a volatile field and rebuilt on the first scan
+ * after a write, so unsynchronized readers never see a list being modified.</p>
  * 
  * @author Navid Mohaghegh
  * @version 2.0
@@ -30,15 +46,21 @@ import com.university.bookstore.model.PrintedBook;
  */
 public class MaterialStoreImpl implements MaterialStore {
     
-    private final List<Material> inventory;
+    private final Map<String, SearchKeys> inventory;
     private final Map<String, Material> idIndex;
+    private final MaterialIndex index;
+    private final InventoryAggregates aggregates;
+    private long version;
+    private volatile MaterialsSnapshot view;
     
     /**
      * Creates a new empty material store.
      */
     public MaterialStoreImpl() {
-        this.inventory = new ArrayList<>();
-        this.idIndex = new HashMap<>();
+        this.inventory = new LinkedHashMap<>();
+        this.idIndex = new ConcurrentHashMap<>();
+        this.index = new MaterialIndex();
+        this.aggregates = new InventoryAggregates();
     }
     
     /**
@@ -65,8 +87,16 @@ public class MaterialStoreImpl implements MaterialStore {
             return false;
         }
         
-        inventory.add(material);
-        idIndex.put(material.getId(), material);
+        aggregates.enterWrite();
+        try {
+            inventory.put(material.getId(), SearchKeys.of(material));
+            idIndex.put(material.getId(), material);
+            index.add(material);
+            aggregates.add(material);
+        } finally {
+            aggregates.exitWrite();
+        }
+        invalidateView();
         return true;
     }
     
@@ -76,12 +106,55 @@ public class MaterialStoreImpl implements MaterialStore {
             return Optional.empty();
         }
         
-        Material material = idIndex.remove(id);
-        if (material != null) {
-            inventory.remove(material);
-            return Optional.of(material);
+        aggregates.enterWrite();
+        try {
+            SearchKeys keys = inventory.remove(id);
+            if (keys != null) {
+                Material material = keys.material();
+                idIndex.remove(id);
+                index.remove(material);
+                aggregates.remove(material);
+                invalidateView();
+                return Optional.of(material);
+            }
+            return Optional.empty();
+        } finally {
+            aggregates.exitWrite();
+        }
+    }
+    
+    /**
+     * Removes many materials in a single synchronized pass. The indexes and aggregates
+     * are updated once for the whole batch and the scan snapshot is invalidated once.
+     * 
+     * @param ids the IDs to remove; nulls and repeats are reported as failures
+     * @return the number removed and the reasons for any failures
+     */
+    public synchronized BatchOperationResult removeMaterialsBatch(Collection<String> ids) {
+        BatchIds batch = BatchIds.of(ids);
+        List<Material> removed = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        
+        aggregates.enterWrite();
+        try {
+            for (String id : batch.unique()) {
+                SearchKeys keys = inventory.remove(id);
+                if (keys != null) {
+                    idIndex.remove(id);
+                    removed.add(keys.material());
+                } else {
+                    notFound.add(id);
+                }
+            }
+            if (!removed.isEmpty()) {
+                index.removeAll(removed);
+                aggregates.removeAll(removed);
+                invalidateView();
+            }
+        } finally {
+            aggregates.exitWrite();
         }
-        return Optional.empty();
+        return batch.result(removed.size(), notFound);
     }
     
     @Override
@@ -98,10 +171,39 @@ public class MaterialStoreImpl implements MaterialStore {
             return new ArrayList<>();
         }
         
-        String searchTerm = title.toLowerCase().trim();
-        return inventory.stream()
-            .filter(m -> m.getTitle().toLowerCase().contains(searchTerm))
-            .collect(Collectors.toList());
+        return streamByTitle(title).collect(Collectors.toList());
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Matches are produced lazily from the current snapshot.</p>
+     */
+    @Override
+    public Stream<Material> streamByTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            return Stream.empty();
+        }
+        
+        String searchTerm = SearchText.normalize(title).trim();
+        return view().searchKeys().stream()
+            .filter(keys -> keys.title().contains(searchTerm))
+            .map(SearchKeys::material);
+    }
+    
+    @Override
+    public Stream<Material> streamMaterials() {
+        return view().all().stream();
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Served from the snapshot's cached natural-order view in O(log n + limit).</p>
+     */
+    @Override
+    public MaterialPage getSortedPage(MaterialPage.Cursor after, int limit) {
+        return MaterialPage.from(view().sorted(Comparator.naturalOrder()), after, limit);
     }
     
     @Override
@@ -110,9 +212,10 @@ public class MaterialStoreImpl implements MaterialStore {
             return new ArrayList<>();
         }
         
-        String searchTerm = creator.toLowerCase().trim();
-        return inventory.stream()
-            .filter(m -> m.getCreator().toLowerCase().contains(searchTerm))
+        String searchTerm = SearchText.normalize(creator).trim();
+        return view().searchKeys().stream()
+            .filter(keys -> keys.creator().contains(searchTerm))
+            .map(SearchKeys::material)
             .collect(Collectors.toList());
     }
     
@@ -122,14 +225,12 @@ public class MaterialStoreImpl implements MaterialStore {
             return new ArrayList<>();
         }
         
-        return inventory.stream()
-            .filter(m -> m.getType() == type)
-            .collect(Collectors.toList());
+        return index.findByType(type);
     }
     
     @Override
     public List<Media> getMediaMaterials() {
-        return inventory.stream()
+        return view().all().stream()
             .filter(m -> m instanceof Media)
             .map(m -> (Media) m)
             .collect(Collectors.toList());
@@ -141,7 +242,7 @@ public class MaterialStoreImpl implements MaterialStore {
             throw new NullPointerException("Predicate cannot be null");
         }
         
-        return inventory.stream()
+        return view().all().stream()
             .filter(predicate)
             .collect(Collectors.toList());
     }
@@ -152,101 +253,66 @@ public class MaterialStoreImpl implements MaterialStore {
             return new ArrayList<>();
         }
         
-        return inventory.stream()
-            .filter(m -> m.getPrice() >= minPrice && m.getPrice() <= maxPrice)
-            .collect(Collectors.toList());
+        return index.findByPriceRange(minPrice, maxPrice);
     }
     
     @Override
     public List<Material> getMaterialsByYear(int year) {
-        return inventory.stream()
-            .filter(m -> m.getYear() == year)
-            .collect(Collectors.toList());
+        return index.findByYear(year);
     }
     
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Returns an unmodifiable list shared by every caller until the next write.</p>
+     */
     @Override
     public List<Material> getAllMaterialsSorted() {
-        List<Material> sorted = new ArrayList<>(inventory);
-        Collections.sort(sorted);
-        return sorted;
+        return view().sorted(Comparator.naturalOrder());
     }
     
     @Override
     public List<Material> getAllMaterials() {
-        return new ArrayList<>(inventory);
+        return new ArrayList<>(view().all());
     }
     
     @Override
     public double getTotalInventoryValue() {
-        return inventory.stream()
-            .mapToDouble(Material::getPrice)
-            .sum();
+        return aggregates.totalValue();
     }
     
     @Override
     public double getTotalDiscountedValue() {
-        return inventory.stream()
-            .mapToDouble(Material::getDiscountedPrice)
-            .sum();
+        return aggregates.totalDiscountedValue(idIndex.values());
     }
     
     @Override
     public InventoryStats getInventoryStats() {
-        if (inventory.isEmpty()) {
-            return new InventoryStats(0, 0, 0, 0, 0, 0);
-        }
-        
-        List<Double> prices = inventory.stream()
-            .map(Material::getPrice)
-            .sorted()
-            .collect(Collectors.toList());
-        
-        double averagePrice = prices.stream()
-            .mapToDouble(Double::doubleValue)
-            .average()
-            .orElse(0.0);
-        
-        double medianPrice = prices.size() % 2 == 0
-            ? (prices.get(prices.size() / 2 - 1) + prices.get(prices.size() / 2)) / 2
-            : prices.get(prices.size() / 2);
-        
-        int uniqueTypes = (int) inventory.stream()
-            .map(Material::getType)
-            .distinct()
-            .count();
-        
-        int mediaCount = (int) inventory.stream()
-            .filter(m -> m instanceof Media)
-            .count();
-        
-        int printCount = (int) inventory.stream()
-            .filter(m -> m instanceof PrintedBook || m instanceof Magazine)
-            .count();
-        
-        return new InventoryStats(
-            inventory.size(),
-            averagePrice,
-            medianPrice,
-            uniqueTypes,
-            mediaCount,
-            printCount
-        );
+        return aggregates.stats();
     }
     
     @Override
     public synchronized void clearInventory() {
-        inventory.clear();
-        idIndex.clear();
+        aggregates.enterWrite();
+        try {
+            inventory.clear();
+            idIndex.clear();
+            index.clear();
+            aggregates.clear();
+        } finally {
+            aggregates.exitWrite();
+        }
+        invalidateView();
     }
     
     @Override
     public int size() {
-        return inventory.size();
+        return idIndex.size();
     }
     
     @Override
     public boolean isEmpty() {
-        return inventory.isEmpty();
+        return idIndex.isEmpty();
     }
     
     @Override
@@ -255,12 +321,7 @@ public class MaterialStoreImpl implements MaterialStore {
             throw new IllegalArgumentException("Years cannot be negative: " + years);
         }
         
-        int currentYear = java.time.Year.now().getValue();
-        int cutoffYear = currentYear - years;
-        
-        return inventory.stream()
-            .filter(material -> material.getYear() >= cutoffYear)
-            .collect(Collectors.toList());
+        return index.findSinceYear(CurrentYear.get() - years);
     }
     
     @Override
@@ -279,9 +340,7 @@ public class MaterialStoreImpl implements MaterialStore {
             return new ArrayList<>();
         }
         
-        return inventory.stream()
-            .filter(material -> creatorSet.contains(material.getCreator()))
-            .collect(Collectors.toList());
+        return index.findByCreators(creatorSet);
     }
     
     @Override
@@ -290,20 +349,45 @@ public class MaterialStoreImpl implements MaterialStore {
             throw new NullPointerException("Predicate cannot be null");
         }
         
-        return inventory.stream()
+        return view().all().stream()
             .filter(condition)
             .collect(Collectors.toList());
     }
     
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Returns an unmodifiable list. Sorted views are cached per comparator instance
+     * until the next write, so callers should reuse their comparators.</p>
+     */
     @Override
     public List<Material> getSorted(Comparator<Material> comparator) {
         if (comparator == null) {
             throw new NullPointerException("Comparator cannot be null");
         }
         
-        return inventory.stream()
-            .sorted(comparator)
-            .collect(Collectors.toList());
+        return view().sorted(comparator);
+    }
+    
+    @Override
+    public List<Material> topK(int k, Comparator<Material> comparator, Material.MaterialType type) {
+        TopK.checkLimit(k);
+        return TopK.select(type == null ? view().all() : index.findByType(type), k, comparator);
+    }
+    
+    @Override
+    public List<Material> findCheapest(int k, Material.MaterialType type) {
+        return index.findCheapest(k, type);
+    }
+    
+    @Override
+    public List<Material> findMostExpensive(int k, Material.MaterialType type) {
+        return index.findMostExpensive(k, type);
+    }
+    
+    @Override
+    public List<Material> findNewest(int k, Material.MaterialType type) {
+        return index.findNewest(k, type);
     }
     
     /**
@@ -312,7 +396,7 @@ public class MaterialStoreImpl implements MaterialStore {
      * @return list of display strings
      */
     public List<String> getAllDisplayInfo() {
-        return inventory.stream()
+        return view().all().stream()
             .map(Material::getDisplayInfo)
             .collect(Collectors.toList());
     }
@@ -323,7 +407,7 @@ public class MaterialStoreImpl implements MaterialStore {
      * @return map of type to materials
      */
     public Map<Material.MaterialType, List<Material>> groupByType() {
-        return inventory.stream()
+        return view().all().stream()
             .collect(Collectors.groupingBy(Material::getType));
     }
     
@@ -333,7 +417,7 @@ public class MaterialStoreImpl implements MaterialStore {
      * @return list of discounted materials
      */
     public List<Material> getDiscountedMaterials() {
-        return inventory.stream()
+        return view().all().stream()
             .filter(m -> m.getDiscountRate() > 0)
             .collect(Collectors.toList());
     }
@@ -344,9 +428,32 @@ public class MaterialStoreImpl implements MaterialStore {
      * @return total discount amount
      */
     public double getTotalDiscountAmount() {
-        return inventory.stream()
-            .mapToDouble(m -> m.getPrice() * m.getDiscountRate())
-            .sum();
+        return aggregates.totalDiscountAmount(idIndex.values());
+    }
+    
+    /**
+     * Gets the snapshot scanned by unsynchronized reads, rebuilding it if a write has
+     * happened since it was taken.
+     */
+    private MaterialsSnapshot view() {
+        MaterialsSnapshot current = view;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (view == null) {
+                view = MaterialsSnapshot.withSearchKeys(inventory.values(), version);
+            }
+            return view;
+        }
+    }
+    
+    /**
+     * Called with the store lock held after every write.
+     */
+    private void invalidateView() {
+        version++;
+        view = null;
     }
     
     @Override
@@ -0,0 +1,122 @@
+package com.university.bookstore.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.university.bookstore.model.Material;
+
+/**
+ * Immutable copy of a store's materials taken at one store version, shared by every
+ * read until the next write.
+ * 
+ * <p>Sorted views are built on first request and cached per comparator instance, so
+ * repeated sorted reads between writes neither copy nor sort. Comparators are compared
+ * by identity; callers that build a new comparator per call still get a correct sort
+ * but no caching, and at most {@value #MAX_SORTED_VIEWS} views are kept per
+ * snapshot.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+final class MaterialsSnapshot {
+    
+    private static final int MAX_SORTED_VIEWS = 8;
+    
+    private final long version;
+    private final Material[] rows;
+    private final List<Material> all;
+    private final Map<Comparator<? super Material>, List<Material>> sortedViews;
+    private final List<SearchKeys> searchKeys;
+    
+    private MaterialsSnapshot(Material[] rows, SearchKeys[] keys, long version) {
+        this.version = version;
+        this.rows = rows;
+        this.all = Collections.unmodifiableList(Arrays.asList(rows));
+        this.sortedViews = new ConcurrentHashMap<>();
+        this.searchKeys = keys == null ? null : Collections.unmodifiableList(Arrays.asList(keys));
+    }
+    
+    /**
+     * Copies a collection of materials into a snapshot.
+     * 
+     * @param materials the materials to copy
+     * @param version the store version the copy is taken at
+     * @return the snapshot
+     */
+    static MaterialsSnapshot of(Collection<Material> materials, long version) {
+        return new MaterialsSnapshot(materials.toArray(new Material[0]), null, version);
+    }
+    
+    /**
+     * Copies materials together with the search keys normalized when they were added,
+     * so searches over the snapshot need not lowercase any candidate.
+     * 
+     * @param keys the search keys to copy, in store iteration order
+     * @param version the store version the copy is taken at
+     * @return the snapshot
+     */
+    static MaterialsSnapshot withSearchKeys(Collection<SearchKeys> keys, long version) {
+        SearchKeys[] copy = keys.toArray(new SearchKeys[0]);
+        Material[] rows = new Material[copy.length];
+        for (int i = 0; i < copy.length; i++) {
+            rows[i] = copy[i].material();
+        }
+        return new MaterialsSnapshot(rows, copy, version);
+    }
+    
+    long version() {
+        return version;
+    }
+    
+    /**
+     * Gets every material in the snapshot.
+     * 
+     * @return an unmodifiable list in store iteration order
+     */
+    List<Material> all() {
+        return all;
+    }
+    
+    /**
+     * Gets the search keys of every material in the snapshot.
+     * 
+     * @return an unmodifiable list in store iteration order
+     * @throws IllegalStateException if the snapshot was not taken with search keys
+     */
+    List<SearchKeys> searchKeys() {
+        if (searchKeys == null) {
+            throw new IllegalStateException("Snapshot was taken without search keys");
+        }
+        return searchKeys;
+    }
+    
+    /**
+     * Gets the materials sorted by a comparator.
+     * 
+     * @param comparator the sort order
+     * @return an unmodifiable sorted list
+     */
+    List<Material> sorted(Comparator<? super Material> comparator) {
+        List<Material> view = sortedViews.get(comparator);
+        if (view != null) {
+            return view;
+        }
+        
+        Material[] copy = rows.clone();
+        Arrays.sort(copy, comparator);
+        view = Collections.unmodifiableList(Arrays.asList(copy));
+        if (sortedViews.size() < MAX_SORTED_VIEWS) {
+            List<Material> raced = sortedViews.putIfAbsent(comparator, view);
+            if (raced != null) {
+                return raced;
+            }
+        }
+        return view;
+    }
+}
\ No newline at end of file
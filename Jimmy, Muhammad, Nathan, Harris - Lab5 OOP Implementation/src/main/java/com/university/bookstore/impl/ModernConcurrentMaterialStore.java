@@ -2,56 +2,177 @@ package com.university.bookstore.impl;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.university.bookstore.api.MaterialStore;
-import com.university.bookstore.model.Magazine;
+import com.university.bookstore.api.MaterialPage;
+import com.university.bookstore.api.ModernMaterialStore;
+import com.university.bookstore.impl.AsyncExecutionStrategy.Workload;
+import com.university.bookstore.model.CurrentYear;
 import com.university.bookstore.model.Material;
 import com.university.bookstore.model.Media;
-import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.search.MaterialIndex;
+import com.university.bookstore.search.QueryPlanner;
+import com.university.bookstore.search.QueryPlanner.QueryPlan;
+import com.university.bookstore.search.SearchText;
 
 /**
  * Modern thread-safe implementation of MaterialStore using best practices.
  * Features:
- * - StampedLock for optimized read performance
+ * - Lock-free reads and striped writes (default {@link ConcurrencyMode#LOCK_FREE})
+ * - Optional global StampedLock mode ({@link ConcurrencyMode#STAMPED_LOCK}), read optimistically
+ * - Incrementally maintained secondary indexes for type, year, creator and price
+ * - Title and creator search keys normalized once on ingest
+ * - Running aggregates for O(1) inventory statistics and value totals
+ * - Immutable snapshot shared by full and sorted reads until the next write
+ * - Memoized type, year, recency and price range queries, invalidated per bucket ({@link QueryMemo})
+ * - Cost-based planning of multi-criteria searches ({@link #advancedSearchAsync})
  * - ExecutorService for async operations
+ * - Cost-aware async dispatch: cheap operations complete inline ({@link AsyncExecutionStrategy})
  * - CompletableFuture for non-blocking operations
  * - Proper resource management with AutoCloseable
- * - Virtual thread support (when available)
+ * - Virtual thread support for blocking work (when available)
  * 
  * @author Navid Mohaghegh
  * @version 4.0
  * @since 2024-09-15
  */
-public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseable {
+public class ModernConcurrentMaterialStore implements ModernMaterialStore, AutoCloseable {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(ModernConcurrentMaterialStore.class);
+    private static final int QUERY_MEMO_SIZE = 256;
+    // Largest ID batch looked up on the calling thread; bigger ones go to the compute pool
+    private static final int INLINE_LOOKUP_LIMIT = 16;
     
-    private final Map<String, Material> materials;
+    /**
+     * Coordination strategy between readers and writers.
+     */
+    public enum ConcurrencyMode {
+        /**
+         * Readers run directly against the ConcurrentHashMap without any shared lock.
+         * Writers are not isolated per key: besides the map bin of the key they modify
+         * they take the aggregate stripe their material ID hashes to, the index locks
+         * striped by year and price, and, about once per thousand writes to a stripe,
+         * the monitor guarding the median price.
+         * Scans are weakly consistent, exactly like ConcurrentHashMap iteration.
+         */
+        LOCK_FREE,
+        
+        /**
+         * Every write takes the exclusive StampedLock write lock, and every read observes
+         * a single point in time: it runs optimistically and is retried under the read
+         * lock only if a writer intervened (see {@link #setOptimisticReads}).
+         */
+        STAMPED_LOCK
+    }
+    
+    /**
+     * Size, number of distinct types and total value of a store, read from the running
+     * aggregates as one consistent triple.
+     * 
+     * @param size the number of materials
+     * @param typeCount the number of distinct material types
+     * @param totalValue the total price of all materials
+     */
+    public record Summary(int size, int typeCount, double totalValue) {
+    }
+    
+    /**
+     * How reads in {@link ConcurrencyMode#STAMPED_LOCK} mode got past the global lock.
+     * 
+     * @param optimisticReads reads validated without taking the lock
+     * @param fallbacks optimistic reads invalidated by a writer and retried under the lock
+     * @param lockedReads reads that took the read lock, including fallbacks
+     */
+    public record ReadStats(long optimisticReads, long fallbacks, long lockedReads) {
+        
+        /**
+         * Gets the fraction of optimistic attempts that validated.
+         * 
+         * @return the success rate, or 1.0 before any optimistic attempt
+         */
+        public double optimisticSuccessRate() {
+            long attempts = optimisticReads + fallbacks;
+            return attempts == 0 ? 1.0 : (double) optimisticReads / attempts;
+        }
+    }
+    
+    private final ConcurrentHashMap<String, Material> materials;
+    private final ConcurrentHashMap<String, SearchKeys> searchKeys;
+    private final MaterialIndex index;
+    private final QueryPlanner planner;
+    private final InventoryAggregates aggregates;
+    private final QueryMemo memo;
+    private final AtomicLong version;
+    private final Object snapshotMonitor;
+    private volatile MaterialsSnapshot view;
+    private final ConcurrencyMode concurrencyMode;
     private final StampedLock stampedLock;
     private final ExecutorService executorService;
     private final ScheduledExecutorService scheduledExecutor;
+    private final AsyncExecutionStrategy asyncExecution;
+    private final LongAdder optimisticReads = new LongAdder();
+    private final LongAdder optimisticFallbacks = new LongAdder();
+    private final LongAdder lockedReads = new LongAdder();
+    private volatile boolean optimisticReadsEnabled = true;
+    private volatile boolean exactTotals = false;
     private volatile boolean closed = false;
     
     /**
-     * Creates a new modern thread-safe material store.
+     * Creates a new modern thread-safe material store with lock-free reads.
      */
     public ModernConcurrentMaterialStore() {
-        this.materials = new ConcurrentHashMap<>();
+        this(ConcurrencyMode.LOCK_FREE);
+    }
+    
+    /**
+     * Creates a new modern thread-safe material store using the given concurrency mode.
+     * 
+     * @param concurrencyMode how readers and writers are coordinated
+     */
+    public ModernConcurrentMaterialStore(ConcurrencyMode concurrencyMode) {
+        this(concurrencyMode, 16);
+    }
+    
+    /**
+     * Creates a new modern thread-safe material store sized for an expected number of
+     * materials, so bulk loads do not repeatedly resize the map.
+     * 
+     * @param concurrencyMode how readers and writers are coordinated
+     * @param expectedSize the number of materials the store is expected to hold
+     */
+    public ModernConcurrentMaterialStore(ConcurrencyMode concurrencyMode, int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative: " + expectedSize);
+        }
+        this.concurrencyMode = Objects.requireNonNull(concurrencyMode, "Concurrency mode cannot be null");
+        this.materials = new ConcurrentHashMap<>(expectedSize);
+        this.searchKeys = new ConcurrentHashMap<>(expectedSize);
+        this.index = new MaterialIndex();
+        this.planner = new QueryPlanner(index, materials::values);
+        this.aggregates = new InventoryAggregates();
+        this.memo = new QueryMemo(QUERY_MEMO_SIZE);
+        this.version = new AtomicLong();
+        this.snapshotMonitor = new Object();
         this.stampedLock = new StampedLock();
         
         // Use ForkJoinPool for better work-stealing behavior
         this.executorService = new ForkJoinPool(
             Runtime.getRuntime().availableProcessors(),
             ForkJoinPool.defaultForkJoinWorkerThreadFactory,
-            null, 
+            null,
             true // Enable async mode for better throughput
         );
+        this.asyncExecution = new AsyncExecutionStrategy(executorService, AsyncExecutionStrategy.Mode.ADAPTIVE);
         
         this.scheduledExecutor = Executors.newScheduledThreadPool(2, r -> {
             Thread t = new Thread(r, "MaterialStore-Scheduler");
@@ -64,22 +185,23 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
     }
     
     /**
-     * Creates a material store with initial materials.
+     * Creates a material store with initial materials, bulk loaded into a store presized
+     * for them. Null entries and repeated IDs are skipped.
      * 
      * @param initialMaterials materials to add initially
      */
     public ModernConcurrentMaterialStore(Collection<Material> initialMaterials) {
-        this();
+        this(ConcurrencyMode.LOCK_FREE, initialMaterials == null ? 0 : initialMaterials.size());
         if (initialMaterials != null) {
-            // Parallel addition for better performance
-            initialMaterials.parallelStream().forEach(this::addMaterial);
+            // Not yet published, so no other thread can observe or modify the store
+            ingest(PreparedBatch.of(initialMaterials), true);
         }
     }
     
     private void scheduleMaintenanceTasks() {
         // Example: periodic cache cleanup or metrics collection
         scheduledExecutor.scheduleAtFixedRate(
-            this::performMaintenance, 
+            this::performMaintenance,
             1, 1, TimeUnit.HOURS
         );
     }
@@ -96,48 +218,52 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
         Objects.requireNonNull(material, "Material cannot be null");
         ensureNotClosed();
         
-        long stamp = stampedLock.writeLock();
-        try {
-            return materials.putIfAbsent(material.getId(), material) == null;
-        } finally {
-            stampedLock.unlockWrite(stamp);
-        }
+        return writeLocked(() -> insert(material));
     }
     
     /**
-     * Adds material asynchronously.
+     * Adds material asynchronously. The insert only runs inline in lock-free mode;
+     * in StampedLock mode it may wait for the write lock, so it is dispatched as
+     * blocking work.
      * 
      * @param material the material to add
      * @return CompletableFuture with the result
      */
+    @Override
     public CompletableFuture<Boolean> addMaterialAsync(Material material) {
-        return CompletableFuture.supplyAsync(
-            () -> addMaterial(material), 
-            executorService
-        );
+        return asyncExecution.supply(constantTimeWorkload(), () -> addMaterial(material));
     }
     
     /**
-     * Adds multiple materials in batch asynchronously.
+     * Adds many materials in one bulk operation.
      * 
-     * @param materials collection of materials to add
-     * @return CompletableFuture with results map
+     * <p>The batch is validated, de-duplicated and normalized for search in parallel,
+     * then inserted in a single pass that updates the map, indexes and aggregates of
+     * each material together. Snapshots are invalidated once for the whole batch.
+     * Null entries, IDs repeated within the batch and IDs already in the store are
+     * reported as failures; the first occurrence of a repeated ID wins.</p>
+     * 
+     * @param materials the materials to add
+     * @return the number added and the reasons for any failures
      */
-    public CompletableFuture<Map<String, Boolean>> addMaterialsBatchAsync(Collection<Material> materials) {
-        List<CompletableFuture<Map.Entry<String, Boolean>>> futures = materials.stream()
-            .map(material -> CompletableFuture.supplyAsync(
-                () -> Map.entry(material.getId(), addMaterial(material)),
-                executorService
-            ))
-            .toList();
+    public BatchOperationResult addMaterialsBatch(Collection<Material> materials) {
+        Objects.requireNonNull(materials, "Materials cannot be null");
+        ensureNotClosed();
         
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-            .thenApply(v -> futures.stream()
-                .map(CompletableFuture::join)
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    Map.Entry::getValue
-                )));
+        PreparedBatch batch = PreparedBatch.of(materials);
+        return writeLocked(() -> ingest(batch, false));
+    }
+    
+    /**
+     * Adds many materials in one bulk operation asynchronously.
+     * 
+     * @param materials the materials to add
+     * @return CompletableFuture with the batch result
+     * @see #addMaterialsBatch(Collection)
+     */
+    @Override
+    public CompletableFuture<BatchOperationResult> addMaterialsBatchAsync(List<Material> materials) {
+        return asyncExecution.supply(Workload.COMPUTE, () -> addMaterialsBatch(materials));
     }
     
     @Override
@@ -147,12 +273,50 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
         }
         ensureNotClosed();
         
-        long stamp = stampedLock.writeLock();
-        try {
-            return Optional.ofNullable(materials.remove(id));
-        } finally {
-            stampedLock.unlockWrite(stamp);
-        }
+        return writeLocked(() -> Optional.ofNullable(delete(id)));
+    }
+    
+    /**
+     * Removes many materials in one pass. Each material is removed and un-indexed while
+     * holding its own map bin, exactly like {@link #removeMaterial}, so concurrent
+     * lock-free writers are never blocked by the batch; snapshots are invalidated once
+     * for the whole batch.
+     * 
+     * @param ids the IDs to remove; nulls and repeats are reported as failures
+     * @return the number removed and the reasons for any failures
+     */
+    public BatchOperationResult removeMaterialsBatch(Collection<String> ids) {
+        ensureNotClosed();
+        BatchIds batch = BatchIds.of(ids);
+        
+        return writeLocked(() -> {
+            List<Material> removed = new ArrayList<>();
+            List<String> notFound = new ArrayList<>();
+            for (String id : batch.unique()) {
+                Material material = unput(id);
+                if (material != null) {
+                    removed.add(material);
+                } else {
+                    notFound.add(id);
+                }
+            }
+            if (!removed.isEmpty()) {
+                invalidate(removed, version.incrementAndGet());
+            }
+            return batch.result(removed.size(), notFound);
+        });
+    }
+    
+    /**
+     * Removes many materials in one pass asynchronously.
+     * 
+     * @param ids the IDs to remove
+     * @return CompletableFuture with the batch result
+     * @see #removeMaterialsBatch(Collection)
+     */
+    @Override
+    public CompletableFuture<BatchOperationResult> removeMaterialsBatchAsync(List<String> ids) {
+        return asyncExecution.supply(Workload.COMPUTE, () -> removeMaterialsBatch(ids));
     }
     
     @Override
@@ -162,58 +326,37 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
         }
         ensureNotClosed();
         
-        // Try optimistic read first for better performance
-        long stamp = stampedLock.tryOptimisticRead();
-        Material material = materials.get(id);
-        
-        if (!stampedLock.validate(stamp)) {
-            // Optimistic read failed, acquire read lock
-            stamp = stampedLock.readLock();
-            try {
-                material = materials.get(id);
-            } finally {
-                stampedLock.unlockRead(stamp);
-            }
-        }
-        
-        return Optional.ofNullable(material);
+        return Optional.ofNullable(optimisticRead(() -> materials.get(id)));
     }
     
     /**
-     * Finds material by ID asynchronously.
+     * Finds material by ID asynchronously. Like {@link #addMaterialAsync}, the lookup
+     * only runs inline in lock-free mode.
      * 
      * @param id the material ID
      * @return CompletableFuture with the result
      */
+    @Override
     public CompletableFuture<Optional<Material>> findByIdAsync(String id) {
-        return CompletableFuture.supplyAsync(
-            () -> findById(id), 
-            executorService
-        );
+        return asyncExecution.supply(constantTimeWorkload(), () -> findById(id));
     }
     
     /**
-     * Finds multiple materials by IDs asynchronously.
+     * Finds multiple materials by IDs asynchronously, as one task rather than one per ID.
+     * Small batches are looked up like a single ID; larger ones run on the compute pool.
      * 
      * @param ids list of material IDs
      * @return CompletableFuture with results map
      */
     public CompletableFuture<Map<String, Material>> findByIdsAsync(List<String> ids) {
-        List<CompletableFuture<Map.Entry<String, Optional<Material>>>> futures = ids.stream()
-            .map(id -> CompletableFuture.supplyAsync(
-                () -> Map.entry(id, findById(id)),
-                executorService
-            ))
-            .toList();
-        
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-            .thenApply(v -> futures.stream()
-                .map(CompletableFuture::join)
-                .filter(entry -> entry.getValue().isPresent())
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    entry -> entry.getValue().get()
-                )));
+        Workload workload = ids.size() <= INLINE_LOOKUP_LIMIT ? constantTimeWorkload() : Workload.COMPUTE;
+        return asyncExecution.supply(workload, () -> {
+            Map<String, Material> found = new HashMap<>();
+            for (String id : ids) {
+                findById(id).ifPresent(material -> found.put(id, material));
+            }
+            return found;
+        });
     }
     
     @Override
@@ -223,15 +366,52 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
         }
         ensureNotClosed();
         
-        String searchTerm = title.toLowerCase().trim();
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().parallelStream()
-                .filter(m -> m.getTitle().toLowerCase().contains(searchTerm))
-                .collect(Collectors.toList());
-        } finally {
-            stampedLock.unlockRead(stamp);
+        String searchTerm = SearchText.normalize(title).trim();
+        return optimisticRead(() -> searchKeys.values().parallelStream()
+                .filter(keys -> keys.title().contains(searchTerm))
+                .map(SearchKeys::material)
+                .collect(Collectors.toList()));
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Matches are produced lazily from the live search keys; the stream is weakly
+     * consistent with writes made while it is consumed.</p>
+     */
+    @Override
+    public Stream<Material> streamByTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            return Stream.empty();
         }
+        ensureNotClosed();
+        
+        String searchTerm = SearchText.normalize(title).trim();
+        return searchKeys.values().stream()
+            .filter(keys -> keys.title().contains(searchTerm))
+            .map(SearchKeys::material);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Streams the shared snapshot, so no per-call copy is made.</p>
+     */
+    @Override
+    public Stream<Material> streamMaterials() {
+        return getAllMaterials().stream();
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Served from the snapshot's cached natural-order view in O(log n + limit).</p>
+     */
+    @Override
+    public MaterialPage getSortedPage(MaterialPage.Cursor after, int limit) {
+        ensureNotClosed();
+        
+        return optimisticRead(() -> MaterialPage.from(view().sorted(Comparator.naturalOrder()), after, limit));
     }
     
     /**
@@ -240,11 +420,9 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
      * @param title the title to search for
      * @return CompletableFuture with the results
      */
+    @Override
     public CompletableFuture<List<Material>> searchByTitleAsync(String title) {
-        return CompletableFuture.supplyAsync(
-            () -> searchByTitle(title), 
-            executorService
-        );
+        return asyncExecution.supply(Workload.COMPUTE, () -> searchByTitle(title));
     }
     
     @Override
@@ -254,17 +432,19 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
         }
         ensureNotClosed();
         
-        String searchTerm = creator.toLowerCase().trim();
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().parallelStream()
-                .filter(m -> m.getCreator().toLowerCase().contains(searchTerm))
-                .collect(Collectors.toList());
-        } finally {
-            stampedLock.unlockRead(stamp);
-        }
+        String searchTerm = SearchText.normalize(creator).trim();
+        return optimisticRead(() -> searchKeys.values().parallelStream()
+                .filter(keys -> keys.creator().contains(searchTerm))
+                .map(SearchKeys::material)
+                .collect(Collectors.toList()));
     }
     
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Returns an unmodifiable list, memoized and shared by every caller
+     * until a write adds or removes a material of the type.</p>
+     */
     @Override
     public List<Material> getMaterialsByType(Material.MaterialType type) {
         if (type == null) {
@@ -272,29 +452,29 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
         }
         ensureNotClosed();
         
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().parallelStream()
-                .filter(m -> m.getType() == type)
-                .collect(Collectors.toList());
-        } finally {
-            stampedLock.unlockRead(stamp);
-        }
+        return optimisticRead(() -> memo.get(QueryMemo.Key.type(type), version::get, () -> index.findByType(type)));
     }
     
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Walks only the type buckets that hold media, as counted by the aggregates.</p>
+     */
     @Override
     public List<Media> getMediaMaterials() {
         ensureNotClosed();
         
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().parallelStream()
-                .filter(Media.class::isInstance)
-                .map(Media.class::cast)
-                .collect(Collectors.toList());
-        } finally {
-            stampedLock.unlockRead(stamp);
-        }
+        return optimisticRead(() -> {
+            List<Media> result = new ArrayList<>();
+            for (Material.MaterialType type : aggregates.mediaTypes()) {
+                for (Material material : index.findByType(type)) {
+                    if (material instanceof Media media) {
+                        result.add(media);
+                    }
+                }
+            }
+            return result;
+        });
     }
     
     @Override
@@ -302,16 +482,17 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
         Objects.requireNonNull(predicate, "Predicate cannot be null");
         ensureNotClosed();
         
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().parallelStream()
+        return optimisticRead(() -> materials.values().parallelStream()
                 .filter(predicate)
-                .collect(Collectors.toList());
-        } finally {
-            stampedLock.unlockRead(stamp);
-        }
+                .collect(Collectors.toList()));
     }
     
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Returns an unmodifiable list, memoized and shared by every caller
+     * until a write adds or removes a material priced in the range.</p>
+     */
     @Override
     public List<Material> getMaterialsByPriceRange(double minPrice, double maxPrice) {
         if (minPrice < 0 || maxPrice < 0 || minPrice > maxPrice) {
@@ -319,152 +500,83 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
         }
         ensureNotClosed();
         
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().parallelStream()
-                .filter(m -> m.getPrice() >= minPrice && m.getPrice() <= maxPrice)
-                .collect(Collectors.toList());
-        } finally {
-            stampedLock.unlockRead(stamp);
-        }
+        return optimisticRead(() -> memo.get(QueryMemo.Key.priceRange(minPrice, maxPrice), version::get,
+            () -> index.findByPriceRange(minPrice, maxPrice)));
     }
     
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Returns an unmodifiable list, memoized and shared by every caller
+     * until a write adds or removes a material from the year.</p>
+     */
     @Override
     public List<Material> getMaterialsByYear(int year) {
         ensureNotClosed();
         
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().parallelStream()
-                .filter(m -> m.getYear() == year)
-                .collect(Collectors.toList());
-        } finally {
-            stampedLock.unlockRead(stamp);
-        }
+        return optimisticRead(() -> memo.get(QueryMemo.Key.year(year), version::get, () -> index.findByYear(year)));
     }
     
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Returns an unmodifiable list shared by every caller until the next write.</p>
+     */
     @Override
     public List<Material> getAllMaterialsSorted() {
         ensureNotClosed();
         
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().stream()
-                .sorted()
-                .collect(Collectors.toList());
-        } finally {
-            stampedLock.unlockRead(stamp);
-        }
+        return optimisticRead(() -> view().sorted(Comparator.naturalOrder()));
     }
     
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Returns an unmodifiable list shared by every caller until the next write.</p>
+     */
     @Override
     public List<Material> getAllMaterials() {
         ensureNotClosed();
         
-        // Use optimistic read for better performance
-        long stamp = stampedLock.tryOptimisticRead();
-        List<Material> result = new ArrayList<>(materials.values());
-        
-        if (!stampedLock.validate(stamp)) {
-            stamp = stampedLock.readLock();
-            try {
-                result = new ArrayList<>(materials.values());
-            } finally {
-                stampedLock.unlockRead(stamp);
-            }
-        }
-        
-        return result;
+        return optimisticRead(() -> view().all());
     }
     
     @Override
     public double getTotalInventoryValue() {
         ensureNotClosed();
         
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().parallelStream()
-                .mapToDouble(Material::getPrice)
-                .sum();
-        } finally {
-            stampedLock.unlockRead(stamp);
+        if (exactTotals) {
+            return optimisticRead(() -> InventoryAggregates.exactSum(materials.values(), Material::getPrice));
         }
+        return optimisticRead(aggregates::totalValue);
     }
     
     /**
-     * Gets total inventory value asynchronously.
+     * Gets total inventory value asynchronously. Exact totals scan the whole catalog
+     * and run on the compute pool.
      * 
      * @return CompletableFuture with the total value
      */
     public CompletableFuture<Double> getTotalInventoryValueAsync() {
-        return CompletableFuture.supplyAsync(
-            this::getTotalInventoryValue, 
-            executorService
-        );
+        Workload workload = exactTotals ? Workload.COMPUTE : constantTimeWorkload();
+        return asyncExecution.supply(workload, this::getTotalInventoryValue);
     }
     
     @Override
     public double getTotalDiscountedValue() {
         ensureNotClosed();
         
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().parallelStream()
-                .mapToDouble(Material::getDiscountedPrice)
-                .sum();
-        } finally {
-            stampedLock.unlockRead(stamp);
+        if (exactTotals) {
+            return optimisticRead(() -> InventoryAggregates.exactSum(materials.values(), Material::getDiscountedPrice));
         }
+        return optimisticRead(() -> aggregates.totalDiscountedValue(materials.values()));
     }
     
     @Override
     public InventoryStats getInventoryStats() {
         ensureNotClosed();
         
-        long stamp = stampedLock.readLock();
-        try {
-            if (materials.isEmpty()) {
-                return new InventoryStats(0, 0, 0, 0, 0, 0);
-            }
-            
-            List<Double> prices = materials.values().stream()
-                .map(Material::getPrice)
-                .sorted()
-                .collect(Collectors.toList());
-            
-            double averagePrice = prices.stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
-            
-            double medianPrice = prices.size() % 2 == 0
-                ? (prices.get(prices.size() / 2 - 1) + prices.get(prices.size() / 2)) / 2
-                : prices.get(prices.size() / 2);
-            
-            int uniqueTypes = (int) materials.values().stream()
-                .map(Material::getType)
-                .distinct()
-                .count();
-            
-            int mediaCount = (int) materials.values().stream()
-                .filter(Media.class::isInstance)
-                .count();
-            
-            int printCount = (int) materials.values().stream()
-                .filter(m -> m instanceof PrintedBook || m instanceof Magazine)
-                .count();
-            
-            return new InventoryStats(
-                materials.size(),
-                averagePrice,
-                medianPrice,
-                uniqueTypes,
-                mediaCount,
-                printCount
-            );
-        } finally {
-            stampedLock.unlockRead(stamp);
-        }
+        return optimisticRead(aggregates::stats);
     }
     
     /**
@@ -473,42 +585,44 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
      * @return CompletableFuture with the statistics
      */
     public CompletableFuture<InventoryStats> getInventoryStatsAsync() {
-        return CompletableFuture.supplyAsync(
-            this::getInventoryStats, 
-            executorService
-        );
+        return asyncExecution.supply(constantTimeWorkload(), this::getInventoryStats);
+    }
+    
+    /**
+     * Gets inventory statistics as a {@link ModernInventoryStats} record asynchronously.
+     * 
+     * @return CompletableFuture with the statistics
+     */
+    @Override
+    public CompletableFuture<ModernInventoryStats> getModernInventoryStatsAsync() {
+        return getInventoryStatsAsync().thenApply(stats -> stats.getTotalCount() == 0
+            ? ModernInventoryStats.empty()
+            : new ModernInventoryStats(stats.getTotalCount(), stats.getAveragePrice(), stats.getMedianPrice(),
+                stats.getUniqueTypes(), stats.getMediaCount(), stats.getPrintCount()));
     }
     
     @Override
     public void clearInventory() {
         ensureNotClosed();
         
-        long stamp = stampedLock.writeLock();
-        try {
-            materials.clear();
-        } finally {
-            stampedLock.unlockWrite(stamp);
-        }
+        writeLocked(() -> {
+            // Remove key by key so concurrent lock-free writers keep the index in step
+            boolean changed = false;
+            for (String id : materials.keySet()) {
+                changed |= unput(id) != null;
+            }
+            if (changed) {
+                memo.clear(version.incrementAndGet());
+            }
+            return null;
+        });
     }
     
     @Override
     public int size() {
         ensureNotClosed();
         
-        // Use optimistic read for size check
-        long stamp = stampedLock.tryOptimisticRead();
-        int size = materials.size();
-        
-        if (!stampedLock.validate(stamp)) {
-            stamp = stampedLock.readLock();
-            try {
-                size = materials.size();
-            } finally {
-                stampedLock.unlockRead(stamp);
-            }
-        }
-        
-        return size;
+        return optimisticRead(materials::size);
     }
     
     @Override
@@ -516,6 +630,12 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
         return size() == 0;
     }
     
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Returns an unmodifiable list, memoized and shared by every caller
+     * until a write adds or removes a material from the period.</p>
+     */
     @Override
     public List<Material> findRecentMaterials(int years) {
         if (years < 0) {
@@ -523,17 +643,10 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
         }
         ensureNotClosed();
         
-        int currentYear = java.time.Year.now().getValue();
-        int cutoffYear = currentYear - years;
+        int cutoffYear = CurrentYear.get() - years;
         
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().parallelStream()
-                .filter(material -> material.getYear() >= cutoffYear)
-                .collect(Collectors.toList());
-        } finally {
-            stampedLock.unlockRead(stamp);
-        }
+        return optimisticRead(() -> memo.get(QueryMemo.Key.yearAtLeast(cutoffYear), version::get,
+            () -> index.findSinceYear(cutoffYear)));
     }
     
     @Override
@@ -553,14 +666,7 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
             return new ArrayList<>();
         }
         
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().parallelStream()
-                .filter(material -> creatorSet.contains(material.getCreator()))
-                .collect(Collectors.toList());
-        } finally {
-            stampedLock.unlockRead(stamp);
-        }
+        return optimisticRead(() -> index.findByCreators(creatorSet));
     }
     
     @Override
@@ -568,33 +674,88 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
         Objects.requireNonNull(condition, "Predicate cannot be null");
         ensureNotClosed();
         
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().parallelStream()
+        return optimisticRead(() -> materials.values().parallelStream()
                 .filter(condition)
-                .collect(Collectors.toList());
-        } finally {
-            stampedLock.unlockRead(stamp);
-        }
+                .collect(Collectors.toList()));
     }
     
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Returns an unmodifiable list. Sorted views are cached per comparator instance
+     * until the next write, so callers should reuse their comparators.</p>
+     */
     @Override
     public List<Material> getSorted(Comparator<Material> comparator) {
         Objects.requireNonNull(comparator, "Comparator cannot be null");
         ensureNotClosed();
         
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().stream()
-                .sorted(comparator)
-                .collect(Collectors.toList());
-        } finally {
-            stampedLock.unlockRead(stamp);
-        }
+        return optimisticRead(() -> view().sorted(comparator));
+    }
+    
+    @Override
+    public List<Material> findCheapest(int k, Material.MaterialType type) {
+        ensureNotClosed();
+        return optimisticRead(() -> index.findCheapest(k, type));
+    }
+    
+    @Override
+    public List<Material> findMostExpensive(int k, Material.MaterialType type) {
+        ensureNotClosed();
+        return optimisticRead(() -> index.findMostExpensive(k, type));
+    }
+    
+    @Override
+    public List<Material> findNewest(int k, Material.MaterialType type) {
+        ensureNotClosed();
+        return optimisticRead(() -> index.findNewest(k, type));
+    }
+    
+    /**
+     * Searches with several criteria combined by AND. The query is driven from the most
+     * selective secondary index and the other criteria are checked on its candidates only.
+     * 
+     * @param criteria the search criteria
+     * @return list of materials matching every criterion
+     */
+    public List<Material> advancedSearch(SearchCriteria criteria) {
+        Objects.requireNonNull(criteria, "Search criteria cannot be null");
+        ensureNotClosed();
+        
+        return optimisticRead(() -> planner.execute(criteria));
+    }
+    
+    /**
+     * Performs advanced search with multiple criteria asynchronously.
+     * 
+     * @param criteria the search criteria
+     * @return CompletableFuture with matching materials
+     * @see #advancedSearch(SearchCriteria)
+     */
+    @Override
+    public CompletableFuture<List<Material>> advancedSearchAsync(SearchCriteria criteria) {
+        Objects.requireNonNull(criteria, "Search criteria cannot be null");
+        
+        return asyncExecution.supply(Workload.COMPUTE, () -> advancedSearch(criteria));
+    }
+    
+    /**
+     * Gets the plan {@link #advancedSearch(SearchCriteria)} would use for the criteria.
+     * 
+     * @param criteria the search criteria
+     * @return the query plan
+     */
+    public QueryPlan explain(SearchCriteria criteria) {
+        Objects.requireNonNull(criteria, "Search criteria cannot be null");
+        ensureNotClosed();
+        
+        return optimisticRead(() -> planner.plan(criteria));
     }
     
     /**
      * Performs parallel search across multiple criteria.
+     * Results are the union of the individual searches; use
+     * {@link #advancedSearchAsync(SearchCriteria)} to require all criteria.
      * 
      * @param title optional title search term
      * @param creator optional creator search term
@@ -610,12 +771,10 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
             searches.add(searchByTitleAsync(title));
         }
         if (creator != null && !creator.trim().isEmpty()) {
-            searches.add(CompletableFuture.supplyAsync(
-                () -> searchByCreator(creator), executorService));
+            searches.add(asyncExecution.supply(Workload.COMPUTE, () -> searchByCreator(creator)));
         }
         if (type != null) {
-            searches.add(CompletableFuture.supplyAsync(
-                () -> getMaterialsByType(type), executorService));
+            searches.add(asyncExecution.supply(Workload.COMPUTE, () -> getMaterialsByType(type)));
         }
         
         if (searches.isEmpty()) {
@@ -633,36 +792,113 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
     /**
      * Groups materials by type for reporting.
      * 
+     * <p>Returns an unmodifiable view in type declaration order whose keys are the
+     * types present at the time of the call. Each group is fetched from the type
+     * index on first access, as {@link #getMaterialsByType} would, and kept by the
+     * view, so reading one group never materializes the others. A group reflects the
+     * store when it is first accessed and may be empty if its materials were removed
+     * in between. The view is not thread-safe.</p>
+     * 
      * @return map of type to materials
      */
     public Map<Material.MaterialType, List<Material>> groupByType() {
         ensureNotClosed();
         
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().stream()
-                .collect(Collectors.groupingBy(Material::getType));
-        } finally {
-            stampedLock.unlockRead(stamp);
+        return optimisticRead(() -> {
+            Set<Material.MaterialType> present = EnumSet.noneOf(Material.MaterialType.class);
+            for (Material.MaterialType type : Material.MaterialType.values()) {
+                if (index.countByType(type) > 0) {
+                    present.add(type);
+                }
+            }
+            return new TypeGroups(present);
+        });
+    }
+    
+    /**
+     * Lazily filled view behind {@link #groupByType()}.
+     */
+    private final class TypeGroups extends AbstractMap<Material.MaterialType, List<Material>> {
+        private final Set<Material.MaterialType> types;
+        private final Map<Material.MaterialType, List<Material>> loaded;
+        
+        private TypeGroups(Set<Material.MaterialType> types) {
+            this.types = types;
+            this.loaded = new EnumMap<>(Material.MaterialType.class);
+        }
+        
+        @Override
+        public List<Material> get(Object key) {
+            if (!containsKey(key)) {
+                return null;
+            }
+            Material.MaterialType type = (Material.MaterialType) key;
+            return loaded.computeIfAbsent(type, ModernConcurrentMaterialStore.this::getMaterialsByType);
+        }
+        
+        @Override
+        public boolean containsKey(Object key) {
+            return types.contains(key);
+        }
+        
+        @Override
+        public int size() {
+            return types.size();
+        }
+        
+        @Override
+        public Set<Material.MaterialType> keySet() {
+            return Collections.unmodifiableSet(types);
+        }
+        
+        @Override
+        public Set<Map.Entry<Material.MaterialType, List<Material>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<Material.MaterialType, List<Material>>> iterator() {
+                    Iterator<Material.MaterialType> keys = types.iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return keys.hasNext();
+                        }
+                        
+                        @Override
+                        public Map.Entry<Material.MaterialType, List<Material>> next() {
+                            Material.MaterialType type = keys.next();
+                            return new SimpleImmutableEntry<>(type, get(type));
+                        }
+                    };
+                }
+                
+                @Override
+                public int size() {
+                    return types.size();
+                }
+            };
         }
     }
     
     /**
-     * Gets materials with active discounts.
+     * Gets materials with active discounts. Walks only the type buckets that hold
+     * discounted materials, as counted by the aggregates.
      * 
      * @return list of discounted materials
      */
     public List<Material> getDiscountedMaterials() {
         ensureNotClosed();
         
-        long stamp = stampedLock.readLock();
-        try {
-            return materials.values().parallelStream()
-                .filter(m -> m.getDiscountRate() > 0)
-                .collect(Collectors.toList());
-        } finally {
-            stampedLock.unlockRead(stamp);
-        }
+        return optimisticRead(() -> {
+            List<Material> result = new ArrayList<>();
+            for (Material.MaterialType type : aggregates.discountedTypes(materials.values())) {
+                for (Material material : index.findByType(type)) {
+                    if (material.getDiscountRate() > 0) {
+                        result.add(material);
+                    }
+                }
+            }
+            return result;
+        });
     }
     
     /**
@@ -673,16 +909,356 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
     public double getTotalDiscountAmount() {
         ensureNotClosed();
         
+        if (exactTotals) {
+            return optimisticRead(() -> InventoryAggregates.exactSum(materials.values(),
+                m -> m.getPrice() * m.getDiscountRate()));
+        }
+        return optimisticRead(() -> aggregates.totalDiscountAmount(materials.values()));
+    }
+    
+    /**
+     * Inserts a material and indexes it while holding the map bin for its ID,
+     * so the index and aggregates never disagree with the map for that key.
+     * 
+     * @return true if the material was inserted, false if the ID already existed
+     */
+    private boolean insert(Material material) {
+        boolean inserted = put(SearchKeys.of(material));
+        if (inserted) {
+            // Bumped only once the change is visible, so a snapshot never claims a version it missed
+            memo.stamp(material, version.incrementAndGet());
+        }
+        return inserted;
+    }
+    
+    /**
+     * Inserts a material with precomputed search keys, without bumping the version.
+     */
+    private boolean put(SearchKeys keys) {
+        Material material = keys.material();
+        boolean[] inserted = new boolean[1];
+        aggregates.enterWrite();
+        try {
+            materials.compute(material.getId(), (id, existing) -> {
+                if (existing != null) {
+                    return existing;
+                }
+                index.add(material);
+                aggregates.add(material);
+                searchKeys.put(id, keys);
+                inserted[0] = true;
+                return material;
+            });
+        } finally {
+            aggregates.exitWrite();
+        }
+        return inserted[0];
+    }
+    
+    /**
+     * Inserts a prepared batch.
+     * 
+     * @param batch the validated, de-duplicated batch
+     * @param exclusive true only while no other thread can reach this store; the map is
+     *        then filled first and the indexes and aggregates built in one grouped pass
+     * @return the batch result
+     */
+    private BatchOperationResult ingest(PreparedBatch batch, boolean exclusive) {
+        List<String> errors = new ArrayList<>(batch.errors);
+        List<Material> accepted = new ArrayList<>(batch.unique.size());
+        
+        if (exclusive) {
+            aggregates.enterWrite();
+            try {
+                for (SearchKeys keys : batch.unique) {
+                    Material material = keys.material();
+                    if (materials.putIfAbsent(material.getId(), material) == null) {
+                        searchKeys.put(material.getId(), keys);
+                        accepted.add(material);
+                    } else {
+                        errors.add("Material already exists: " + material.getId());
+                    }
+                }
+                index.addAll(accepted);
+                aggregates.addAll(accepted);
+            } finally {
+                aggregates.exitWrite();
+            }
+        } else {
+            for (SearchKeys keys : batch.unique) {
+                if (put(keys)) {
+                    accepted.add(keys.material());
+                } else {
+                    errors.add("Material already exists: " + keys.material().getId());
+                }
+            }
+        }
+        
+        if (!accepted.isEmpty()) {
+            invalidate(accepted, version.incrementAndGet());
+        }
+        return new BatchOperationResult(accepted.size(), batch.submitted - accepted.size(), errors);
+    }
+    
+    /**
+     * A batch after the parallel preparation phase: the first occurrence of every ID
+     * with its search keys, in submission order, and the rejected entries.
+     */
+    private static final class PreparedBatch {
+        private final int submitted;
+        private final List<SearchKeys> unique;
+        private final List<String> errors;
+        
+        private PreparedBatch(int submitted, List<SearchKeys> unique, List<String> errors) {
+            this.submitted = submitted;
+            this.unique = unique;
+            this.errors = errors;
+        }
+        
+        static PreparedBatch of(Collection<Material> materials) {
+            Material[] input = materials.toArray(new Material[0]);
+            SearchKeys[] keys = new SearchKeys[input.length];
+            ConcurrentHashMap<String, Integer> firstPosition = new ConcurrentHashMap<>(input.length);
+            IntStream.range(0, input.length).parallel().forEach(i -> {
+                if (input[i] != null) {
+                    keys[i] = SearchKeys.of(input[i]);
+                    firstPosition.merge(input[i].getId(), i, Math::min);
+                }
+            });
+            
+            List<SearchKeys> unique = new ArrayList<>(firstPosition.size());
+            List<String> errors = new ArrayList<>();
+            for (int i = 0; i < input.length; i++) {
+                if (input[i] == null) {
+                    errors.add("Null material at position " + i);
+                } else if (firstPosition.get(input[i].getId()) != i) {
+                    errors.add("Duplicate ID in batch: " + input[i].getId());
+                } else {
+                    unique.add(keys[i]);
+                }
+            }
+            return new PreparedBatch(input.length, unique, errors);
+        }
+    }
+    
+    /**
+     * Removes a material and un-indexes it while holding the map bin for its ID.
+     * 
+     * @return the removed material, or null if not found
+     */
+    private Material delete(String id) {
+        Material removed = unput(id);
+        if (removed != null) {
+            memo.stamp(removed, version.incrementAndGet());
+        }
+        return removed;
+    }
+    
+    /**
+     * Invalidates the memoized queries a batch write can affect. A batch larger than the
+     * memo table is likely to touch every bucket, so it simply clears the table.
+     * 
+     * @param written the materials added or removed
+     * @param newVersion the version the write bumped the store to
+     */
+    private void invalidate(List<Material> written, long newVersion) {
+        if (written.size() > QUERY_MEMO_SIZE) {
+            memo.clear(newVersion);
+        } else {
+            memo.stampAll(written, newVersion);
+        }
+    }
+    
+    /**
+     * Removes a material while holding its map bin, without bumping the version.
+     */
+    private Material unput(String id) {
+        Material[] removed = new Material[1];
+        aggregates.enterWrite();
+        try {
+            materials.computeIfPresent(id, (key, existing) -> {
+                index.remove(existing);
+                aggregates.remove(existing);
+                searchKeys.remove(key);
+                removed[0] = existing;
+                return null;
+            });
+        } finally {
+            aggregates.exitWrite();
+        }
+        return removed[0];
+    }
+    
+    /**
+     * Switches the value totals between the maintained running sums (the default) and
+     * exact recomputation over every material on each call. Exact mode is meant for
+     * auditing the running sums, or for Material subclasses whose discount rate can
+     * change within a calendar month.
+     * 
+     * @param exactTotals true to recompute totals on every call
+     */
+    public void setExactTotals(boolean exactTotals) {
+        this.exactTotals = exactTotals;
+    }
+    
+    /**
+     * Checks whether value totals are recomputed on every call.
+     * 
+     * @return true in exact recompute mode
+     */
+    public boolean isExactTotals() {
+        return exactTotals;
+    }
+    
+    /**
+     * Gets the strategy that dispatches the async operations. Its mode can be switched
+     * back to {@link AsyncExecutionStrategy.Mode#POOLED}, and its blocking lane is
+     * available to callers composing I/O with store operations.
+     * 
+     * @return the async execution strategy
+     */
+    public AsyncExecutionStrategy getAsyncExecution() {
+        return asyncExecution;
+    }
+    
+    /**
+     * Gets the immutable snapshot of the current version, copying the map on the first
+     * read after a write.
+     */
+    private MaterialsSnapshot view() {
+        MaterialsSnapshot current = view;
+        if (current != null && current.version() == version.get()) {
+            return current;
+        }
+        
+        synchronized (snapshotMonitor) {
+            // Read the version before copying: a write racing the copy leaves the snapshot stale
+            long expected = version.get();
+            current = view;
+            if (current == null || current.version() != expected) {
+                current = MaterialsSnapshot.of(materials.values(), expected);
+                view = current;
+            }
+            return current;
+        }
+    }
+    
+    /**
+     * Switches {@link ConcurrencyMode#STAMPED_LOCK} reads between optimistic reads with a
+     * locked fallback (the default) and always taking the read lock. Has no effect in
+     * lock-free mode, where reads never touch the lock.
+     * 
+     * @param enabled true to read optimistically
+     */
+    public void setOptimisticReads(boolean enabled) {
+        this.optimisticReadsEnabled = enabled;
+    }
+    
+    /**
+     * Checks whether {@link ConcurrencyMode#STAMPED_LOCK} reads run optimistically.
+     * 
+     * @return true if reads run optimistically
+     */
+    public boolean isOptimisticReads() {
+        return optimisticReadsEnabled;
+    }
+    
+    /**
+     * Gets how reads have got past the global lock so far. All counts stay zero in
+     * lock-free mode.
+     * 
+     * @return the read counters
+     */
+    public ReadStats getReadStats() {
+        return new ReadStats(optimisticReads.sum(), optimisticFallbacks.sum(), lockedReads.sum());
+    }
+    
+    /**
+     * Gets the concurrency mode this store was created with.
+     * 
+     * @return the concurrency mode
+     */
+    public ConcurrencyMode getConcurrencyMode() {
+        return concurrencyMode;
+    }
+    
+    /**
+     * Runs a read against a single point in time. In {@link ConcurrencyMode#STAMPED_LOCK}
+     * mode the read first runs without the lock and is kept if no writer took the lock
+     * meanwhile; otherwise it is retried once under the read lock. Every structure read
+     * here is already safe against concurrent writers, which lock-free mode relies on,
+     * so an invalidated attempt can only be inconsistent, never corrupt. Lock-free mode
+     * skips the stamp entirely.
+     */
+    private <T> T optimisticRead(Supplier<T> read) {
+        if (concurrencyMode == ConcurrencyMode.LOCK_FREE) {
+            return read.get();
+        }
+        if (!optimisticReadsEnabled) {
+            return readLocked(read);
+        }
+        
+        long stamp = stampedLock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                T result = read.get();
+                if (stampedLock.validate(stamp)) {
+                    optimisticReads.increment();
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // A read racing a writer may trip over the half-applied write
+                if (stampedLock.validate(stamp)) {
+                    optimisticReads.increment();
+                    throw e;
+                }
+            }
+        }
+        
+        optimisticFallbacks.increment();
+        return readLocked(read);
+    }
+    
+    /**
+     * Runs a read under the global read lock in {@link ConcurrencyMode#STAMPED_LOCK} mode.
+     */
+    private <T> T readLocked(Supplier<T> read) {
+        lockedReads.increment();
         long stamp = stampedLock.readLock();
         try {
-            return materials.values().parallelStream()
-                .mapToDouble(m -> m.getPrice() * m.getDiscountRate())
-                .sum();
+            return read.get();
         } finally {
             stampedLock.unlockRead(stamp);
         }
     }
     
+    /**
+     * Runs a write under the exclusive lock in {@link ConcurrencyMode#STAMPED_LOCK} mode.
+     * In lock-free mode writers rely on the per-bin locking of the ConcurrentHashMap.
+     */
+    private <T> T writeLocked(Supplier<T> write) {
+        if (concurrencyMode == ConcurrencyMode.LOCK_FREE) {
+            return write.get();
+        }
+        
+        long stamp = stampedLock.writeLock();
+        try {
+            return write.get();
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
+    }
+    
+    /**
+     * Classifies a constant-time operation for async dispatch. It runs inline only in
+     * lock-free mode; in {@link ConcurrencyMode#STAMPED_LOCK} mode an optimistic read
+     * can fall back to the read lock and a write waits for the write lock, so it is
+     * blocking work there.
+     */
+    private Workload constantTimeWorkload() {
+        return concurrencyMode == ConcurrencyMode.LOCK_FREE ? Workload.CHEAP : Workload.BLOCKING;
+    }
+    
     private void ensureNotClosed() {
         if (closed) {
             throw new IllegalStateException("MaterialStore has been closed");
@@ -697,6 +1273,7 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
             // Shutdown executors gracefully
             executorService.shutdown();
             scheduledExecutor.shutdown();
+            asyncExecution.close();
             
             try {
                 // Wait for existing tasks to complete
@@ -721,18 +1298,22 @@ public class ModernConcurrentMaterialStore implements MaterialStore, AutoCloseab
         }
     }
     
-    @Override
-    public String toString() {
+    /**
+     * Gets the size, type count and total value from the running aggregates, without
+     * scanning the materials or taking the global lock.
+     * 
+     * @return the summary, shared between calls until the next write
+     */
+    public Summary getSummary() {
         ensureNotClosed();
         
-        long stamp = stampedLock.readLock();
-        try {
-            return String.format("ModernConcurrentMaterialStore[Size=%d, Types=%d, Value=$%.2f]",
-                size(),
-                groupByType().size(),
-                getTotalInventoryValue());
-        } finally {
-            stampedLock.unlockRead(stamp);
-        }
+        return aggregates.summary();
+    }
+    
+    @Override
+    public String toString() {
+        Summary summary = getSummary();
+        return String.format("ModernConcurrentMaterialStore[Size=%d, Types=%d, Value=$%.2f]",
+                summary.size(), summary.typeCount(), summary.totalValue());
     }
 }
\ No newline at end of file
@@ -0,0 +1,304 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.university.bookstore.model.Material;
+
+/**
+ * Bounded memo table for the type, year, recency and price range queries of a store,
+ * so a repeated query between writes returns the previous result without recomputing it.
+ * 
+ * <p>Each result is tagged with the store's write version read before it was computed.
+ * Writers stamp the buckets they touch (the material's type, year and price band) with
+ * the version they bumped the store to. A result is current while no bucket it depends
+ * on carries a newer stamp, so a write only invalidates the queries whose answer it can
+ * change: adding an e-book leaves a memoized magazine or
+ * {@code getMaterialsByPriceRange(0, 20)} result in place when it costs more.</p>
+ * 
+ * <p>Price bands are log-scaled, eight to each doubling of the price, and years are
+ * bucketed one per year from {@value #YEAR_BASE}. Both are fixed-size max trees of
+ * stamps, so the stamp state never grows and checking a range or year cutoff reads
+ * O(log bands) stamps. Years and prices beyond the last bucket share it.</p>
+ * 
+ * <p>When full, the table evicts with the CLOCK policy: a hit marks its entry, and the
+ * eviction hand skips and unmarks marked entries, dropping the first unmarked or stale
+ * one. Hits take no lock; misses insert and evict under the table's monitor.</p>
+ * 
+ * <p>Writers must stamp only after bumping the version, and the version must only be
+ * bumped once the write is visible to readers; a query racing a write then either sees
+ * the write or is tagged older than the stamp. Memoized results are unmodifiable and
+ * shared by every caller until invalidated.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+final class QueryMemo {
+    
+    /**
+     * A memoizable query: the kind, and the type, year or price bounds it reads.
+     */
+    record Key(Kind kind, Material.MaterialType type, double low, double high) {
+        
+        static Key type(Material.MaterialType type) {
+            return new Key(Kind.TYPE, type, 0, 0);
+        }
+        
+        static Key year(int year) {
+            return new Key(Kind.YEAR, null, year, year);
+        }
+        
+        static Key yearAtLeast(int cutoffYear) {
+            return new Key(Kind.YEAR_AT_LEAST, null, cutoffYear, cutoffYear);
+        }
+        
+        static Key priceRange(double minPrice, double maxPrice) {
+            return new Key(Kind.PRICE_RANGE, null, minPrice, maxPrice);
+        }
+    }
+    
+    enum Kind {
+        TYPE,
+        YEAR,
+        YEAR_AT_LEAST,
+        PRICE_RANGE
+    }
+    
+    // Earliest year a material may have
+    private static final int YEAR_BASE = 1450;
+    private static final int YEAR_BUCKETS = 1024;
+    private static final int PRICE_BANDS_PER_OCTAVE_BITS = 3;
+    private static final int PRICE_BANDS = 256;
+    
+    /**
+     * A memoized result, its version, and the CLOCK reference mark set by hits.
+     */
+    private static final class Entry {
+        final List<Material> results;
+        final long version;
+        volatile boolean referenced;
+        
+        Entry(List<Material> results, long version) {
+            this.results = results;
+            this.version = version;
+        }
+    }
+    
+    /**
+     * Fixed-size max tree of stamps over consecutive buckets. Stamps only grow, so
+     * concurrent writers raising a leaf and its ancestors never lose an update.
+     */
+    private static final class StampTree {
+        private final int leaves;
+        private final AtomicLongArray nodes;
+        
+        StampTree(int leaves) {
+            this.leaves = leaves;
+            this.nodes = new AtomicLongArray(2 * leaves);
+        }
+        
+        void stamp(int bucket, long version) {
+            for (int node = bucket + leaves; node > 0; node >>= 1) {
+                nodes.accumulateAndGet(node, version, Math::max);
+            }
+        }
+        
+        long newest(int fromBucket, int toBucket) {
+            long newest = 0;
+            int low = fromBucket + leaves;
+            int high = toBucket + leaves + 1;
+            while (low < high) {
+                if ((low & 1) == 1) {
+                    newest = Math.max(newest, nodes.get(low++));
+                }
+                if ((high & 1) == 1) {
+                    newest = Math.max(newest, nodes.get(--high));
+                }
+                low >>= 1;
+                high >>= 1;
+            }
+            return newest;
+        }
+    }
+    
+    private final int maxEntries;
+    private final Map<Key, Entry> entries;
+    // CLOCK ring of the keys in entries, guarded by this memo's monitor
+    private final ArrayDeque<Key> clock;
+    private final AtomicLongArray typeStamps;
+    private final StampTree yearStamps;
+    private final StampTree priceStamps;
+    private final AtomicLong clearStamp;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    
+    /**
+     * Creates an empty memo table.
+     * 
+     * @param maxEntries the maximum number of results kept
+     * @throws IllegalArgumentException if maxEntries is not positive
+     */
+    QueryMemo(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Memo size must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new ConcurrentHashMap<>();
+        this.clock = new ArrayDeque<>();
+        this.typeStamps = new AtomicLongArray(Material.MaterialType.values().length);
+        this.yearStamps = new StampTree(YEAR_BUCKETS);
+        this.priceStamps = new StampTree(PRICE_BANDS);
+        this.clearStamp = new AtomicLong();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+    
+    /**
+     * Gets the memoized result of a query, computing and memoizing it if no current
+     * result exists.
+     * 
+     * @param key the query
+     * @param version reads the store's write version
+     * @param query computes the result
+     * @return the unmodifiable result
+     */
+    List<Material> get(Key key, LongSupplier version, Supplier<List<Material>> query) {
+        Entry entry = entries.get(key);
+        if (entry != null && isCurrent(key, entry.version)) {
+            hits.increment();
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.results;
+        }
+        
+        misses.increment();
+        // Read the version before computing: a write racing the query leaves it stale
+        long expected = version.getAsLong();
+        List<Material> results = Collections.unmodifiableList(query.get());
+        synchronized (this) {
+            if (!entries.containsKey(key)) {
+                if (entries.size() >= maxEntries) {
+                    evict();
+                }
+                clock.addLast(key);
+            }
+            entries.put(key, new Entry(results, expected));
+        }
+        return results;
+    }
+    
+    /**
+     * Invalidates the queries a written material can affect.
+     * 
+     * @param material the material added or removed
+     * @param version the store version after the write
+     */
+    void stamp(Material material, long version) {
+        typeStamps.accumulateAndGet(material.getType().ordinal(), version, Math::max);
+        yearStamps.stamp(yearBucket(material.getYear()), version);
+        priceStamps.stamp(priceBand(material.getPrice()), version);
+    }
+    
+    /**
+     * Invalidates the queries any of the written materials can affect.
+     * 
+     * @param materials the materials added or removed
+     * @param version the store version after the write
+     */
+    void stampAll(Collection<Material> materials, long version) {
+        for (Material material : materials) {
+            stamp(material, version);
+        }
+    }
+    
+    /**
+     * Invalidates every memoized result.
+     * 
+     * @param version the store version after the write
+     */
+    void clear(long version) {
+        clearStamp.accumulateAndGet(version, Math::max);
+        synchronized (this) {
+            entries.clear();
+            clock.clear();
+        }
+    }
+    
+    long hits() {
+        return hits.sum();
+    }
+    
+    long misses() {
+        return misses.sum();
+    }
+    
+    int size() {
+        return entries.size();
+    }
+    
+    private boolean isCurrent(Key key, long version) {
+        if (clearStamp.get() > version) {
+            return false;
+        }
+        switch (key.kind()) {
+            case TYPE:
+                return typeStamps.get(key.type().ordinal()) <= version;
+            case YEAR:
+                return yearStamps.newest(yearBucket((int) key.low()), yearBucket((int) key.high())) <= version;
+            case YEAR_AT_LEAST:
+                return yearStamps.newest(yearBucket((int) key.low()), YEAR_BUCKETS - 1) <= version;
+            default:
+                if (key.low() > key.high()) {
+                    return true;
+                }
+                return priceStamps.newest(priceBand(key.low()), priceBand(key.high())) <= version;
+        }
+    }
+    
+    /**
+     * Advances the CLOCK hand to the first stale or unmarked entry and drops it,
+     * unmarking the marked entries it passes. Called with the monitor held.
+     */
+    private void evict() {
+        while (!clock.isEmpty()) {
+            Key key = clock.pollFirst();
+            Entry entry = entries.get(key);
+            if (entry.referenced && isCurrent(key, entry.version)) {
+                entry.referenced = false;
+                clock.addLast(key);
+            } else {
+                entries.remove(key);
+                return;
+            }
+        }
+    }
+    
+    private static int yearBucket(int year) {
+        return Math.max(0, Math.min(YEAR_BUCKETS - 1, year - YEAR_BASE));
+    }
+    
+    /**
+     * Maps a price to its band: band 0 holds prices below 1, and each doubling above
+     * that is split into eight bands by the top bits of the mantissa.
+     */
+    private static int priceBand(double price) {
+        if (!(price >= 1.0)) {
+            return 0;
+        }
+        long bits = Double.doubleToRawLongBits(price);
+        int fraction = (int) (bits >>> (52 - PRICE_BANDS_PER_OCTAVE_BITS)) & ((1 << PRICE_BANDS_PER_OCTAVE_BITS) - 1);
+        int band = 1 + (Math.getExponent(price) << PRICE_BANDS_PER_OCTAVE_BITS) + fraction;
+        return Math.min(PRICE_BANDS - 1, band);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.university.bookstore.impl;
+
+import com.university.bookstore.model.Material;
+import com.university.bookstore.search.SearchText;
+
+/**
+ * A material with its title and creator normalized for substring search, computed
+ * once on ingest so searches do not lowercase every candidate on every query.
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+record SearchKeys(Material material, String title, String creator) {
+    
+    static SearchKeys of(Material material) {
+        return new SearchKeys(material,
+            SearchText.normalize(material.getTitle()),
+            SearchText.normalize(material.getCreator()));
+    }
+}
\ No newline at end of file
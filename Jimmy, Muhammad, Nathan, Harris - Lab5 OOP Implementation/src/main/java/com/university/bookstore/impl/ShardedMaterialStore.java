@@ -0,0 +1,464 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+import com.university.bookstore.api.MaterialPage;
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.model.Magazine;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.search.TopK;
+
+/**
+ * MaterialStore that hash-partitions materials by ID across N independent sub-stores.
+ * 
+ * <p>Single-material operations touch exactly one shard, so writers to different shards
+ * never contend on the same lock. Scans and aggregations fan out to every shard in
+ * parallel and merge the partial results; sorted results are produced by sorting each
+ * shard in parallel and k-way merging the sorted runs.</p>
+ * 
+ * <p>Inventory statistics need a global median, which cannot be derived from shard
+ * medians. They are computed by gathering every price once and cached until the next
+ * add, remove or clear.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+public class ShardedMaterialStore implements MaterialStore, AutoCloseable {
+    
+    private static final Comparator<Material> BY_PRICE = Comparator.comparingDouble(Material::getPrice);
+    private static final Comparator<Material> BY_YEAR = Comparator.comparingInt(Material::getYear);
+    
+    private final MaterialStore[] shards;
+    private final List<MaterialStore> shardList;
+    private final LongAdder mutations;
+    private volatile CachedStats cachedStats;
+    
+    /**
+     * Creates a sharded store with one {@link ConcurrentMaterialStore} per shard.
+     * 
+     * @param shardCount the number of shards
+     */
+    public ShardedMaterialStore(int shardCount) {
+        this(shardCount, ConcurrentMaterialStore::new);
+    }
+    
+    /**
+     * Creates a sharded store whose shards are made by a factory.
+     * 
+     * @param shardCount the number of shards
+     * @param shardFactory creates an empty, thread-safe store for each shard
+     */
+    public ShardedMaterialStore(int shardCount, Supplier<? extends MaterialStore> shardFactory) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        Objects.requireNonNull(shardFactory, "Shard factory cannot be null");
+        
+        this.shards = new MaterialStore[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = Objects.requireNonNull(shardFactory.get(), "Shard factory returned null");
+        }
+        this.shardList = Collections.unmodifiableList(Arrays.asList(shards));
+        this.mutations = new LongAdder();
+    }
+    
+    /**
+     * Gets the number of shards.
+     * 
+     * @return the shard count
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+    
+    /**
+     * Gets the shard that owns a material ID.
+     * 
+     * @param id the material ID
+     * @return the owning shard
+     */
+    MaterialStore shardFor(String id) {
+        int hash = id.hashCode();
+        // Spread the high bits so IDs differing only there still separate
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+    
+    @Override
+    public boolean addMaterial(Material material) {
+        if (material == null) {
+            throw new NullPointerException("Cannot add null material");
+        }
+        
+        boolean added = shardFor(material.getId()).addMaterial(material);
+        if (added) {
+            mutations.increment();
+        }
+        return added;
+    }
+    
+    @Override
+    public Optional<Material> removeMaterial(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        
+        Optional<Material> removed = shardFor(id).removeMaterial(id);
+        if (removed.isPresent()) {
+            mutations.increment();
+        }
+        return removed;
+    }
+    
+    @Override
+    public Optional<Material> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return shardFor(id).findById(id);
+    }
+    
+    @Override
+    public List<Material> searchByTitle(String title) {
+        return gather(shard -> shard.searchByTitle(title));
+    }
+    
+    @Override
+    public Stream<Material> streamByTitle(String title) {
+        return shardList.stream().flatMap(shard -> shard.streamByTitle(title));
+    }
+    
+    @Override
+    public Stream<Material> streamMaterials() {
+        return shardList.stream().flatMap(MaterialStore::streamMaterials);
+    }
+    
+    /**
+     * Takes one candidate more than the page size from every shard and selects the
+     * overall page from those.
+     */
+    @Override
+    public MaterialPage getSortedPage(MaterialPage.Cursor after, int limit) {
+        int count = MaterialPage.probeSize(limit);
+        List<Material> candidates = gather(shard -> shard.getSortedPage(after, count).items());
+        return MaterialPage.of(TopK.select(candidates, count, Comparator.naturalOrder()), limit);
+    }
+    
+    @Override
+    public MaterialPage searchByTitlePage(String title, MaterialPage.Cursor after, int limit) {
+        int count = MaterialPage.probeSize(limit);
+        List<Material> candidates = gather(shard -> shard.searchByTitlePage(title, after, count).items());
+        return MaterialPage.of(TopK.select(candidates, count, Comparator.naturalOrder()), limit);
+    }
+    
+    @Override
+    public List<Material> searchByCreator(String creator) {
+        return gather(shard -> shard.searchByCreator(creator));
+    }
+    
+    @Override
+    public List<Material> getMaterialsByType(Material.MaterialType type) {
+        return gather(shard -> shard.getMaterialsByType(type));
+    }
+    
+    @Override
+    public List<Media> getMediaMaterials() {
+        return gather(MaterialStore::getMediaMaterials);
+    }
+    
+    @Override
+    public List<Material> filterMaterials(Predicate<Material> predicate) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        return gather(shard -> shard.filterMaterials(predicate));
+    }
+    
+    @Override
+    public List<Material> findRecentMaterials(int years) {
+        if (years < 0) {
+            throw new IllegalArgumentException("Years cannot be negative: " + years);
+        }
+        return gather(shard -> shard.findRecentMaterials(years));
+    }
+    
+    @Override
+    public List<Material> findByCreators(String... creators) {
+        return gather(shard -> shard.findByCreators(creators));
+    }
+    
+    @Override
+    public List<Material> findWithPredicate(Predicate<Material> condition) {
+        Objects.requireNonNull(condition, "Predicate cannot be null");
+        return gather(shard -> shard.findWithPredicate(condition));
+    }
+    
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator) {
+        Objects.requireNonNull(comparator, "Comparator cannot be null");
+        return mergeSorted(shardList.parallelStream()
+            .map(shard -> shard.getSorted(comparator))
+            .toList(), comparator);
+    }
+    
+    /**
+     * Takes the first k materials of every shard and selects the overall first k from
+     * those, so no more than {@code k} materials per shard are ever compared.
+     */
+    @Override
+    public List<Material> topK(int k, Comparator<Material> comparator, Material.MaterialType type) {
+        Objects.requireNonNull(comparator, "Comparator cannot be null");
+        return TopK.select(gather(shard -> shard.topK(k, comparator, type)), k, comparator);
+    }
+    
+    @Override
+    public List<Material> findCheapest(int k, Material.MaterialType type) {
+        return TopK.select(gather(shard -> shard.findCheapest(k, type)), k, BY_PRICE);
+    }
+    
+    @Override
+    public List<Material> findMostExpensive(int k, Material.MaterialType type) {
+        return TopK.select(gather(shard -> shard.findMostExpensive(k, type)), k, BY_PRICE.reversed());
+    }
+    
+    @Override
+    public List<Material> findNewest(int k, Material.MaterialType type) {
+        return TopK.select(gather(shard -> shard.findNewest(k, type)), k, BY_YEAR.reversed());
+    }
+    
+    @Override
+    public List<Material> getMaterialsByPriceRange(double minPrice, double maxPrice) {
+        return gather(shard -> shard.getMaterialsByPriceRange(minPrice, maxPrice));
+    }
+    
+    @Override
+    public List<Material> getMaterialsByYear(int year) {
+        return gather(shard -> shard.getMaterialsByYear(year));
+    }
+    
+    @Override
+    public List<Material> getAllMaterialsSorted() {
+        return mergeSorted(shardList.parallelStream()
+            .map(MaterialStore::getAllMaterialsSorted)
+            .toList(), Comparator.naturalOrder());
+    }
+    
+    @Override
+    public List<Material> getAllMaterials() {
+        return gather(MaterialStore::getAllMaterials);
+    }
+    
+    @Override
+    public double getTotalInventoryValue() {
+        return sum(MaterialStore::getTotalInventoryValue);
+    }
+    
+    @Override
+    public double getTotalDiscountedValue() {
+        return sum(MaterialStore::getTotalDiscountedValue);
+    }
+    
+    @Override
+    public InventoryStats getInventoryStats() {
+        // Read the version first: a write racing the gather leaves the cache stale, never wrong
+        long version = mutations.sum();
+        CachedStats cached = cachedStats;
+        if (cached != null && cached.version == version) {
+            return cached.stats;
+        }
+        
+        InventoryStats stats = computeStats();
+        cachedStats = new CachedStats(version, stats);
+        return stats;
+    }
+    
+    @Override
+    public void clearInventory() {
+        shardList.parallelStream().forEach(MaterialStore::clearInventory);
+        mutations.increment();
+    }
+    
+    @Override
+    public int size() {
+        int total = 0;
+        for (MaterialStore shard : shards) {
+            total += shard.size();
+        }
+        return total;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        for (MaterialStore shard : shards) {
+            if (!shard.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Closes every shard that holds resources. Every shard is closed even if one fails;
+     * the first failure is rethrown with the rest suppressed, wrapped in an
+     * {@link IllegalStateException} if it was a checked exception.
+     */
+    @Override
+    public void close() {
+        Exception failure = null;
+        for (MaterialStore shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Failed to close shard", failure);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ShardedMaterialStore[Shards=%d, Size=%d]", shards.length, size());
+    }
+    
+    private <T> List<T> gather(Function<MaterialStore, List<? extends T>> query) {
+        if (shards.length == 1) {
+            return new ArrayList<>(query.apply(shards[0]));
+        }
+        
+        List<List<? extends T>> parts = shardList.parallelStream()
+            .<List<? extends T>>map(query)
+            .toList();
+        
+        int total = 0;
+        for (List<? extends T> part : parts) {
+            total += part.size();
+        }
+        List<T> result = new ArrayList<>(total);
+        for (List<? extends T> part : parts) {
+            result.addAll(part);
+        }
+        return result;
+    }
+    
+    private double sum(ToDoubleFunction<MaterialStore> aggregate) {
+        double total = 0;
+        for (MaterialStore shard : shards) {
+            total += aggregate.applyAsDouble(shard);
+        }
+        return total;
+    }
+    
+    /**
+     * Merges runs that are each sorted by the comparator into one sorted list.
+     * Ties are taken from the lower shard first, so the merge is stable per shard.
+     */
+    static List<Material> mergeSorted(List<List<Material>> runs, Comparator<? super Material> comparator) {
+        int total = 0;
+        for (List<Material> run : runs) {
+            total += run.size();
+        }
+        List<Material> result = new ArrayList<>(total);
+        
+        // Each cursor is {run, position}
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> {
+            int order = comparator.compare(runs.get(a[0]).get(a[1]), runs.get(b[0]).get(b[1]));
+            return order != 0 ? order : Integer.compare(a[0], b[0]);
+        });
+        for (int i = 0; i < runs.size(); i++) {
+            if (!runs.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
+        
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<Material> run = runs.get(head[0]);
+            result.add(run.get(head[1]));
+            if (++head[1] < run.size()) {
+                heads.add(head);
+            }
+        }
+        return result;
+    }
+    
+    private InventoryStats computeStats() {
+        List<List<Material>> parts = shardList.parallelStream()
+            .map(MaterialStore::getAllMaterials)
+            .toList();
+        
+        int count = 0;
+        for (List<Material> part : parts) {
+            count += part.size();
+        }
+        if (count == 0) {
+            return new InventoryStats(0, 0, 0, 0, 0, 0);
+        }
+        
+        double[] prices = new double[count];
+        Set<Material.MaterialType> types = EnumSet.noneOf(Material.MaterialType.class);
+        int mediaCount = 0;
+        int printCount = 0;
+        int row = 0;
+        for (List<Material> part : parts) {
+            for (Material material : part) {
+                prices[row++] = material.getPrice();
+                types.add(material.getType());
+                if (material instanceof Media) {
+                    mediaCount++;
+                }
+                if (material instanceof PrintedBook || material instanceof Magazine) {
+                    printCount++;
+                }
+            }
+        }
+        
+        Arrays.sort(prices);
+        double sum = 0;
+        for (double price : prices) {
+            sum += price;
+        }
+        int mid = count / 2;
+        double median = count % 2 == 0 ? (prices[mid - 1] + prices[mid]) / 2 : prices[mid];
+        
+        return new InventoryStats(count, sum / count, median, types.size(), mediaCount, printCount);
+    }
+    
+    /**
+     * Merged statistics tagged with the mutation count they were computed at.
+     */
+    private static final class CachedStats {
+        private final long version;
+        private final InventoryStats stats;
+        
+        CachedStats(long version, InventoryStats stats) {
+            this.version = version;
+            this.stats = stats;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,258 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import com.university.bookstore.api.MaterialPage;
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.search.TrigramIndex;
+
+/**
+ * Decorator that adds a {@link TrigramIndex} to any MaterialStore, serving title
+ * searches and pages and {@link #searchByCreator} from the index instead of a scan.
+ * Matches come back in insertion order. Every other operation is delegated unchanged.
+ * 
+ * <p>Adds, removes and clears are serialized by this decorator so the index always
+ * follows the delegate's outcome for a given ID; reads are not serialized. The delegate
+ * must not be modified except through this decorator.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+public class TrigramIndexedMaterialStore implements MaterialStore {
+    
+    private final MaterialStore delegate;
+    private final TrigramIndex textIndex;
+    private final Object writeMonitor;
+    
+    /**
+     * Wraps a store, indexing any materials it already holds.
+     * 
+     * @param delegate the store to wrap
+     */
+    public TrigramIndexedMaterialStore(MaterialStore delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate store cannot be null");
+        this.textIndex = new TrigramIndex();
+        this.writeMonitor = new Object();
+        for (Material material : delegate.getAllMaterials()) {
+            textIndex.add(material);
+        }
+    }
+    
+    /**
+     * Gets the text index backing the title and creator searches.
+     * 
+     * @return the trigram index
+     */
+    public TrigramIndex getTextIndex() {
+        return textIndex;
+    }
+    
+    @Override
+    public boolean addMaterial(Material material) {
+        if (material == null) {
+            throw new NullPointerException("Cannot add null material");
+        }
+        
+        synchronized (writeMonitor) {
+            boolean added = delegate.addMaterial(material);
+            if (added) {
+                textIndex.add(material);
+            }
+            return added;
+        }
+    }
+    
+    @Override
+    public Optional<Material> removeMaterial(String id) {
+        synchronized (writeMonitor) {
+            Optional<Material> removed = delegate.removeMaterial(id);
+            removed.ifPresent(textIndex::remove);
+            return removed;
+        }
+    }
+    
+    @Override
+    public void clearInventory() {
+        synchronized (writeMonitor) {
+            delegate.clearInventory();
+            textIndex.clear();
+        }
+    }
+    
+    @Override
+    public List<Material> searchByTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return textIndex.searchTitle(title.trim());
+    }
+    
+    @Override
+    public Stream<Material> streamByTitle(String title) {
+        return searchByTitle(title).stream();
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Served from the index, which skips to the page without building the matches
+     * before or after it.</p>
+     */
+    @Override
+    public List<Material> searchByTitle(String title, int offset, int limit) {
+        // The index validates the bounds and matches nothing for an empty term
+        return textIndex.searchTitle(title == null ? null : title.trim(), offset, limit);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Served from the index into a heap bounded by the page size.</p>
+     */
+    @Override
+    public MaterialPage searchByTitlePage(String title, MaterialPage.Cursor after, int limit) {
+        int count = MaterialPage.probeSize(limit);
+        if (title == null || title.trim().isEmpty()) {
+            return MaterialPage.of(new ArrayList<>(), limit);
+        }
+        Predicate<Material> remaining = after == null ? material -> true : after::precedes;
+        return MaterialPage.of(textIndex.selectTitle(title.trim(), remaining, count, Comparator.naturalOrder()), limit);
+    }
+    
+    @Override
+    public Stream<Material> streamMaterials() {
+        return delegate.streamMaterials();
+    }
+    
+    @Override
+    public MaterialPage getSortedPage(MaterialPage.Cursor after, int limit) {
+        return delegate.getSortedPage(after, limit);
+    }
+    
+    @Override
+    public List<Material> searchByCreator(String creator) {
+        if (creator == null || creator.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return textIndex.searchCreator(creator.trim());
+    }
+    
+    @Override
+    public Optional<Material> findById(String id) {
+        return delegate.findById(id);
+    }
+    
+    @Override
+    public List<Material> getMaterialsByType(Material.MaterialType type) {
+        return delegate.getMaterialsByType(type);
+    }
+    
+    @Override
+    public List<Media> getMediaMaterials() {
+        return delegate.getMediaMaterials();
+    }
+    
+    @Override
+    public List<Material> filterMaterials(Predicate<Material> predicate) {
+        return delegate.filterMaterials(predicate);
+    }
+    
+    @Override
+    public List<Material> findRecentMaterials(int years) {
+        return delegate.findRecentMaterials(years);
+    }
+    
+    @Override
+    public List<Material> findByCreators(String... creators) {
+        return delegate.findByCreators(creators);
+    }
+    
+    @Override
+    public List<Material> findWithPredicate(Predicate<Material> condition) {
+        return delegate.findWithPredicate(condition);
+    }
+    
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator) {
+        return delegate.getSorted(comparator);
+    }
+    
+    @Override
+    public List<Material> topK(int k, Comparator<Material> comparator, Material.MaterialType type) {
+        return delegate.topK(k, comparator, type);
+    }
+    
+    @Override
+    public List<Material> findCheapest(int k, Material.MaterialType type) {
+        return delegate.findCheapest(k, type);
+    }
+    
+    @Override
+    public List<Material> findMostExpensive(int k, Material.MaterialType type) {
+        return delegate.findMostExpensive(k, type);
+    }
+    
+    @Override
+    public List<Material> findNewest(int k, Material.MaterialType type) {
+        return delegate.findNewest(k, type);
+    }
+    
+    @Override
+    public List<Material> getMaterialsByPriceRange(double minPrice, double maxPrice) {
+        return delegate.getMaterialsByPriceRange(minPrice, maxPrice);
+    }
+    
+    @Override
+    public List<Material> getMaterialsByYear(int year) {
+        return delegate.getMaterialsByYear(year);
+    }
+    
+    @Override
+    public List<Material> getAllMaterialsSorted() {
+        return delegate.getAllMaterialsSorted();
+    }
+    
+    @Override
+    public List<Material> getAllMaterials() {
+        return delegate.getAllMaterials();
+    }
+    
+    @Override
+    public double getTotalInventoryValue() {
+        return delegate.getTotalInventoryValue();
+    }
+    
+    @Override
+    public double getTotalDiscountedValue() {
+        return delegate.getTotalDiscountedValue();
+    }
+    
+    @Override
+    public InventoryStats getInventoryStats() {
+        return delegate.getInventoryStats();
+    }
+    
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("TrigramIndexedMaterialStore[%s]", delegate);
+    }
+}
\ No newline at end of file
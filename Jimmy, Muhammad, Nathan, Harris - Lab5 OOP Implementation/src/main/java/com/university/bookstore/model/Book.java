@@ -1,6 +1,5 @@
 package com.university.bookstore.model;
 
-import java.time.Year;
 import java.util.Objects;
 import java.util.regex.Pattern;
 
@@ -85,7 +84,7 @@ public final class Book implements Comparable<Book> {
     }
     
     private int validateYear(int year) {
-        int currentYear = Year.now().getValue();
+        int currentYear = CurrentYear.get();
         if (year < MIN_YEAR || year > currentYear + 1) {
             throw new IllegalArgumentException(
                 String.format("Year must be between %d and %d. Provided: %d",
@@ -0,0 +1,125 @@
+package com.university.bookstore.model;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * Shared source of the current year and month for year validation, discount rates and
+ * recency queries.
+ * 
+ * <p>{@code Year.now()} resolves the default time zone and converts the instant to a
+ * date on every call, which adds up when millions of materials are validated on ingest.
+ * This provider converts once per calendar month: it caches the year and month
+ * together with the instants at which they start and stop being current, so a call
+ * costs one read of the clock's milliseconds and two comparisons.</p>
+ * 
+ * <p>The clock can be replaced, for example with {@link Clock#fixed} in tests, so that
+ * everything that depends on the date sees the same, reproducible calendar.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+public final class CurrentYear {
+    
+    /**
+     * A calendar month and the epoch milliseconds it spans in the clock's zone.
+     */
+    private record Month(int year, int month, long start, long end) {
+        
+        static Month containing(long millis, ZoneId zone) {
+            LocalDate first = Instant.ofEpochMilli(millis).atZone(zone).toLocalDate().withDayOfMonth(1);
+            long start = first.atStartOfDay(zone).toInstant().toEpochMilli();
+            long end = first.plusMonths(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            return new Month(first.getYear(), first.getMonthValue(), start, end);
+        }
+        
+        boolean contains(long millis) {
+            return millis >= start && millis < end;
+        }
+    }
+    
+    private static volatile Clock clock = Clock.systemDefaultZone();
+    private static volatile Month current = Month.containing(clock.millis(), clock.getZone());
+    
+    private CurrentYear() {
+        // Utility class
+    }
+    
+    /**
+     * Gets the current year.
+     * 
+     * @return the current year
+     */
+    public static int get() {
+        return month().year();
+    }
+    
+    /**
+     * Gets the current month of the year.
+     * 
+     * @return the month, from 1 (January) to 12 (December)
+     */
+    public static int monthOfYear() {
+        return month().month();
+    }
+    
+    /**
+     * Gets the time at which the current month ends, after which anything derived from
+     * the year or month must be recomputed.
+     * 
+     * @return epoch milliseconds of the start of next month
+     */
+    public static long endOfMonth() {
+        return month().end();
+    }
+    
+    /**
+     * Gets the current time from the shared clock.
+     * 
+     * @return the current epoch milliseconds
+     */
+    public static long millis() {
+        return clock.millis();
+    }
+    
+    /**
+     * Replaces the clock, for example with a fixed clock in tests.
+     * 
+     * @param newClock the clock to use
+     */
+    public static void setClock(Clock newClock) {
+        Objects.requireNonNull(newClock, "Clock cannot be null");
+        synchronized (CurrentYear.class) {
+            clock = newClock;
+            current = Month.containing(newClock.millis(), newClock.getZone());
+        }
+    }
+    
+    /**
+     * Restores the system clock in the default time zone.
+     */
+    public static void useSystemClock() {
+        setClock(Clock.systemDefaultZone());
+    }
+    
+    private static Month month() {
+        Clock source = clock;
+        Month cached = current;
+        long now = source.millis();
+        if (cached.contains(now)) {
+            return cached;
+        }
+        // Crossed a month boundary, or the clock was moved back
+        Month next = Month.containing(now, source.getZone());
+        synchronized (CurrentYear.class) {
+            if (clock == source) {
+                current = next;
+            }
+        }
+        return next;
+    }
+}
\ No newline at end of file
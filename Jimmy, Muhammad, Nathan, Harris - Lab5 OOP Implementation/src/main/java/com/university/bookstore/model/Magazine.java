@@ -97,8 +97,8 @@ public class Magazine extends Material {
     
     @Override
     public double getDiscountRate() {
-        int currentYear = java.time.Year.now().getValue();
-        int currentMonth = java.time.LocalDate.now().getMonthValue();
+        int currentYear = CurrentYear.get();
+        int currentMonth = CurrentYear.monthOfYear();
         
         if (year < currentYear || (year == currentYear && issueNumber < currentMonth - 2)) {
             return 0.25;
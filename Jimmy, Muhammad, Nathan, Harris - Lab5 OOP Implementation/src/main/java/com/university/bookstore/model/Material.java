@@ -1,6 +1,5 @@
 package com.university.bookstore.model;
 
-import java.time.Year;
 import java.util.Objects;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
@@ -151,7 +150,7 @@ public abstract class Material implements Comparable<Material> {
     }
     
     protected int validateYear(int year) {
-        int currentYear = Year.now().getValue();
+        int currentYear = CurrentYear.get();
         if (year < MIN_YEAR || year > currentYear + 1) {
             throw new IllegalArgumentException(
                 String.format("Year must be between %d and %d. Provided: %d",
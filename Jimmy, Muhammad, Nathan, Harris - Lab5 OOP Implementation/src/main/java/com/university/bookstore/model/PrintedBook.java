@@ -102,7 +102,7 @@ public class PrintedBook extends Material {
     
     @Override
     public double getDiscountRate() {
-        int currentYear = java.time.Year.now().getValue();
+        int currentYear = CurrentYear.get();
         if (year < currentYear - 2) {
             return 0.15;
         }
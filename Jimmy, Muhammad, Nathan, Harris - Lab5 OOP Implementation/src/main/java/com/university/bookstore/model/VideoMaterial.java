@@ -137,7 +137,7 @@ public class VideoMaterial extends Material implements Media {
     
     @Override
     public double getDiscountRate() {
-        int currentYear = java.time.Year.now().getValue();
+        int currentYear = CurrentYear.get();
         if (year < currentYear - 5) {
             return 0.30;
         } else if (year < currentYear - 2) {
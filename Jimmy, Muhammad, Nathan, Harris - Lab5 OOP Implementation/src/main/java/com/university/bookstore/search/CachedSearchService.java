@@ -13,6 +13,15 @@ import com.university.bookstore.repository.MaterialRepository;
  * <p>This service combines the efficiency of Trie data structures for prefix searching
  * with LRU caching to avoid repeated computation for frequently accessed queries.</p>
  * 
+ * <p>Results are cached per prefix (and limit) together with the trie's version of
+ * that prefix, so an insert or removal invalidates exactly the cached results of the
+ * prefixes of the material's title, for every limit, while it updates the trie and
+ * without touching the cache. A lookup whose version no longer matches is a miss, and
+ * the recomputed results replace the superseded entry under the same key, so stale
+ * versions never accumulate in the cache.</p>
+ * 
+ * <p>Results are unmodifiable lists shared with the cache.</p>
+ * 
  * @author Navid Mohaghegh
  * @version 3.0
  * @since 2024-09-15
@@ -47,21 +56,18 @@ public class CachedSearchService {
             return List.of();
         }
         
-        String cacheKey = "prefix:" + prefix.toLowerCase().trim();
+        String normalized = prefix.toLowerCase().trim();
+        String cacheKey = "prefix:" + normalized;
+        long version = trie.prefixVersion(normalized);
         
         // Check cache first
-        var cached = cache.get(cacheKey);
+        var cached = cache.get(cacheKey, version);
         if (cached.isPresent()) {
             return cached.get();
         }
         
-        // Perform search using trie
-        List<Material> results = trie.searchByPrefix(prefix);
-        
-        // Cache results
-        cache.put(cacheKey, results);
-        
-        return results;
+        // Perform search using trie and cache the results
+        return cache.put(cacheKey, version, trie.searchByPrefix(prefix));
     }
     
     /**
@@ -76,25 +82,23 @@ public class CachedSearchService {
             return List.of();
         }
         
-        String cacheKey = "prefix:" + prefix.toLowerCase().trim() + ":limit:" + limit;
+        String normalized = prefix.toLowerCase().trim();
+        String cacheKey = "top:" + limit + ":" + normalized;
+        long version = trie.prefixVersion(normalized);
         
         // Check cache first
-        var cached = cache.get(cacheKey);
+        var cached = cache.get(cacheKey, version);
         if (cached.isPresent()) {
             return cached.get();
         }
         
-        // Perform search using trie
-        List<Material> results = trie.searchByPrefixWithLimit(prefix, limit);
-        
-        // Cache results
-        cache.put(cacheKey, results);
-        
-        return results;
+        // Perform search using trie and cache the results
+        return cache.put(cacheKey, version, trie.searchByPrefixWithLimit(prefix, limit));
     }
     
     /**
-     * Adds a material to the search index and invalidates relevant cache entries.
+     * Adds a material to the search index, which invalidates the cached results of
+     * every prefix of its title.
      * 
      * @param material the material to add
      */
@@ -104,11 +108,11 @@ public class CachedSearchService {
         }
         
         trie.insert(material);
-        invalidateCacheForMaterial(material);
     }
     
     /**
-     * Removes a material from the search index and invalidates relevant cache entries.
+     * Removes a material from the search index, which invalidates the cached results
+     * of every prefix of its title.
      * 
      * @param material the material to remove
      */
@@ -118,7 +122,6 @@ public class CachedSearchService {
         }
         
         trie.remove(material);
-        invalidateCacheForMaterial(material);
     }
     
     /**
@@ -176,28 +179,6 @@ public class CachedSearchService {
         }
     }
     
-    /**
-     * Invalidates cache entries that might be affected by changes to a material.
-     * 
-     * @param material the material that was changed
-     */
-    private void invalidateCacheForMaterial(Material material) {
-        String title = material.getTitle().toLowerCase();
-        
-        // Invalidate cache entries for all possible prefixes of the material's title
-        for (int i = 1; i <= title.length(); i++) {
-            String prefix = title.substring(0, i);
-            String cacheKey = "prefix:" + prefix;
-            cache.remove(cacheKey);
-            
-            // Also remove limit-based cache entries
-            for (int limit = 10; limit <= 100; limit += 10) {
-                String limitCacheKey = cacheKey + ":limit:" + limit;
-                cache.remove(limitCacheKey);
-            }
-        }
-    }
-    
     @Override
     public String toString() {
         return String.format("CachedSearchService[IndexSize=%d, CacheSize=%d/%d, HitRatio=%.2f%%]",
@@ -0,0 +1,111 @@
+package com.university.bookstore.search;
+
+/**
+ * Count-min sketch estimating how often each key was requested recently, used by
+ * {@link WindowTinyLfu} to decide whether a new entry deserves a place in the cache.
+ * 
+ * <p>Counters are 4 bits wide, sixteen to a {@code long}. Each key maps to four
+ * counters, one per hash function, and its frequency is the smallest of the four, so
+ * collisions can only overestimate. Each hash function uses its own quarter of a
+ * word, which keeps a key's counters in four words at most. Once the number of
+ * increments reaches ten times the cache size every counter is halved, so the sketch
+ * follows shifts in popularity instead of remembering old hits forever.</p>
+ * 
+ * <p>Not thread-safe; the owning policy serializes access.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+final class FrequencySketch {
+    
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+    
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+    
+    /**
+     * Creates a sketch sized for a cache of the given capacity.
+     * 
+     * @param maximumSize the cache capacity
+     */
+    FrequencySketch(int maximumSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, Math.min(maximumSize, 1 << 29)) - 1) << 1;
+        this.table = new long[capacity];
+        this.tableMask = capacity - 1;
+        this.sampleSize = (int) Math.min(10L * Math.max(1, maximumSize), Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Estimates how often a key was incremented since the counters were last aged.
+     * 
+     * @param key the key
+     * @return the estimated frequency, at most 15
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int shift = counterShift(hash, i);
+            frequency = Math.min(frequency, (int) ((table[index(hash, i)] >>> shift) & 0xF));
+        }
+        return frequency;
+    }
+    
+    /**
+     * Counts a request for a key, aging all counters once enough have been counted.
+     * 
+     * @param key the key
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int index = index(hash, i);
+            int shift = counterShift(hash, i);
+            if (((table[index] >>> shift) & 0xF) < MAX_COUNT) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+    
+    /**
+     * Halves every counter.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+    
+    private int index(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+    
+    /**
+     * Picks one of the four counters in the i-th quarter of the word.
+     */
+    private static int counterShift(int hash, int i) {
+        int counter = (i << 2) + ((hash >>> (i << 3)) & 3);
+        return counter << 2;
+    }
+    
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
\ No newline at end of file
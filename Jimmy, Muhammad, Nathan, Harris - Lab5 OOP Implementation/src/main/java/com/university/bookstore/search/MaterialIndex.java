@@ -0,0 +1,486 @@
+package com.university.bookstore.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.university.bookstore.model.Material;
+
+/**
+ * Secondary indexes over a material collection, maintained incrementally on add and remove.
+ * Turns the type, year, creator and price lookups of a MaterialStore from O(n) scans into
+ * O(1) or O(log n + k) lookups.
+ * 
+ * <p>Indexes kept:</p>
+ * <ul>
+ *   <li>type - an EnumMap of buckets, one per MaterialType</li>
+ *   <li>year - a skip list keyed by year, supporting range queries</li>
+ *   <li>creator - a hash map keyed by the exact creator name</li>
+ *   <li>price - a skip list keyed by price, supporting range queries</li>
+ * </ul>
+ * 
+ * <p>All structures are concurrent, so the index can be read without locking while writers
+ * update it. The owning store is responsible for adding and removing a given material
+ * at most once, in step with its primary storage. Skip list {@code compute} is not
+ * atomic, so writers to the year and price indexes also hold a lock striped by key;
+ * otherwise an add could land in a bucket that a concurrent remove had just emptied
+ * and unlinked.</p>
+ * 
+ * <p>Each material is given an insertion sequence number when it is indexed, and
+ * buckets are skip lists keyed by that number. Materials sharing a type, year, creator
+ * or price therefore come back in the order they were added, as a scan of the store
+ * would return them, and range queries return them in key order, then insertion order.
+ * A material that is removed and added again moves to the end.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+public class MaterialIndex {
+    
+    private static final int KEY_LOCK_STRIPES = 64;
+    
+    private final Map<Material.MaterialType, NavigableMap<Long, Material>> byType;
+    private final ConcurrentNavigableMap<Integer, NavigableMap<Long, Material>> byYear;
+    private final ConcurrentMap<String, NavigableMap<Long, Material>> byCreator;
+    private final ConcurrentNavigableMap<Double, NavigableMap<Long, Material>> byPrice;
+    // Insertion sequence of each indexed material, which is its key in every bucket
+    private final ConcurrentMap<Material, Long> sequences;
+    private final AtomicLong nextSequence;
+    private final Object[] keyLocks;
+    
+    /**
+     * Creates a new empty material index.
+     */
+    public MaterialIndex() {
+        // Type buckets are created up front so the EnumMap itself is never modified
+        this.byType = new EnumMap<>(Material.MaterialType.class);
+        for (Material.MaterialType type : Material.MaterialType.values()) {
+            byType.put(type, new ConcurrentSkipListMap<>());
+        }
+        this.byYear = new ConcurrentSkipListMap<>();
+        this.byCreator = new ConcurrentHashMap<>();
+        this.byPrice = new ConcurrentSkipListMap<>();
+        this.sequences = new ConcurrentHashMap<>();
+        this.nextSequence = new AtomicLong();
+        this.keyLocks = new Object[KEY_LOCK_STRIPES];
+        for (int i = 0; i < KEY_LOCK_STRIPES; i++) {
+            keyLocks[i] = new Object();
+        }
+    }
+    
+    /**
+     * Adds a material to every index.
+     * 
+     * @param material the material to index
+     */
+    public void add(Material material) {
+        Objects.requireNonNull(material, "Material cannot be null");
+        
+        Long sequence = nextSequence.getAndIncrement();
+        sequences.put(material, sequence);
+        byType.get(material.getType()).put(sequence, material);
+        Integer year = material.getYear();
+        synchronized (lockFor(year)) {
+            addToBucket(byYear, year, sequence, material);
+        }
+        addToBucket(byCreator, material.getCreator(), sequence, material);
+        Double price = priceKey(material);
+        synchronized (lockFor(price)) {
+            addToBucket(byPrice, price, sequence, material);
+        }
+    }
+    
+    /**
+     * Adds many materials to every index in one pass. Materials are grouped by key
+     * first, so each distinct type, year, creator and price is looked up once.
+     * 
+     * @param materials the materials to index
+     */
+    public void addAll(Collection<Material> materials) {
+        Map<Material.MaterialType, Map<Long, Material>> types = new EnumMap<>(Material.MaterialType.class);
+        Map<Integer, Map<Long, Material>> years = new HashMap<>();
+        Map<String, Map<Long, Material>> creators = new HashMap<>();
+        Map<Double, Map<Long, Material>> prices = new HashMap<>();
+        for (Material material : materials) {
+            Objects.requireNonNull(material, "Material cannot be null");
+            Long sequence = nextSequence.getAndIncrement();
+            sequences.put(material, sequence);
+            types.computeIfAbsent(material.getType(), k -> new HashMap<>()).put(sequence, material);
+            years.computeIfAbsent(material.getYear(), k -> new HashMap<>()).put(sequence, material);
+            creators.computeIfAbsent(material.getCreator(), k -> new HashMap<>()).put(sequence, material);
+            prices.computeIfAbsent(priceKey(material), k -> new HashMap<>()).put(sequence, material);
+        }
+        
+        types.forEach((type, group) -> byType.get(type).putAll(group));
+        years.forEach((year, group) -> {
+            synchronized (lockFor(year)) {
+                addAllToBucket(byYear, year, group);
+            }
+        });
+        creators.forEach((creator, group) -> addAllToBucket(byCreator, creator, group));
+        prices.forEach((price, group) -> {
+            synchronized (lockFor(price)) {
+                addAllToBucket(byPrice, price, group);
+            }
+        });
+    }
+    
+    /**
+     * Removes a material from every index.
+     * 
+     * @param material the material to remove
+     */
+    public void remove(Material material) {
+        if (material == null) {
+            return;
+        }
+        
+        Long sequence = sequences.remove(material);
+        if (sequence == null) {
+            return;
+        }
+        byType.get(material.getType()).remove(sequence);
+        Integer year = material.getYear();
+        synchronized (lockFor(year)) {
+            removeFromBucket(byYear, year, List.of(sequence));
+        }
+        removeFromBucket(byCreator, material.getCreator(), List.of(sequence));
+        Double price = priceKey(material);
+        synchronized (lockFor(price)) {
+            removeFromBucket(byPrice, price, List.of(sequence));
+        }
+    }
+    
+    /**
+     * Removes many materials from every index in one pass, grouped by key like
+     * {@link #addAll(Collection)}.
+     * 
+     * @param materials the materials to remove
+     */
+    public void removeAll(Collection<Material> materials) {
+        Map<Material.MaterialType, List<Long>> types = new EnumMap<>(Material.MaterialType.class);
+        Map<Integer, List<Long>> years = new HashMap<>();
+        Map<String, List<Long>> creators = new HashMap<>();
+        Map<Double, List<Long>> prices = new HashMap<>();
+        for (Material material : materials) {
+            Long sequence = sequences.remove(material);
+            if (sequence == null) {
+                continue;
+            }
+            types.computeIfAbsent(material.getType(), k -> new ArrayList<>()).add(sequence);
+            years.computeIfAbsent(material.getYear(), k -> new ArrayList<>()).add(sequence);
+            creators.computeIfAbsent(material.getCreator(), k -> new ArrayList<>()).add(sequence);
+            prices.computeIfAbsent(priceKey(material), k -> new ArrayList<>()).add(sequence);
+        }
+        
+        types.forEach((type, group) -> group.forEach(byType.get(type)::remove));
+        years.forEach((year, group) -> {
+            synchronized (lockFor(year)) {
+                removeFromBucket(byYear, year, group);
+            }
+        });
+        creators.forEach((creator, group) -> removeFromBucket(byCreator, creator, group));
+        prices.forEach((price, group) -> {
+            synchronized (lockFor(price)) {
+                removeFromBucket(byPrice, price, group);
+            }
+        });
+    }
+    
+    /**
+     * Removes all materials from every index.
+     */
+    public void clear() {
+        byType.values().forEach(Map::clear);
+        sequences.clear();
+        byYear.clear();
+        byCreator.clear();
+        byPrice.clear();
+    }
+    
+    /**
+     * Gets all indexed materials of a type.
+     * 
+     * @param type the material type
+     * @return list of materials of that type
+     */
+    public List<Material> findByType(Material.MaterialType type) {
+        if (type == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(byType.get(type).values());
+    }
+    
+    /**
+     * Gets the number of indexed materials of a type.
+     * 
+     * @param type the material type
+     * @return the bucket size
+     */
+    public int countByType(Material.MaterialType type) {
+        return type == null ? 0 : byType.get(type).size();
+    }
+    
+    /**
+     * Gets all indexed materials from a year.
+     * 
+     * @param year the publication year
+     * @return list of materials from that year
+     */
+    public List<Material> findByYear(int year) {
+        NavigableMap<Long, Material> bucket = byYear.get(year);
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket.values());
+    }
+    
+    /**
+     * Gets all indexed materials published between two years.
+     * 
+     * @param fromYear first year (inclusive)
+     * @param toYear last year (inclusive)
+     * @return list of materials ordered by year
+     */
+    public List<Material> findByYearRange(int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            return new ArrayList<>();
+        }
+        return flatten(byYear.subMap(fromYear, true, toYear, true));
+    }
+    
+    /**
+     * Gets all indexed materials published in or after a year, by walking the tail of
+     * the year index. Cost is proportional to the result, not to the index.
+     * 
+     * @param fromYear first year (inclusive)
+     * @return list of materials ordered by year
+     */
+    public List<Material> findSinceYear(int fromYear) {
+        return flatten(byYear.tailMap(fromYear, true));
+    }
+    
+    /**
+     * Gets all indexed materials whose creator exactly matches one of the names.
+     * 
+     * @param creators the creator names
+     * @return list of materials by any of the creators
+     */
+    public List<Material> findByCreators(Collection<String> creators) {
+        List<Material> result = new ArrayList<>();
+        for (String creator : creators) {
+            NavigableMap<Long, Material> bucket = byCreator.get(creator);
+            if (bucket != null) {
+                result.addAll(bucket.values());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Gets all indexed materials within a price range.
+     * 
+     * @param minPrice minimum price (inclusive)
+     * @param maxPrice maximum price (inclusive)
+     * @return list of materials ordered by price
+     */
+    public List<Material> findByPriceRange(double minPrice, double maxPrice) {
+        if (minPrice > maxPrice) {
+            return new ArrayList<>();
+        }
+        return flatten(byPrice.subMap(minPrice, true, maxPrice, true));
+    }
+    
+    /**
+     * Gets the k cheapest indexed materials by walking the price index from the low end.
+     * 
+     * @param k the number of materials to return
+     * @param type the type to restrict to, or null for every type
+     * @return at most k materials in ascending price order
+     */
+    public List<Material> findCheapest(int k, Material.MaterialType type) {
+        return take(byPrice, k, type);
+    }
+    
+    /**
+     * Gets the k most expensive indexed materials by walking the price index from the
+     * high end.
+     * 
+     * @param k the number of materials to return
+     * @param type the type to restrict to, or null for every type
+     * @return at most k materials in descending price order
+     */
+    public List<Material> findMostExpensive(int k, Material.MaterialType type) {
+        return take(byPrice.descendingMap(), k, type);
+    }
+    
+    /**
+     * Gets the k most recent indexed materials by walking the year index from the
+     * high end.
+     * 
+     * @param k the number of materials to return
+     * @param type the type to restrict to, or null for every type
+     * @return at most k materials in descending year order
+     */
+    public List<Material> findNewest(int k, Material.MaterialType type) {
+        return take(byYear.descendingMap(), k, type);
+    }
+    
+    /**
+     * Gets the number of indexed materials.
+     * 
+     * @return the total over all type buckets
+     */
+    public int size() {
+        int total = 0;
+        for (NavigableMap<Long, Material> bucket : byType.values()) {
+            total += bucket.size();
+        }
+        return total;
+    }
+    
+    /**
+     * Counts the indexed materials published between two years.
+     * Cost is proportional to the number of distinct years in the range.
+     * 
+     * @param fromYear first year (inclusive)
+     * @param toYear last year (inclusive)
+     * @return the exact number of materials in the range
+     */
+    public int countByYearRange(int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            return 0;
+        }
+        int total = 0;
+        for (NavigableMap<Long, Material> bucket : byYear.subMap(fromYear, true, toYear, true).values()) {
+            total += bucket.size();
+        }
+        return total;
+    }
+    
+    /**
+     * Estimates the number of indexed materials within a price range in constant time,
+     * assuming prices are spread uniformly between the cheapest and dearest material.
+     * 
+     * @param minPrice minimum price (inclusive)
+     * @param maxPrice maximum price (inclusive)
+     * @return the estimated number of materials in the range
+     */
+    public int estimateByPriceRange(double minPrice, double maxPrice) {
+        Map.Entry<Double, NavigableMap<Long, Material>> lowest = byPrice.firstEntry();
+        Map.Entry<Double, NavigableMap<Long, Material>> highest = byPrice.lastEntry();
+        if (minPrice > maxPrice || lowest == null || highest == null) {
+            return 0;
+        }
+        
+        double low = lowest.getKey();
+        double high = highest.getKey();
+        double from = Math.max(minPrice, low);
+        double to = Math.min(maxPrice, high);
+        if (from > to) {
+            return 0;
+        }
+        
+        int total = size();
+        if (high <= low) {
+            return total;
+        }
+        return Math.max(1, (int) Math.ceil(total * (to - from) / (high - low)));
+    }
+    
+    /**
+     * Gets the lock that serializes bucket updates for a year or price key.
+     */
+    private Object lockFor(Object key) {
+        int hash = key.hashCode();
+        return keyLocks[(hash ^ (hash >>> 16)) & (KEY_LOCK_STRIPES - 1)];
+    }
+    
+    /**
+     * Normalizes -0.0 to 0.0 so both land in the same price bucket.
+     */
+    private static Double priceKey(Material material) {
+        return material.getPrice() + 0.0;
+    }
+    
+    /**
+     * Collects materials bucket by bucket in key order until k have been found. Cost is
+     * O(log n + k) when matches are dense; a rare type filter may walk further.
+     */
+    private static List<Material> take(NavigableMap<?, NavigableMap<Long, Material>> buckets, int k,
+                                       Material.MaterialType type) {
+        TopK.checkLimit(k);
+        List<Material> result = new ArrayList<>(Math.min(k, 1024));
+        for (NavigableMap<Long, Material> bucket : buckets.values()) {
+            for (Material material : bucket.values()) {
+                if (result.size() == k) {
+                    return result;
+                }
+                if (type == null || material.getType() == type) {
+                    result.add(material);
+                }
+            }
+        }
+        return result;
+    }
+    
+    private static List<Material> flatten(NavigableMap<?, NavigableMap<Long, Material>> buckets) {
+        List<Material> result = new ArrayList<>();
+        for (NavigableMap<Long, Material> bucket : buckets.values()) {
+            result.addAll(bucket.values());
+        }
+        return result;
+    }
+    
+    /**
+     * Adds materials to the bucket for a key under their sequence numbers, creating the
+     * bucket if needed. The remapping functions are idempotent because skip list compute
+     * may retry them; skip list callers must also hold the key's lock.
+     */
+    private static <K> void addToBucket(ConcurrentMap<K, NavigableMap<Long, Material>> index, K key,
+                                        Long sequence, Material material) {
+        index.compute(key, (k, bucket) -> {
+            NavigableMap<Long, Material> target = bucket != null ? bucket : new ConcurrentSkipListMap<>();
+            target.put(sequence, material);
+            return target;
+        });
+    }
+    
+    private static <K> void addAllToBucket(ConcurrentMap<K, NavigableMap<Long, Material>> index, K key,
+                                           Map<Long, Material> group) {
+        index.compute(key, (k, bucket) -> {
+            NavigableMap<Long, Material> target = bucket != null ? bucket : new ConcurrentSkipListMap<>();
+            target.putAll(group);
+            return target;
+        });
+    }
+    
+    /**
+     * Removes materials by sequence number from the bucket for a key, dropping the
+     * bucket once empty.
+     */
+    private static <K> void removeFromBucket(ConcurrentMap<K, NavigableMap<Long, Material>> index, K key,
+                                             List<Long> group) {
+        index.computeIfPresent(key, (k, bucket) -> {
+            group.forEach(bucket::remove);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("MaterialIndex[Types=%d, Years=%d, Creators=%d, Prices=%d]",
+            (int) byType.values().stream().filter(bucket -> !bucket.isEmpty()).count(),
+            byYear.size(),
+            byCreator.size(),
+            byPrice.size());
+    }
+}
\ No newline at end of file
@@ -16,6 +16,11 @@ import com.university.bookstore.model.Material;
  * <p>This implementation stores materials at each node along the path, allowing for
  * efficient prefix-based lookups and autocomplete functionality.</p>
  * 
+ * <p>Every node also carries the version of the last insert or removal that passed
+ * through it, taken from a counter shared by the whole trie. The version of a prefix
+ * therefore changes exactly when its results do, which lets callers validate cached
+ * results without knowing which queries were cached.</p>
+ * 
  * @author Navid Mohaghegh
  * @version 3.0
  * @since 2024-09-15
@@ -23,6 +28,7 @@ import com.university.bookstore.model.Material;
 public class MaterialTrie {
     
     private final TrieNode root;
+    private long version;
     
     /**
      * Creates a new empty material trie.
@@ -44,15 +50,18 @@ public class MaterialTrie {
         
         String title = material.getTitle().toLowerCase();
         TrieNode current = root;
+        long stamp = ++version;
         
         // Add material to root for empty prefix searches
         current.materials.add(material);
+        current.version = stamp;
         
         // Traverse the trie, adding material to each node along the path
         for (char c : title.toCharArray()) {
             current.children.putIfAbsent(c, new TrieNode());
             current = current.children.get(c);
             current.materials.add(material);
+            current.version = stamp;
         }
         
         current.isEndOfWord = true;
@@ -125,6 +134,33 @@ public class MaterialTrie {
         return !current.materials.isEmpty();
     }
     
+    /**
+     * Gets the version of the results for a prefix. It changes whenever a material whose
+     * title starts with the prefix is inserted or removed, and never returns to an
+     * earlier value, so results computed under a version are current while the prefix
+     * still has it. A prefix without matches has version 0.
+     * 
+     * @param prefix the prefix to check
+     * @return the version of the prefix's results
+     */
+    public long prefixVersion(String prefix) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            return 0;
+        }
+        
+        String lowerPrefix = prefix.toLowerCase().trim();
+        TrieNode current = root;
+        
+        for (char c : lowerPrefix.toCharArray()) {
+            current = current.children.get(c);
+            if (current == null) {
+                return 0;
+            }
+        }
+        
+        return current.version;
+    }
+    
     /**
      * Gets all materials in the trie.
      * 
@@ -161,11 +197,16 @@ public class MaterialTrie {
         
         // Remove material from all nodes in the path
         boolean removed = false;
+        long stamp = version + 1;
         for (TrieNode node : path) {
             if (node.materials.remove(material)) {
+                node.version = stamp;
                 removed = true;
             }
         }
+        if (removed) {
+            version = stamp;
+        }
         
         // Clean up empty nodes (optional optimization)
         cleanupEmptyNodes(path);
@@ -180,6 +221,7 @@ public class MaterialTrie {
         root.children.clear();
         root.materials.clear();
         root.isEndOfWord = false;
+        root.version = ++version;
     }
     
     /**
@@ -224,6 +266,7 @@ public class MaterialTrie {
         final Map<Character, TrieNode> children;
         final List<Material> materials;
         boolean isEndOfWord;
+        long version;
         
         TrieNode() {
             this.children = new HashMap<>();
@@ -1,24 +1,25 @@
 package com.university.bookstore.search;
 
 import java.time.Duration;
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 import com.university.bookstore.model.Material;
@@ -26,12 +27,20 @@ import com.university.bookstore.model.Material;
 /**
  * Modern high-performance cache implementation with advanced features.
  * Features:
- * - Time-based and size-based eviction
- * - Async loading with CompletableFuture
+ * - Time-based eviction, and size-based eviction with W-TinyLFU admission
+ * - Async loading with CompletableFuture, one load per key however many callers miss it
+ * - Optional refresh-ahead of entries nearing their time to live
  * - Statistics tracking
  * - Warm-up and refresh capabilities
  * - Thread-safe operations
  * 
+ * <p>The size bound is enforced on every put by a {@link WindowTinyLfu} policy: new
+ * keys enter a small LRU window, and a key leaving the window displaces a cached one
+ * only if a frequency sketch has seen it requested more often. Eviction is O(1), and
+ * one-off long-tail queries no longer flush the hot prefixes. Every request, hit or
+ * miss, is reported to the policy through a {@link ReadBuffer}, so hits never wait for
+ * the policy's lock.</p>
+ * 
  * @author Navid Mohaghegh
  * @version 4.0
  * @since 2024-09-15
@@ -39,48 +48,49 @@ import com.university.bookstore.model.Material;
 public class ModernSearchCache implements AutoCloseable {
     
     private static final Logger LOGGER = Logger.getLogger(ModernSearchCache.class.getName());
+    private static final long ACCESS_TIME_RESOLUTION_MILLIS = 1000;
     
     /**
-     * Cache entry with metadata.
+     * Cache entry with metadata. The value is immutable and handed to every caller;
+     * the access time is the only field a hit may write.
      */
-    private record CacheEntry(
-        List<Material> value,
-        Instant createdAt,
-        Instant lastAccessedAt,
-        AtomicLong accessCount
-    ) {
+    private static final class CacheEntry {
+        final List<Material> value;
+        final long createdAt;
+        volatile long lastAccessedAt;
+        
         /**
-         * Creates a new cache entry.
+         * Creates a new cache entry for an unmodifiable value.
          */
-        public static CacheEntry of(List<Material> value) {
-            return new CacheEntry(
-                Collections.unmodifiableList(new ArrayList<>(value)),
-                Instant.now(),
-                Instant.now(),
-                new AtomicLong(1)
-            );
+        CacheEntry(List<Material> value, long now) {
+            this.value = value;
+            this.createdAt = now;
+            this.lastAccessedAt = now;
         }
         
         /**
-         * Records an access to this entry.
+         * Records an access to this entry. The time is only written once it has moved
+         * by the resolution, so concurrent hits on a hot entry read a shared cache line
+         * instead of taking turns writing it.
          */
-        public CacheEntry recordAccess() {
-            accessCount.incrementAndGet();
-            return new CacheEntry(value, createdAt, Instant.now(), accessCount);
+        void recordAccess(long now) {
+            if (now - lastAccessedAt >= ACCESS_TIME_RESOLUTION_MILLIS) {
+                lastAccessedAt = now;
+            }
         }
         
         /**
-         * Checks if the entry is expired.
+         * Checks if the entry is older than the given age.
          */
-        public boolean isExpired(Duration ttl) {
-            return Duration.between(createdAt, Instant.now()).compareTo(ttl) > 0;
+        boolean isExpired(long ageMillis, long now) {
+            return now - createdAt > ageMillis;
         }
         
         /**
          * Checks if the entry is stale (not accessed recently).
          */
-        public boolean isStale(Duration idleTime) {
-            return Duration.between(lastAccessedAt, Instant.now()).compareTo(idleTime) > 0;
+        boolean isStale(long idleMillis, long now) {
+            return now - lastAccessedAt > idleMillis;
         }
     }
     
@@ -128,11 +138,17 @@ public class ModernSearchCache implements AutoCloseable {
     }
     
     private final Map<String, CacheEntry> cache;
+    private final WindowTinyLfu<String> policy;
+    // Reads waiting to be replayed into the policy
+    private final ReadBuffer<String> readBuffer;
+    private final Consumer<String> replayRead;
+    // Guards the policy and structural changes to the cache, so both hold the same keys
+    private final ReentrantLock evictionLock;
     private final ExecutorService loadingExecutor;
     private final ScheduledExecutorService maintenanceExecutor;
-    private final int maxSize;
     private final Duration ttl;
-    private final Duration idleTime;
+    private final long ttlMillis;
+    private final long idleMillis;
     
     // Statistics
     private final LongAdder hitCount = new LongAdder();
@@ -140,6 +156,12 @@ public class ModernSearchCache implements AutoCloseable {
     private final LongAdder evictionCount = new LongAdder();
     private final LongAdder loadCount = new LongAdder();
     private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder coalescedLoadCount = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+    
+    // Loads in progress, shared by every caller that misses the same key
+    private final Map<String, CompletableFuture<List<Material>>> inFlight = new ConcurrentHashMap<>();
+    private volatile Duration refreshAfter;
     
     private volatile boolean closed = false;
     
@@ -156,12 +178,17 @@ public class ModernSearchCache implements AutoCloseable {
      * @param maxSize maximum number of entries
      * @param ttl time to live for entries
      * @param idleTime maximum idle time before eviction
+     * @throws IllegalArgumentException if maxSize is not positive
      */
     public ModernSearchCache(int maxSize, Duration ttl, Duration idleTime) {
-        this.maxSize = maxSize;
         this.ttl = ttl;
-        this.idleTime = idleTime;
+        this.ttlMillis = ttl.toMillis();
+        this.idleMillis = idleTime.toMillis();
         this.cache = new ConcurrentHashMap<>();
+        this.policy = new WindowTinyLfu<>(maxSize);
+        this.readBuffer = new ReadBuffer<>();
+        this.replayRead = policy::recordAccess;
+        this.evictionLock = new ReentrantLock();
         
         // Use virtual threads if available, otherwise use cached thread pool
         this.loadingExecutor = Executors.newCachedThreadPool(r -> {
@@ -198,14 +225,15 @@ public class ModernSearchCache implements AutoCloseable {
         if (closed) return;
         
         int removed = 0;
+        long now = System.currentTimeMillis();
         Iterator<Map.Entry<String, CacheEntry>> iterator = cache.entrySet().iterator();
         
         while (iterator.hasNext()) {
             Map.Entry<String, CacheEntry> entry = iterator.next();
             CacheEntry cacheEntry = entry.getValue();
             
-            if (cacheEntry.isExpired(ttl) || cacheEntry.isStale(idleTime)) {
-                iterator.remove();
+            if ((cacheEntry.isExpired(ttlMillis, now) || cacheEntry.isStale(idleMillis, now))
+                    && remove(entry.getKey(), cacheEntry)) {
                 evictionCount.increment();
                 removed++;
             }
@@ -215,73 +243,117 @@ public class ModernSearchCache implements AutoCloseable {
             LOGGER.fine("Maintenance: Removed " + removed + " expired/stale entries");
         }
         
-        // Size-based eviction if needed
-        if (cache.size() > maxSize) {
-            performSizeBasedEviction();
+        evictionLock.lock();
+        try {
+            readBuffer.drainTo(replayRead);
+        } finally {
+            evictionLock.unlock();
         }
     }
     
-    private void performSizeBasedEviction() {
-        int toRemove = cache.size() - maxSize;
-        if (toRemove <= 0) return;
-        
-        // Remove least recently accessed entries
-        List<Map.Entry<String, CacheEntry>> entries = new ArrayList<>(cache.entrySet());
-        entries.sort(Comparator.comparing(e -> e.getValue().lastAccessedAt));
-        
-        for (int i = 0; i < toRemove && i < entries.size(); i++) {
-            cache.remove(entries.get(i).getKey());
-            evictionCount.increment();
+    /**
+     * Removes a key from the cache and the policy together.
+     * 
+     * @param key the key
+     * @param expected the entry to remove, or null for whatever is cached
+     * @return true if an entry was removed
+     */
+    private boolean remove(String key, CacheEntry expected) {
+        evictionLock.lock();
+        try {
+            boolean removed = expected == null ? cache.remove(key) != null : cache.remove(key, expected);
+            if (removed) {
+                policy.remove(key);
+            }
+            return removed;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+    
+    /**
+     * Buffers a read for the policy, draining the buffers if the read filled one and
+     * no other thread is updating the policy.
+     */
+    private void recordAccess(String key) {
+        if (readBuffer.offer(key) && evictionLock.tryLock()) {
+            try {
+                readBuffer.drainTo(replayRead);
+            } finally {
+                evictionLock.unlock();
+            }
         }
-        
-        LOGGER.fine("Size-based eviction: Removed " + toRemove + " entries");
     }
     
     /**
      * Gets a value from the cache or loads it if not present.
      * 
+     * <p>Concurrent misses on the same key share one load: the first caller runs the
+     * loader and the others wait for its result, or its exception. With
+     * {@link #setRefreshAfter refresh-ahead} enabled, a hit on an entry older than the
+     * refresh age also starts a background reload and returns the cached value.</p>
+     * 
+     * <p>A hit neither writes to the cache map nor allocates: the read is buffered for
+     * the eviction policy and the cached list itself is returned.</p>
+     * 
      * @param key the cache key
      * @param loader function to load the value if not cached
-     * @return the cached or loaded value
+     * @return the cached or loaded value, unmodifiable and shared with other callers
      */
     public List<Material> get(String key, Function<String, List<Material>> loader) {
         Objects.requireNonNull(key, "Key cannot be null");
         Objects.requireNonNull(loader, "Loader cannot be null");
         ensureNotClosed();
         
+        long now = System.currentTimeMillis();
         CacheEntry entry = cache.get(key);
+        recordAccess(key);
         
-        if (entry != null && !entry.isExpired(ttl)) {
+        if (entry != null && !entry.isExpired(ttlMillis, now)) {
             // Cache hit
             hitCount.increment();
-            cache.put(key, entry.recordAccess());
-            return new ArrayList<>(entry.value);
+            entry.recordAccess(now);
+            if (needsRefresh(entry, now)) {
+                refreshAhead(key, () -> CompletableFuture.supplyAsync(() -> loader.apply(key), loadingExecutor));
+            }
+            return entry.value;
         }
         
         // Cache miss
         missCount.increment();
         
-        // Load synchronously
-        long startTime = System.currentTimeMillis();
-        List<Material> value = loader.apply(key);
-        long loadTime = System.currentTimeMillis() - startTime;
-        
-        loadCount.increment();
-        totalLoadTime.add(loadTime);
-        
-        if (value != null && !value.isEmpty()) {
-            put(key, value);
+        CompletableFuture<List<Material>> flight = new CompletableFuture<>();
+        CompletableFuture<List<Material>> existing = inFlight.putIfAbsent(key, flight);
+        List<Material> value;
+        if (existing != null) {
+            // Another caller is already loading this key
+            coalescedLoadCount.increment();
+            value = await(existing);
+        } else {
+            // Load synchronously
+            long startTime = System.currentTimeMillis();
+            try {
+                value = loader.apply(key);
+            } catch (RuntimeException | Error e) {
+                finishLoad(key, flight, startTime, null, e);
+                throw e;
+            }
+            value = finishLoad(key, flight, startTime, value, null);
         }
         
-        return value != null ? new ArrayList<>(value) : new ArrayList<>();
+        return value;
     }
     
     /**
      * Gets a value from the cache or loads it asynchronously.
      * 
+     * <p>Like {@link #get}, concurrent misses on the same key share one load and
+     * refresh-ahead reloads aging entries in the background. A hit allocates only the
+     * returned future.</p>
+     * 
      * @param key the cache key
      * @param asyncLoader async function to load the value
-     * @return CompletableFuture with the result
+     * @return CompletableFuture with the result, unmodifiable and shared with other callers
      */
     public CompletableFuture<List<Material>> getAsync(
             String key, 
@@ -291,32 +363,143 @@ public class ModernSearchCache implements AutoCloseable {
         Objects.requireNonNull(asyncLoader, "Async loader cannot be null");
         ensureNotClosed();
         
+        long now = System.currentTimeMillis();
         CacheEntry entry = cache.get(key);
+        recordAccess(key);
         
-        if (entry != null && !entry.isExpired(ttl)) {
+        if (entry != null && !entry.isExpired(ttlMillis, now)) {
             // Cache hit
             hitCount.increment();
-            cache.put(key, entry.recordAccess());
-            return CompletableFuture.completedFuture(new ArrayList<>(entry.value));
+            entry.recordAccess(now);
+            if (needsRefresh(entry, now)) {
+                refreshAhead(key, () -> asyncLoader.apply(key));
+            }
+            return CompletableFuture.completedFuture(entry.value);
         }
         
         // Cache miss - load asynchronously
         missCount.increment();
         
-        long startTime = System.currentTimeMillis();
+        CompletableFuture<List<Material>> flight = new CompletableFuture<>();
+        CompletableFuture<List<Material>> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedLoadCount.increment();
+            flight = existing;
+        } else {
+            startLoad(key, flight, () -> asyncLoader.apply(key));
+        }
         
-        return asyncLoader.apply(key)
-            .thenApply(value -> {
-                long loadTime = System.currentTimeMillis() - startTime;
+        // A copy, so callers cannot complete the future other callers share
+        return flight.copy();
+    }
+    
+    /**
+     * Sets the age after which a hit also reloads the entry in the background, so
+     * popular entries are replaced before they expire instead of all missing at once.
+     * 
+     * @param refreshAfter the refresh age, shorter than the time to live, or null to
+     *        disable refresh-ahead (the default)
+     * @throws IllegalArgumentException if refreshAfter is not shorter than the time to live
+     */
+    public void setRefreshAfter(Duration refreshAfter) {
+        if (refreshAfter != null && refreshAfter.compareTo(ttl) >= 0) {
+            throw new IllegalArgumentException("Refresh age must be shorter than the time to live: " + refreshAfter);
+        }
+        this.refreshAfter = refreshAfter;
+    }
+    
+    /**
+     * Gets the refresh-ahead age.
+     * 
+     * @return the refresh age, or null if refresh-ahead is disabled
+     */
+    public Duration getRefreshAfter() {
+        return refreshAfter;
+    }
+    
+    private boolean needsRefresh(CacheEntry entry, long now) {
+        Duration refresh = refreshAfter;
+        return refresh != null && entry.isExpired(refresh.toMillis(), now);
+    }
+    
+    /**
+     * Starts a background reload of an entry past the refresh age, unless a load of
+     * the key is already running.
+     */
+    private void refreshAhead(String key, Supplier<CompletableFuture<List<Material>>> reload) {
+        CompletableFuture<List<Material>> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, flight) == null) {
+            refreshCount.increment();
+            startLoad(key, flight, reload);
+        }
+    }
+    
+    /**
+     * Runs an asynchronous load for a flight this thread registered.
+     */
+    private void startLoad(String key, CompletableFuture<List<Material>> flight,
+                           Supplier<CompletableFuture<List<Material>>> load) {
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<List<Material>> loading;
+        try {
+            loading = load.get();
+        } catch (RuntimeException e) {
+            loading = CompletableFuture.failedFuture(e);
+        }
+        loading.whenComplete((value, error) -> finishLoad(key, flight, startTime, value, error));
+    }
+    
+    /**
+     * Records a finished load, caches a non-empty result and releases the callers
+     * waiting on the flight. The result is cached before the flight is removed, so a
+     * caller arriving in between hits the cache rather than loading again. It is only
+     * cached while the flight is still registered: an invalidation of the key during
+     * the load detaches the flight, and its result is then handed to the callers
+     * already waiting but not cached.
+     * 
+     * @return the unmodifiable result handed to the waiting callers
+     */
+    private List<Material> finishLoad(String key, CompletableFuture<List<Material>> flight, long startTime,
+                                      List<Material> value, Throwable error) {
+        List<Material> result = value == null || value.isEmpty()
+            ? List.of()
+            : Collections.unmodifiableList(new ArrayList<>(value));
+        try {
+            if (error == null) {
                 loadCount.increment();
-                totalLoadTime.add(loadTime);
-                
-                if (value != null && !value.isEmpty()) {
-                    put(key, value);
+                totalLoadTime.add(System.currentTimeMillis() - startTime);
+                if (!result.isEmpty() && !closed) {
+                    store(key, result, flight);
                 }
-                
-                return value != null ? new ArrayList<>(value) : new ArrayList<>();
-            });
+            } else {
+                LOGGER.fine("Load failed for " + key + ": " + error);
+            }
+        } finally {
+            inFlight.remove(key, flight);
+            if (error == null) {
+                flight.complete(result);
+            } else {
+                flight.completeExceptionally(error);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Waits for another caller's load, rethrowing the loader's exception unwrapped.
+     */
+    private static List<Material> await(CompletableFuture<List<Material>> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
     
     /**
@@ -330,54 +513,93 @@ public class ModernSearchCache implements AutoCloseable {
         Objects.requireNonNull(value, "Value cannot be null");
         ensureNotClosed();
         
-        // Check size limit
-        if (cache.size() >= maxSize && !cache.containsKey(key)) {
-            performSizeBasedEviction();
+        // A load that started earlier must not overwrite the value put here
+        inFlight.remove(key);
+        store(key, Collections.unmodifiableList(new ArrayList<>(value)), null);
+    }
+    
+    /**
+     * Caches an unmodifiable value and lets the policy evict to make room. Buffered
+     * reads are replayed first, so the policy judges the new key with its latest
+     * frequencies.
+     * 
+     * <p>A loaded value is only cached if its flight is still registered for the key.
+     * The check is made under the eviction lock, and invalidations detach flights
+     * before taking that lock to remove entries, so a stale load either sees its
+     * flight detached or is removed by the invalidation that detached it.</p>
+     * 
+     * @param flight the load that produced the value, or null for an explicit put
+     */
+    private void store(String key, List<Material> value, CompletableFuture<List<Material>> flight) {
+        CacheEntry entry = new CacheEntry(value, System.currentTimeMillis());
+        evictionLock.lock();
+        try {
+            if (flight != null && inFlight.get(key) != flight) {
+                return;
+            }
+            readBuffer.drainTo(replayRead);
+            cache.put(key, entry);
+            String evicted = policy.add(key);
+            if (evicted != null) {
+                cache.remove(evicted);
+                evictionCount.increment();
+            }
+        } finally {
+            evictionLock.unlock();
         }
-        
-        cache.put(key, CacheEntry.of(value));
     }
     
     /**
-     * Invalidates a cache entry.
+     * Invalidates a cache entry. A load of the key already running is detached: its
+     * callers still receive its result, but it is not cached, and later callers
+     * start a new load.
      * 
      * @param key the key to invalidate
      * @return true if an entry was removed
      */
     public boolean invalidate(String key) {
         ensureNotClosed();
-        CacheEntry removed = cache.remove(key);
-        if (removed != null) {
+        inFlight.remove(key);
+        boolean removed = remove(key, null);
+        if (removed) {
             evictionCount.increment();
         }
-        return removed != null;
+        return removed;
     }
     
     /**
-     * Invalidates all cache entries.
+     * Invalidates all cache entries and detaches the loads already running.
      */
     public void invalidateAll() {
         ensureNotClosed();
-        int size = cache.size();
-        cache.clear();
+        inFlight.clear();
+        int size;
+        evictionLock.lock();
+        try {
+            size = cache.size();
+            cache.clear();
+            policy.clear();
+        } finally {
+            evictionLock.unlock();
+        }
         evictionCount.add(size);
         LOGGER.info("Cache cleared: " + size + " entries invalidated");
     }
     
     /**
-     * Invalidates entries matching a predicate.
+     * Invalidates entries matching a predicate, and detaches running loads of
+     * matching keys.
      * 
      * @param predicate the predicate to test keys
      * @return number of entries invalidated
      */
     public int invalidateIf(java.util.function.Predicate<String> predicate) {
         ensureNotClosed();
+        inFlight.keySet().removeIf(predicate);
         int removed = 0;
         
-        Iterator<String> iterator = cache.keySet().iterator();
-        while (iterator.hasNext()) {
-            if (predicate.test(iterator.next())) {
-                iterator.remove();
+        for (String key : cache.keySet()) {
+            if (predicate.test(key) && remove(key, null)) {
                 evictionCount.increment();
                 removed++;
             }
@@ -450,7 +672,26 @@ public class ModernSearchCache implements AutoCloseable {
      */
     public boolean containsKey(String key) {
         CacheEntry entry = cache.get(key);
-        return entry != null && !entry.isExpired(ttl);
+        return entry != null && !entry.isExpired(ttlMillis, System.currentTimeMillis());
+    }
+    
+    /**
+     * Gets the number of misses that waited for a load already running instead of
+     * starting their own.
+     * 
+     * @return the number of coalesced loads
+     */
+    public long getCoalescedLoadCount() {
+        return coalescedLoadCount.sum();
+    }
+    
+    /**
+     * Gets the number of background reloads started by refresh-ahead.
+     * 
+     * @return the number of refreshes
+     */
+    public long getRefreshCount() {
+        return refreshCount.sum();
     }
     
     /**
@@ -488,6 +729,8 @@ public class ModernSearchCache implements AutoCloseable {
         evictionCount.reset();
         loadCount.reset();
         totalLoadTime.reset();
+        coalescedLoadCount.reset();
+        refreshCount.reset();
         LOGGER.info("Cache statistics reset");
     }
     
@@ -506,7 +749,13 @@ public class ModernSearchCache implements AutoCloseable {
             LOGGER.info("Closing cache. Final stats: " + getStats().getSummary());
             
             // Clear cache
-            cache.clear();
+            evictionLock.lock();
+            try {
+                cache.clear();
+                policy.clear();
+            } finally {
+                evictionLock.unlock();
+            }
             
             // Shutdown executors
             loadingExecutor.shutdown();
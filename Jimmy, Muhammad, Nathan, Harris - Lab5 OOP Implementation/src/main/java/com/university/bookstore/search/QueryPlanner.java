@@ -0,0 +1,264 @@
+package com.university.bookstore.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.university.bookstore.api.ModernMaterialStore.SearchCriteria;
+import com.university.bookstore.model.Material;
+
+/**
+ * Cost-based planner for multi-criteria searches over a {@link MaterialIndex}.
+ * 
+ * <p>Every criterion of a {@link SearchCriteria} is combined with AND. The planner estimates
+ * how many rows each available index would return, drives the query from the cheapest one
+ * and evaluates the remaining criteria as residual filters on those candidates only.
+ * When no indexed criterion is present it falls back to a full scan.</p>
+ * 
+ * <p>Title and creator terms are case-insensitive substring matches, like
+ * {@code searchByTitle} and {@code searchByCreator}; prices and years are inclusive
+ * and either end of a range may be left open.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+public class QueryPlanner {
+    
+    /**
+     * Where the candidate rows of a query come from.
+     */
+    public enum AccessPath {
+        FULL_SCAN,
+        TYPE_INDEX,
+        YEAR_INDEX,
+        PRICE_INDEX
+    }
+    
+    /**
+     * Filters applied to candidate rows, declared cheapest first so that
+     * string matching only runs on rows that survived the numeric checks.
+     */
+    public enum Filter {
+        TYPE,
+        YEAR_RANGE,
+        PRICE_RANGE,
+        CREATOR_CONTAINS,
+        TITLE_CONTAINS
+    }
+    
+    /**
+     * Execution plan for a single query.
+     * 
+     * @param accessPath the access path that produces the candidate rows
+     * @param estimatedRows estimated number of candidate rows
+     * @param totalRows number of rows in the store when the plan was made
+     * @param residualFilters filters applied to each candidate, in evaluation order
+     */
+    public record QueryPlan(
+        AccessPath accessPath,
+        int estimatedRows,
+        int totalRows,
+        List<Filter> residualFilters
+    ) {
+        /**
+         * Compact constructor making the filter list immutable.
+         */
+        public QueryPlan {
+            Objects.requireNonNull(accessPath, "Access path cannot be null");
+            residualFilters = List.copyOf(residualFilters);
+        }
+        
+        /**
+         * Describes the plan for logging and diagnostics.
+         * 
+         * @return human readable plan
+         */
+        public String explain() {
+            return String.format("%s (estimated %d of %d rows) -> filter %s",
+                accessPath, estimatedRows, totalRows, residualFilters);
+        }
+    }
+    
+    private final MaterialIndex index;
+    private final Supplier<? extends Collection<Material>> fullScan;
+    
+    /**
+     * Creates a planner over an index and its owning store.
+     * 
+     * @param index the secondary indexes of the store
+     * @param fullScan supplies every material of the store for unindexed queries
+     */
+    public QueryPlanner(MaterialIndex index, Supplier<? extends Collection<Material>> fullScan) {
+        this.index = Objects.requireNonNull(index, "Index cannot be null");
+        this.fullScan = Objects.requireNonNull(fullScan, "Full scan cannot be null");
+    }
+    
+    /**
+     * Chooses the cheapest access path for the criteria.
+     * 
+     * @param criteria the search criteria
+     * @return the execution plan
+     */
+    public QueryPlan plan(SearchCriteria criteria) {
+        return plan(new Query(criteria));
+    }
+    
+    /**
+     * Plans and runs a query.
+     * 
+     * @param criteria the search criteria
+     * @return materials matching every criterion, in access path order
+     */
+    public List<Material> execute(SearchCriteria criteria) {
+        Query query = new Query(criteria);
+        QueryPlan plan = plan(query);
+        
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Collection<Material> candidates = switch (plan.accessPath()) {
+            case TYPE_INDEX -> index.findByType(query.type);
+            case YEAR_INDEX -> index.findByYearRange(query.yearFrom, query.yearTo);
+            case PRICE_INDEX -> index.findByPriceRange(query.minPrice, query.maxPrice);
+            case FULL_SCAN -> fullScan.get();
+        };
+        
+        Predicate<Material> residual = query.residual(plan.residualFilters());
+        List<Material> result = new ArrayList<>();
+        for (Material material : candidates) {
+            if (residual.test(material)) {
+                result.add(material);
+            }
+        }
+        return result;
+    }
+    
+    private QueryPlan plan(Query query) {
+        int totalRows = index.size();
+        Set<Filter> filters = query.filters();
+        
+        AccessPath best = AccessPath.FULL_SCAN;
+        int bestRows = totalRows;
+        
+        if (filters.contains(Filter.TYPE)) {
+            int rows = index.countByType(query.type);
+            if (rows < bestRows) {
+                best = AccessPath.TYPE_INDEX;
+                bestRows = rows;
+            }
+        }
+        if (filters.contains(Filter.YEAR_RANGE)) {
+            int rows = index.countByYearRange(query.yearFrom, query.yearTo);
+            if (rows < bestRows) {
+                best = AccessPath.YEAR_INDEX;
+                bestRows = rows;
+            }
+        }
+        if (filters.contains(Filter.PRICE_RANGE)) {
+            int rows = index.estimateByPriceRange(query.minPrice, query.maxPrice);
+            if (rows < bestRows) {
+                best = AccessPath.PRICE_INDEX;
+                bestRows = rows;
+            }
+        }
+        
+        // The driving index already guarantees its own criterion
+        switch (best) {
+            case TYPE_INDEX -> filters.remove(Filter.TYPE);
+            case YEAR_INDEX -> filters.remove(Filter.YEAR_RANGE);
+            case PRICE_INDEX -> filters.remove(Filter.PRICE_RANGE);
+            case FULL_SCAN -> { }
+        }
+        
+        return new QueryPlan(best, bestRows, totalRows, new ArrayList<>(filters));
+    }
+    
+    /**
+     * Search criteria unpacked into primitive bounds, with open range ends widened
+     * and blank search terms dropped.
+     */
+    private static final class Query {
+        private final Material.MaterialType type;
+        private final String title;
+        private final String creator;
+        private final boolean hasPrice;
+        private final double minPrice;
+        private final double maxPrice;
+        private final boolean hasYear;
+        private final int yearFrom;
+        private final int yearTo;
+        
+        Query(SearchCriteria criteria) {
+            Objects.requireNonNull(criteria, "Search criteria cannot be null");
+            this.type = criteria.type().orElse(null);
+            this.title = normalize(criteria.title());
+            this.creator = normalize(criteria.creator());
+            this.hasPrice = criteria.minPrice().isPresent() || criteria.maxPrice().isPresent();
+            this.minPrice = criteria.minPrice().orElse(Double.NEGATIVE_INFINITY);
+            this.maxPrice = criteria.maxPrice().orElse(Double.POSITIVE_INFINITY);
+            this.hasYear = criteria.yearFrom().isPresent() || criteria.yearTo().isPresent();
+            this.yearFrom = criteria.yearFrom().orElse(Integer.MIN_VALUE);
+            this.yearTo = criteria.yearTo().orElse(Integer.MAX_VALUE);
+        }
+        
+        private static String normalize(Optional<String> term) {
+            return term.map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(SearchText::normalize)
+                .orElse(null);
+        }
+        
+        /**
+         * Checks for a range that cannot match anything.
+         */
+        boolean isEmpty() {
+            return (hasPrice && minPrice > maxPrice) || (hasYear && yearFrom > yearTo);
+        }
+        
+        Set<Filter> filters() {
+            Set<Filter> filters = EnumSet.noneOf(Filter.class);
+            if (type != null) {
+                filters.add(Filter.TYPE);
+            }
+            if (hasYear) {
+                filters.add(Filter.YEAR_RANGE);
+            }
+            if (hasPrice) {
+                filters.add(Filter.PRICE_RANGE);
+            }
+            if (creator != null) {
+                filters.add(Filter.CREATOR_CONTAINS);
+            }
+            if (title != null) {
+                filters.add(Filter.TITLE_CONTAINS);
+            }
+            return filters;
+        }
+        
+        Predicate<Material> residual(List<Filter> filters) {
+            Predicate<Material> combined = material -> true;
+            for (Filter filter : filters) {
+                combined = combined.and(predicate(filter));
+            }
+            return combined;
+        }
+        
+        private Predicate<Material> predicate(Filter filter) {
+            return switch (filter) {
+                case TYPE -> m -> m.getType() == type;
+                case YEAR_RANGE -> m -> m.getYear() >= yearFrom && m.getYear() <= yearTo;
+                case PRICE_RANGE -> m -> m.getPrice() >= minPrice && m.getPrice() <= maxPrice;
+                case CREATOR_CONTAINS -> m -> SearchText.containsIgnoreCase(m.getCreator(), creator);
+                case TITLE_CONTAINS -> m -> SearchText.containsIgnoreCase(m.getTitle(), title);
+            };
+        }
+    }
+}
\ No newline at end of file
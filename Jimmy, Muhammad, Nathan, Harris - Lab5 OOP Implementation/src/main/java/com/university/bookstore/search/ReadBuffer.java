@@ -0,0 +1,103 @@
+package com.university.bookstore.search;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Striped, lossy buffer of cache reads waiting to be replayed into an eviction policy.
+ * 
+ * <p>Updating a policy on every hit would make every reader take the policy's lock.
+ * Readers instead append the key to one of several small ring buffers, chosen by
+ * thread, with a single compare-and-set and no allocation; the owner drains them into
+ * the policy under its lock, on writes or when a buffer fills up. When a buffer is
+ * full or the append loses a race, the read is dropped: the policy only needs a
+ * representative sample of reads, and dropping keeps readers from ever waiting.</p>
+ * 
+ * @param <E> the element type
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+final class ReadBuffer<E> {
+    
+    static final int STRIPE_CAPACITY = 16;
+    private static final int STRIPE_MASK = STRIPE_CAPACITY - 1;
+    private static final int MAX_STRIPES = 64;
+    
+    /**
+     * One ring: producers claim slots by advancing the tail, the drainer advances the
+     * head, and a null slot below the tail is claimed but not yet written.
+     */
+    private static final class Stripe<E> {
+        final AtomicReferenceArray<E> slots = new AtomicReferenceArray<>(STRIPE_CAPACITY);
+        final AtomicLong tail = new AtomicLong();
+        volatile long head;
+    }
+    
+    private final Stripe<E>[] stripes;
+    private final int stripeMask;
+    
+    /**
+     * Creates a buffer with a few stripes per available processor.
+     */
+    @SuppressWarnings("unchecked")
+    ReadBuffer() {
+        int wanted = Math.min(MAX_STRIPES, 4 * Runtime.getRuntime().availableProcessors());
+        int count = Integer.highestOneBit(Math.max(1, wanted - 1)) << 1;
+        this.stripes = (Stripe<E>[]) new Stripe<?>[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        this.stripeMask = count - 1;
+    }
+    
+    /**
+     * Records a read, or drops it if the calling thread's stripe is full or contended.
+     * 
+     * @param element the element read
+     * @return true if the stripe is now full and should be drained
+     */
+    boolean offer(E element) {
+        Stripe<E> stripe = stripes[probe() & stripeMask];
+        long tail = stripe.tail.get();
+        long size = tail - stripe.head;
+        if (size >= STRIPE_CAPACITY) {
+            return true;
+        }
+        if (stripe.tail.compareAndSet(tail, tail + 1)) {
+            stripe.slots.lazySet((int) tail & STRIPE_MASK, element);
+            return size + 1 >= STRIPE_CAPACITY;
+        }
+        return false;
+    }
+    
+    /**
+     * Hands every buffered read to a consumer. Callers must serialize draining.
+     * 
+     * @param consumer receives the reads
+     */
+    void drainTo(Consumer<E> consumer) {
+        for (Stripe<E> stripe : stripes) {
+            long head = stripe.head;
+            long tail = stripe.tail.get();
+            while (head < tail) {
+                int index = (int) head & STRIPE_MASK;
+                E element = stripe.slots.get(index);
+                if (element == null) {
+                    // Claimed but not yet written; picked up by the next drain
+                    break;
+                }
+                stripe.slots.lazySet(index, null);
+                consumer.accept(element);
+                head++;
+            }
+            stripe.head = head;
+        }
+    }
+    
+    private static int probe() {
+        int hash = System.identityHashCode(Thread.currentThread());
+        return hash ^ (hash >>> 16);
+    }
+}
\ No newline at end of file
@@ -1,31 +1,50 @@
 package com.university.bookstore.search;
 
 import java.util.ArrayList;
-import java.util.Deque;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.university.bookstore.model.Material;
 
 /**
- * LRU (Least Recently Used) cache for search results.
- * Evicts least recently used items when the cache reaches its maximum size.
+ * Thread-safe LRU (Least Recently Used) cache for search results.
+ * Evicts a least recently used item when the cache reaches its maximum size.
  * 
- * <p>This implementation provides O(1) average time complexity for get and put operations
- * by using a HashMap for O(1) lookups and a Deque for O(1) access order tracking.</p>
+ * <p>Recency is tracked with the CLOCK approximation of LRU: every entry occupies a
+ * slot in a ring and carries a referenced bit. A hit only looks the entry up in a
+ * {@link ConcurrentHashMap} and sets the bit if it is clear, so hits take no lock and,
+ * once an entry is hot, write nothing. A put that needs room sweeps the clock hand
+ * over the ring under the cache's monitor, giving a second chance to referenced
+ * entries and evicting the first unreferenced one, which is O(1) amortized. Removed
+ * entries free their slot for reuse.</p>
+ * 
+ * <p>Cached result lists are unmodifiable and shared by every caller, so a hit does
+ * not copy them.</p>
  * 
  * @author Navid Mohaghegh
- * @version 3.0
+ * @version 4.0
  * @since 2024-09-15
  */
 public class SearchResultCache {
     
+    private static final int INITIAL_SLOTS = 16;
+    
     private final int maxSize;
-    private final Map<String, CacheEntry> cache;
-    private final Deque<String> accessOrder;
+    private final ConcurrentHashMap<String, CacheEntry> cache;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    
+    // Guarded by this: the clock ring, its free slots and the hand
+    private CacheEntry[] ring;
+    private int[] freeSlots;
+    private int freeCount;
+    private int allocated;
+    private int hand;
+    private long timestampSum;
     
     /**
      * Creates a new search result cache with the specified maximum size.
@@ -39,16 +58,19 @@ public class SearchResultCache {
         }
         
         this.maxSize = maxSize;
-        this.cache = new HashMap<>();
-        this.accessOrder = new LinkedList<>();
+        this.cache = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.ring = new CacheEntry[Math.min(maxSize, INITIAL_SLOTS)];
+        this.freeSlots = new int[ring.length];
     }
     
     /**
      * Retrieves cached search results for the given key.
-     * Updates the access order to mark this entry as recently used.
+     * Marks the entry as recently used.
      * 
      * @param key the cache key
-     * @return Optional containing the cached results if found
+     * @return Optional containing the unmodifiable cached results if found
      */
     public Optional<List<Material>> get(String key) {
         if (key == null) {
@@ -56,25 +78,68 @@ public class SearchResultCache {
         }
         
         CacheEntry entry = cache.get(key);
-        if (entry != null) {
-            // Move to end (most recently used)
-            accessOrder.remove(key);
-            accessOrder.addLast(key);
-            return Optional.of(new ArrayList<>(entry.results));
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        return hit(entry);
+    }
+    
+    /**
+     * Retrieves cached search results only if they were stored under the given version.
+     * Results stored under any other version are superseded and count as a miss; storing
+     * the recomputed results under the same key replaces them.
+     * 
+     * @param key the cache key
+     * @param version the version the results must have been computed at
+     * @return Optional containing the unmodifiable cached results if found and current
+     */
+    public Optional<List<Material>> get(String key, long version) {
+        if (key == null) {
+            return Optional.empty();
         }
         
-        return Optional.empty();
+        CacheEntry entry = cache.get(key);
+        if (entry == null || entry.version != version) {
+            misses.increment();
+            return Optional.empty();
+        }
+        return hit(entry);
+    }
+    
+    private Optional<List<Material>> hit(CacheEntry entry) {
+        // Skip the write when already set, so hot entries stay read-only
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        hits.increment();
+        return Optional.of(entry.results);
     }
     
     /**
      * Stores search results in the cache with the given key.
-     * Evicts the least recently used entry if the cache is full.
+     * Evicts a least recently used entry if the cache is full.
+     * 
+     * @param key the cache key
+     * @param results the search results to cache
+     * @return the unmodifiable copy of the results now cached
+     * @throws IllegalArgumentException if key or results is null
+     */
+    public List<Material> put(String key, List<Material> results) {
+        return put(key, 0L, results);
+    }
+    
+    /**
+     * Stores search results computed at a version, replacing whatever the key held.
      * 
      * @param key the cache key
+     * @param version the version the results were computed at
      * @param results the search results to cache
-     * @throws IllegalArgumentException if key is null
+     * @return the unmodifiable copy of the results now cached
+     * @throws IllegalArgumentException if key or results is null
+     * @see #get(String, long)
      */
-    public void put(String key, List<Material> results) {
+    public List<Material> put(String key, long version, List<Material> results) {
         if (key == null) {
             throw new IllegalArgumentException("Cache key cannot be null");
         }
@@ -83,17 +148,22 @@ public class SearchResultCache {
             throw new IllegalArgumentException("Search results cannot be null");
         }
         
-        // If cache is full, remove least recently used entry
-        if (cache.size() >= maxSize && !cache.containsKey(key)) {
-            evictLRU();
+        List<Material> shared = Collections.unmodifiableList(new ArrayList<>(results));
+        synchronized (this) {
+            CacheEntry existing = cache.get(key);
+            int slot = existing != null ? existing.slot : claimSlot();
+            if (existing != null) {
+                timestampSum -= existing.timestamp;
+            }
+            
+            CacheEntry entry = new CacheEntry(key, shared, version, slot);
+            // Replacing results counts as a use; new entries must earn their bit
+            entry.referenced = existing != null;
+            ring[slot] = entry;
+            timestampSum += entry.timestamp;
+            cache.put(key, entry);
         }
-        
-        // Store the new entry
-        cache.put(key, new CacheEntry(results));
-        
-        // Update access order
-        accessOrder.remove(key); // Remove if already exists
-        accessOrder.addLast(key);
+        return shared;
     }
     
     /**
@@ -117,17 +187,27 @@ public class SearchResultCache {
             return false;
         }
         
-        CacheEntry removed = cache.remove(key);
-        accessOrder.remove(key);
-        return removed != null;
+        synchronized (this) {
+            CacheEntry removed = cache.remove(key);
+            if (removed == null) {
+                return false;
+            }
+            release(removed);
+            freeSlots[freeCount++] = removed.slot;
+            return true;
+        }
     }
     
     /**
      * Clears all entries from the cache.
      */
-    public void clear() {
+    public synchronized void clear() {
         cache.clear();
-        accessOrder.clear();
+        Arrays.fill(ring, null);
+        freeCount = 0;
+        allocated = 0;
+        hand = 0;
+        timestampSum = 0;
     }
     
     /**
@@ -172,22 +252,19 @@ public class SearchResultCache {
      * @return cache statistics
      */
     public CacheStats getStats() {
-        long totalRequests = 0;
-        long totalHits = 0;
-        long totalAge = 0;
-        long currentTime = System.currentTimeMillis();
+        long totalHits = hits.sum();
+        long totalRequests = totalHits + misses.sum();
+        double hitRatio = totalRequests > 0 ? (double) totalHits / totalRequests : 0.0;
         
-        for (CacheEntry entry : cache.values()) {
-            totalRequests += entry.accessCount;
-            totalHits += entry.hitCount;
-            totalAge += (currentTime - entry.timestamp);
+        int size;
+        double averageAge;
+        synchronized (this) {
+            size = cache.size();
+            averageAge = size > 0 ? System.currentTimeMillis() - (double) timestampSum / size : 0.0;
         }
         
-        double hitRatio = totalRequests > 0 ? (double) totalHits / totalRequests : 0.0;
-        double averageAge = cache.size() > 0 ? (double) totalAge / cache.size() : 0.0;
-        
         return new CacheStats(
-            cache.size(),
+            size,
             maxSize,
             hitRatio,
             averageAge,
@@ -197,29 +274,65 @@ public class SearchResultCache {
     }
     
     /**
-     * Evicts the least recently used entry from the cache.
+     * Finds a slot for a new entry: a freed one, a new one while the ring is below
+     * the maximum size, or the slot of the entry evicted by the clock hand.
+     */
+    private int claimSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (allocated < maxSize) {
+            if (allocated == ring.length) {
+                int capacity = (int) Math.min(maxSize, 2L * ring.length);
+                ring = Arrays.copyOf(ring, capacity);
+                freeSlots = Arrays.copyOf(freeSlots, capacity);
+            }
+            return allocated++;
+        }
+        return evict();
+    }
+    
+    /**
+     * Advances the clock hand, clearing referenced bits, until it reaches an entry
+     * not used since the hand last passed, and evicts that entry.
      */
-    private void evictLRU() {
-        if (!accessOrder.isEmpty()) {
-            String lruKey = accessOrder.removeFirst();
-            cache.remove(lruKey);
+    private int evict() {
+        while (true) {
+            int slot = hand;
+            CacheEntry entry = ring[slot];
+            hand = (hand + 1) % allocated;
+            if (entry.referenced) {
+                entry.referenced = false;
+            } else {
+                cache.remove(entry.key, entry);
+                release(entry);
+                return slot;
+            }
         }
     }
     
+    private void release(CacheEntry entry) {
+        ring[entry.slot] = null;
+        timestampSum -= entry.timestamp;
+    }
+    
     /**
-     * Internal class representing a cache entry.
+     * Internal class representing a cache entry and its clock slot.
      */
-    private static class CacheEntry {
+    private static final class CacheEntry {
+        final String key;
         final List<Material> results;
+        final long version;
+        final int slot;
         final long timestamp;
-        long accessCount;
-        long hitCount;
+        volatile boolean referenced;
         
-        CacheEntry(List<Material> results) {
-            this.results = new ArrayList<>(results);
+        CacheEntry(String key, List<Material> results, long version, int slot) {
+            this.key = key;
+            this.results = results;
+            this.version = version;
+            this.slot = slot;
             this.timestamp = System.currentTimeMillis();
-            this.accessCount = 0;
-            this.hitCount = 0;
         }
     }
     
@@ -0,0 +1,48 @@
+package com.university.bookstore.search;
+
+/**
+ * Text normalization and matching shared by the title and creator searches.
+ * 
+ * <p>Searches compare lowercased text. Stores that can afford it normalize titles and
+ * creators once on ingest with {@link #normalize(String)} and match with plain
+ * {@code contains}; code that only has the raw text uses
+ * {@link #containsIgnoreCase(String, String)}, which matches in place instead of
+ * allocating a lowercased copy of every candidate.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+public final class SearchText {
+    
+    private SearchText() {
+    }
+    
+    /**
+     * Normalizes text for substring matching.
+     * 
+     * @param text the text to normalize
+     * @return the lowercased text
+     */
+    public static String normalize(String text) {
+        return text.toLowerCase();
+    }
+    
+    /**
+     * Checks whether text contains a term, ignoring case, without allocating.
+     * 
+     * @param text the text to search
+     * @param normalizedTerm the term, already passed through {@link #normalize(String)}
+     * @return true if the term occurs in the text
+     */
+    public static boolean containsIgnoreCase(String text, String normalizedTerm) {
+        int length = normalizedTerm.length();
+        int last = text.length() - length;
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, normalizedTerm, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.university.bookstore.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Selects the first k elements of a collection in a given order without sorting the
+ * whole collection.
+ * 
+ * <p>A max-heap bounded at k elements holds the best candidates seen so far; each
+ * further element is compared against the worst of them and only replaces it if it
+ * sorts earlier. Cost is O(n log k) time and O(k) space, against O(n log n) time and
+ * O(n) space for sorting and truncating.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+public final class TopK {
+    
+    private TopK() {
+    }
+    
+    /**
+     * Selects the first k elements in comparator order.
+     * 
+     * @param items the elements to choose from
+     * @param k the number of elements to keep
+     * @param order the order to select by
+     * @param <T> the element type
+     * @return at most k elements, sorted by the comparator; ties are broken arbitrarily
+     * @throws IllegalArgumentException if k is negative
+     */
+    public static <T> List<T> select(Iterable<? extends T> items, int k, Comparator<? super T> order) {
+        checkLimit(k);
+        Objects.requireNonNull(order, "Comparator cannot be null");
+        if (k == 0) {
+            return new ArrayList<>();
+        }
+        
+        // Head of the heap is the worst element kept so far
+        PriorityQueue<T> heap = new PriorityQueue<>(Math.min(k, 1024) + 1, (a, b) -> order.compare(b, a));
+        for (T item : items) {
+            if (heap.size() < k) {
+                heap.add(item);
+            } else if (order.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        T[] selected = (T[]) heap.toArray();
+        Arrays.sort(selected, order);
+        return new ArrayList<>(Arrays.asList(selected));
+    }
+    
+    /**
+     * Validates a result limit.
+     * 
+     * @param k the number of elements requested
+     * @throws IllegalArgumentException if k is negative
+     */
+    public static void checkLimit(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative: " + k);
+        }
+    }
+}
\ No newline at end of file
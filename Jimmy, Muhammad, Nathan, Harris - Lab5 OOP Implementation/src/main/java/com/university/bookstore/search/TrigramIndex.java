@@ -0,0 +1,396 @@
+package com.university.bookstore.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.university.bookstore.model.Material;
+
+/**
+ * Trigram inverted index answering substring queries over material titles and creators.
+ * 
+ * <p>{@link MaterialTrie} only serves prefixes, so a {@code contains} search would
+ * otherwise scan every material. Here each material gets a compact int document ID and
+ * every distinct three-character window of its normalized title and creator maps to a
+ * sorted posting list of those IDs. A query for a term of three or more characters
+ * intersects the posting lists of the term's trigrams, starting from the shortest, and
+ * verifies the surviving candidates with {@code contains}; cost is bounded by the
+ * rarest trigram rather than by the collection size. Terms shorter than three characters
+ * have no trigram and fall back to scanning the normalized keys.</p>
+ * 
+ * <p>Document IDs are handed out in insertion order and never reused, so posting lists,
+ * and with them every search result, are in insertion order. Removals leave holes that
+ * are compacted away, renumbering the survivors in order, once they outnumber the live
+ * documents. Reads share a read lock and writes take the write lock. The owning store
+ * is responsible for adding and removing a given material at most once, in step with
+ * its primary storage.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+public class TrigramIndex {
+    
+    private static final int GRAM = 3;
+    
+    private final Map<String, Integer> docIds;
+    private final Postings titlePostings;
+    private final Postings creatorPostings;
+    private final ReadWriteLock lock;
+    private final Lock readLock;
+    private final Lock writeLock;
+    private Material[] docs;
+    private String[] titles;
+    private String[] creators;
+    private int nextId;
+    
+    /**
+     * Creates an empty trigram index.
+     */
+    public TrigramIndex() {
+        this.docIds = new HashMap<>();
+        this.titlePostings = new Postings();
+        this.creatorPostings = new Postings();
+        this.lock = new ReentrantReadWriteLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+        this.docs = new Material[16];
+        this.titles = new String[16];
+        this.creators = new String[16];
+    }
+    
+    /**
+     * Indexes a material's title and creator.
+     * 
+     * @param material the material to index
+     */
+    public void add(Material material) {
+        Objects.requireNonNull(material, "Material cannot be null");
+        String title = SearchText.normalize(material.getTitle());
+        String creator = SearchText.normalize(material.getCreator());
+        
+        writeLock.lock();
+        try {
+            if (docIds.containsKey(material.getId())) {
+                return;
+            }
+            int doc = allocateId();
+            docIds.put(material.getId(), doc);
+            docs[doc] = material;
+            titles[doc] = title;
+            creators[doc] = creator;
+            titlePostings.add(title, doc);
+            creatorPostings.add(creator, doc);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Removes a material from the index.
+     * 
+     * @param material the material to remove
+     */
+    public void remove(Material material) {
+        Objects.requireNonNull(material, "Material cannot be null");
+        
+        writeLock.lock();
+        try {
+            Integer doc = docIds.remove(material.getId());
+            if (doc == null) {
+                return;
+            }
+            titlePostings.remove(titles[doc], doc);
+            creatorPostings.remove(creators[doc], doc);
+            docs[doc] = null;
+            titles[doc] = null;
+            creators[doc] = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Removes every material from the index.
+     */
+    public void clear() {
+        writeLock.lock();
+        try {
+            docIds.clear();
+            titlePostings.clear();
+            creatorPostings.clear();
+            Arrays.fill(docs, 0, nextId, null);
+            Arrays.fill(titles, 0, nextId, null);
+            Arrays.fill(creators, 0, nextId, null);
+            nextId = 0;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Gets the number of indexed materials.
+     * 
+     * @return the material count
+     */
+    public int size() {
+        readLock.lock();
+        try {
+            return docIds.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+    
+    /**
+     * Finds materials whose title contains a term, ignoring case.
+     * 
+     * @param term the substring to find
+     * @return matching materials in insertion order, empty for an empty term
+     */
+    public List<Material> searchTitle(String term) {
+        return search(term, true, matches -> matches.collect(Collectors.toList()));
+    }
+    
+    /**
+     * Gets one page of a title search by offset and limit, without building the
+     * matches outside the page.
+     * 
+     * @param term the substring to find
+     * @param offset the number of matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the matches on the page, in insertion order
+     * @throws IllegalArgumentException if the offset or limit is negative
+     */
+    public List<Material> searchTitle(String term, int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative: " + offset);
+        }
+        TopK.checkLimit(limit);
+        return search(term, true, matches -> matches.skip(offset).limit(limit).collect(Collectors.toList()));
+    }
+    
+    /**
+     * Selects the first k title matches accepted by a filter, in a given order, with a
+     * heap bounded by k rather than a list of every match.
+     * 
+     * @param term the substring to find
+     * @param filter the condition a match must also meet
+     * @param k the number of matches to keep
+     * @param order the order to select by
+     * @return at most k matches, sorted by the comparator
+     * @throws IllegalArgumentException if k is negative
+     */
+    public List<Material> selectTitle(String term, Predicate<? super Material> filter, int k,
+                                      Comparator<? super Material> order) {
+        Objects.requireNonNull(filter, "Filter cannot be null");
+        return search(term, true, matches -> TopK.select(matches.filter(filter)::iterator, k, order));
+    }
+    
+    /**
+     * Finds materials whose creator contains a term, ignoring case.
+     * 
+     * @param term the substring to find
+     * @return matching materials in insertion order, empty for an empty term
+     */
+    public List<Material> searchCreator(String term) {
+        return search(term, false, matches -> matches.collect(Collectors.toList()));
+    }
+    
+    /**
+     * Runs a query over the matches of a term, consuming them under the read lock.
+     */
+    private <R> R search(String term, boolean byTitle, Function<Stream<Material>, R> query) {
+        if (term == null || term.isEmpty()) {
+            return query.apply(Stream.empty());
+        }
+        String needle = SearchText.normalize(term);
+        
+        readLock.lock();
+        try {
+            String[] keys = byTitle ? titles : creators;
+            IntStream candidates;
+            if (needle.length() < GRAM) {
+                candidates = IntStream.range(0, nextId).filter(doc -> keys[doc] != null);
+            } else {
+                PostingList[] lists = (byTitle ? titlePostings : creatorPostings).listsFor(needle);
+                if (lists == null) {
+                    return query.apply(Stream.empty());
+                }
+                candidates = IntStream.of(intersect(lists));
+            }
+            return query.apply(candidates
+                .filter(doc -> keys[doc].contains(needle))
+                .mapToObj(doc -> docs[doc]));
+        } finally {
+            readLock.unlock();
+        }
+    }
+    
+    private int allocateId() {
+        if (nextId == docs.length) {
+            if (docIds.size() < nextId / 2) {
+                compact();
+            } else {
+                int capacity = docs.length * 2;
+                docs = Arrays.copyOf(docs, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                creators = Arrays.copyOf(creators, capacity);
+            }
+        }
+        return nextId++;
+    }
+    
+    /**
+     * Renumbers the live documents densely, keeping their order, and rebuilds the
+     * posting lists. Called with the write lock held.
+     */
+    private void compact() {
+        titlePostings.clear();
+        creatorPostings.clear();
+        int live = 0;
+        for (int doc = 0; doc < nextId; doc++) {
+            if (docs[doc] == null) {
+                continue;
+            }
+            docs[live] = docs[doc];
+            titles[live] = titles[doc];
+            creators[live] = creators[doc];
+            docIds.put(docs[live].getId(), live);
+            titlePostings.add(titles[live], live);
+            creatorPostings.add(creators[live], live);
+            live++;
+        }
+        Arrays.fill(docs, live, nextId, null);
+        Arrays.fill(titles, live, nextId, null);
+        Arrays.fill(creators, live, nextId, null);
+        nextId = live;
+    }
+    
+    /**
+     * Intersects sorted posting lists, shortest first. Each surviving candidate is
+     * located in the next list by binary search from the previous match position.
+     * 
+     * @return the common IDs in ascending order
+     */
+    private static int[] intersect(PostingList[] lists) {
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        
+        int[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int count = candidates.length;
+        for (int k = 1; k < lists.length && count > 0; k++) {
+            PostingList list = lists[k];
+            if (list == lists[k - 1]) {
+                // Repeated trigram in the term
+                continue;
+            }
+            int from = 0;
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                int position = Arrays.binarySearch(list.ids, from, list.size, candidates[i]);
+                if (position >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+            count = kept;
+        }
+        return count == candidates.length ? candidates : Arrays.copyOf(candidates, count);
+    }
+    
+    /**
+     * Packs three characters into one key.
+     */
+    private static long gram(String text, int at) {
+        return ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+    
+    /**
+     * Posting lists for one text field, keyed by packed trigram.
+     */
+    private static final class Postings {
+        private final Map<Long, PostingList> lists = new HashMap<>();
+        
+        void add(String text, int doc) {
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                lists.computeIfAbsent(gram(text, i), key -> new PostingList()).add(doc);
+            }
+        }
+        
+        void remove(String text, int doc) {
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                long key = gram(text, i);
+                PostingList list = lists.get(key);
+                if (list != null && list.remove(doc) && list.size == 0) {
+                    lists.remove(key);
+                }
+            }
+        }
+        
+        void clear() {
+            lists.clear();
+        }
+        
+        /**
+         * Gets the posting list of every trigram in a term.
+         * 
+         * @return the lists, or null if some trigram occurs in no document
+         */
+        PostingList[] listsFor(String term) {
+            PostingList[] result = new PostingList[term.length() - GRAM + 1];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = lists.get(gram(term, i));
+                if (result[i] == null) {
+                    return null;
+                }
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Sorted, duplicate-free growable array of document IDs.
+     */
+    private static final class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+        
+        void add(int doc) {
+            int position = Arrays.binarySearch(ids, 0, size, doc);
+            if (position >= 0) {
+                // Trigram repeats within the same text
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = doc;
+            size++;
+        }
+        
+        boolean remove(int doc) {
+            int position = Arrays.binarySearch(ids, 0, size, doc);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
\ No newline at end of file
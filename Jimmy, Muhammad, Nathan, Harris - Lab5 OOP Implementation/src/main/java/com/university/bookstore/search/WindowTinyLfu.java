@@ -0,0 +1,260 @@
+package com.university.bookstore.search;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * W-TinyLFU eviction and admission policy: decides which keys a bounded cache keeps.
+ * 
+ * <p>New keys enter a small LRU window holding 1% of the capacity, so a burst of
+ * fresh keys can build up frequency before it is judged. The rest of the capacity is
+ * a segmented LRU: keys leaving the window join its probation segment, and a hit on
+ * probation promotes the key to the protected segment (80% of the main region), whose
+ * own overflow is demoted back to probation. When the main region is full, the key
+ * leaving the window is admitted only if the {@link FrequencySketch} has seen it
+ * requested more often than the probation segment's least recently used key;
+ * otherwise the newcomer is dropped. One-off queries therefore pass through the
+ * window without displacing the hot set.</p>
+ * 
+ * <p>All three segments are intrusive doubly linked lists, so every operation is O(1)
+ * and an insert evicts at most one key. Not thread-safe; the cache serializes
+ * access.</p>
+ * 
+ * @param <K> the key type
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+final class WindowTinyLfu<K> {
+    
+    private enum Segment {
+        WINDOW,
+        PROBATION,
+        PROTECTED
+    }
+    
+    private static final class Node<K> {
+        final K key;
+        Segment segment;
+        Node<K> prev;
+        Node<K> next;
+        
+        Node(K key) {
+            this.key = key;
+        }
+    }
+    
+    /**
+     * A segment's keys from least to most recently used.
+     */
+    private static final class AccessOrder<K> {
+        private final Node<K> head = new Node<>(null);
+        private int size;
+        
+        AccessOrder() {
+            head.prev = head;
+            head.next = head;
+        }
+        
+        Node<K> first() {
+            return head.next == head ? null : head.next;
+        }
+        
+        void addLast(Node<K> node) {
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+            size++;
+        }
+        
+        void remove(Node<K> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+        
+        void moveToBack(Node<K> node) {
+            remove(node);
+            addLast(node);
+        }
+        
+        void clear() {
+            head.prev = head;
+            head.next = head;
+            size = 0;
+        }
+    }
+    
+    private final Map<K, Node<K>> nodes;
+    private final FrequencySketch sketch;
+    private final AccessOrder<K> window;
+    private final AccessOrder<K> probation;
+    private final AccessOrder<K> protectedKeys;
+    private final int maxWindow;
+    private final int maxMain;
+    private final int maxProtected;
+    
+    /**
+     * Creates a policy for a cache holding at most {@code maximumSize} keys.
+     * 
+     * @param maximumSize the cache capacity
+     * @throws IllegalArgumentException if maximumSize is not positive
+     */
+    WindowTinyLfu(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maximumSize);
+        }
+        this.nodes = new HashMap<>();
+        this.sketch = new FrequencySketch(maximumSize);
+        this.window = new AccessOrder<>();
+        this.probation = new AccessOrder<>();
+        this.protectedKeys = new AccessOrder<>();
+        this.maxWindow = Math.max(1, maximumSize / 100);
+        this.maxMain = maximumSize - maxWindow;
+        this.maxProtected = (int) (maxMain * 0.8);
+    }
+    
+    /**
+     * Records a request for a key, whether or not it is cached.
+     * 
+     * @param key the requested key
+     */
+    void recordAccess(K key) {
+        sketch.increment(key);
+        Node<K> node = nodes.get(key);
+        if (node != null) {
+            touch(node);
+        }
+    }
+    
+    /**
+     * Records that a key was stored. A key already present counts as used.
+     * 
+     * @param key the stored key
+     * @return the key the cache must evict to stay within its capacity, which may be
+     *         a key other than the one stored, the stored key itself, or null
+     */
+    K add(K key) {
+        Node<K> existing = nodes.get(key);
+        if (existing != null) {
+            touch(existing);
+            return null;
+        }
+        
+        Node<K> node = new Node<>(key);
+        node.segment = Segment.WINDOW;
+        nodes.put(key, node);
+        window.addLast(node);
+        if (window.size <= maxWindow) {
+            return null;
+        }
+        
+        // The window overflowed: its oldest key asks for a place in the main region
+        Node<K> candidate = window.first();
+        window.remove(candidate);
+        candidate.segment = Segment.PROBATION;
+        probation.addLast(candidate);
+        if (probation.size + protectedKeys.size <= maxMain) {
+            return null;
+        }
+        
+        Node<K> victim = probation.first() != candidate ? probation.first() : protectedKeys.first();
+        Node<K> evicted = victim == null || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)
+            ? candidate
+            : victim;
+        unlink(evicted);
+        return evicted.key;
+    }
+    
+    /**
+     * Forgets a key removed from the cache for another reason, such as expiry.
+     * 
+     * @param key the removed key
+     */
+    void remove(K key) {
+        Node<K> node = nodes.get(key);
+        if (node != null) {
+            unlink(node);
+        }
+    }
+    
+    /**
+     * Forgets every key. Frequencies are kept: invalidating cached values does not
+     * make the queries behind them any less popular.
+     */
+    void clear() {
+        nodes.clear();
+        window.clear();
+        probation.clear();
+        protectedKeys.clear();
+    }
+    
+    /**
+     * Gets the number of keys tracked.
+     * 
+     * @return the number of keys
+     */
+    int size() {
+        return nodes.size();
+    }
+    
+    /**
+     * Checks whether a key is tracked.
+     * 
+     * @param key the key
+     * @return true if the key is in the window or main region
+     */
+    boolean contains(K key) {
+        return nodes.containsKey(key);
+    }
+    
+    /**
+     * Gets the sketch's estimate of how often a key was requested.
+     * 
+     * @param key the key
+     * @return the estimated frequency
+     */
+    int frequency(K key) {
+        return sketch.frequency(key);
+    }
+    
+    private void touch(Node<K> node) {
+        switch (node.segment) {
+            case WINDOW:
+                window.moveToBack(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                node.segment = Segment.PROTECTED;
+                protectedKeys.addLast(node);
+                if (protectedKeys.size > maxProtected) {
+                    Node<K> demoted = protectedKeys.first();
+                    protectedKeys.remove(demoted);
+                    demoted.segment = Segment.PROBATION;
+                    probation.addLast(demoted);
+                }
+                break;
+            default:
+                protectedKeys.moveToBack(node);
+                break;
+        }
+    }
+    
+    private void unlink(Node<K> node) {
+        nodes.remove(node.key);
+        switch (node.segment) {
+            case WINDOW:
+                window.remove(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            default:
+                protectedKeys.remove(node);
+                break;
+        }
+    }
+}
\ No newline at end of file
@@ -2,12 +2,16 @@ package com.university.bookstore.api;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -42,6 +46,11 @@ class MaterialStoreTest {
                 Arrays.asList("English"), false, "English");
     }
     
+    @AfterEach
+    void tearDown() {
+        CurrentYear.useSystemClock();
+    }
+    
     @Test
     void testAddMaterial() {
         assertTrue(store.addMaterial(book1));
@@ -232,6 +241,8 @@ class MaterialStoreTest {
     
     @Test
     void testFindRecentMaterials() {
+        CurrentYear.setClock(Clock.fixed(Instant.parse("2025-06-15T00:00:00Z"), ZoneOffset.UTC));
+        
         // Add materials with different years
         store.addMaterial(book1); // 2023
         
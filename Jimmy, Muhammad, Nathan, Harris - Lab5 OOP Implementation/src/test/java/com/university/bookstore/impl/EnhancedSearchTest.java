@@ -1,5 +1,8 @@
 package com.university.bookstore.impl;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.Comparator;
 import java.util.List;
 import java.util.function.Predicate;
@@ -8,11 +11,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.university.bookstore.api.MaterialStore;
 import com.university.bookstore.model.AudioBook;
+import com.university.bookstore.model.CurrentYear;
 import com.university.bookstore.model.EBook;
 import com.university.bookstore.model.Magazine;
 import com.university.bookstore.model.Material;
@@ -61,8 +66,15 @@ class EnhancedSearchTest {
         store.addMaterial(ebook);
     }
     
+    @AfterEach
+    void tearDown() {
+        CurrentYear.useSystemClock();
+    }
+    
     @Test
     void testFindRecentMaterials() {
+        CurrentYear.setClock(Clock.fixed(Instant.parse("2025-06-15T00:00:00Z"), ZoneOffset.UTC));
+        
         // Find materials from last 5 years (2020-2024)
         List<Material> recentMaterials = store.findRecentMaterials(5);
         assertEquals(4, recentMaterials.size());
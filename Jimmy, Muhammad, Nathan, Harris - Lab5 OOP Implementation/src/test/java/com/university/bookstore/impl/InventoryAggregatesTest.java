@@ -0,0 +1,312 @@
+package com.university.bookstore.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.api.MaterialStore.InventoryStats;
+import com.university.bookstore.model.CurrentYear;
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Magazine;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+
+class InventoryAggregatesTest {
+    
+    private InventoryAggregates aggregates;
+    
+    @BeforeEach
+    void setUp() {
+        aggregates = new InventoryAggregates();
+    }
+    
+    @Test
+    void testEmptyStats() {
+        InventoryStats stats = aggregates.stats();
+        
+        assertEquals(0, stats.getTotalCount());
+        assertEquals(0.0, stats.getMedianPrice());
+    }
+    
+    @Test
+    void testCountsAndMedian() {
+        aggregates.add(book(1, 10.0));
+        aggregates.add(book(2, 30.0));
+        aggregates.add(ebook(3, 20.0));
+        aggregates.add(new Magazine("12345678", "Monthly", "Publisher", 40.0, 2024, 1, "Monthly", "Tech"));
+        
+        InventoryStats stats = aggregates.stats();
+        
+        assertEquals(4, stats.getTotalCount());
+        assertEquals(25.0, stats.getAveragePrice(), 0.001);
+        assertEquals(25.0, stats.getMedianPrice(), 0.001);
+        assertEquals(3, stats.getUniqueTypes());
+        assertEquals(1, stats.getMediaCount());
+        assertEquals(3, stats.getPrintCount());
+    }
+    
+    @Test
+    void testRemoveUpdatesStats() {
+        Material cheap = book(1, 10.0);
+        Material ebook = ebook(2, 20.0);
+        aggregates.add(cheap);
+        aggregates.add(ebook);
+        aggregates.add(book(3, 30.0));
+        
+        aggregates.remove(ebook);
+        InventoryStats stats = aggregates.stats();
+        
+        assertEquals(2, stats.getTotalCount());
+        assertEquals(20.0, stats.getMedianPrice(), 0.001);
+        assertEquals(1, stats.getUniqueTypes());
+        assertEquals(0, stats.getMediaCount());
+        
+        aggregates.remove(cheap);
+        assertEquals(30.0, aggregates.stats().getMedianPrice(), 0.001);
+    }
+    
+    @Test
+    void testSummaryCachedUntilUpdate() {
+        aggregates.add(book(1, 10.0));
+        aggregates.add(ebook(2, 20.0));
+        
+        ModernConcurrentMaterialStore.Summary summary = aggregates.summary();
+        assertEquals(new ModernConcurrentMaterialStore.Summary(2, 2, 30.0), summary);
+        assertSame(summary, aggregates.summary());
+        
+        aggregates.remove(book(1, 10.0));
+        assertEquals(new ModernConcurrentMaterialStore.Summary(1, 1, 20.0), aggregates.summary());
+        
+        aggregates.clear();
+        assertEquals(0, aggregates.summary().size());
+    }
+    
+    @Test
+    void testValueTotals() {
+        // Both are discounted 15%: the e-book is DRM free and the book is over two years old
+        Material drmFree = ebook(1, 20.0);
+        aggregates.add(book(2, 10.0));
+        aggregates.add(drmFree);
+        
+        assertEquals(30.0, aggregates.totalValue(), 0.001);
+        assertEquals(25.5, aggregates.totalDiscountedValue(List.of()), 0.001);
+        assertEquals(4.5, aggregates.totalDiscountAmount(List.of()), 0.001);
+        
+        aggregates.remove(drmFree);
+        assertEquals(10.0, aggregates.totalValue(), 0.001);
+        assertEquals(1.5, aggregates.totalDiscountAmount(List.of()), 0.001);
+    }
+    
+    @Test
+    void testExactSumMatchesRunningTotals() {
+        List<Material> materials = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Material material = ebook(i, 0.1 + i % 7);
+            materials.add(material);
+            aggregates.add(material);
+        }
+        
+        assertEquals(InventoryAggregates.exactSum(materials, Material::getPrice),
+            aggregates.totalValue(), 1e-9);
+        assertEquals(InventoryAggregates.exactSum(materials, Material::getDiscountedPrice),
+            aggregates.totalDiscountedValue(materials), 1e-9);
+    }
+    
+    @Test
+    void testStatsAreCachedUntilNextUpdate() {
+        aggregates.add(book(1, 10.0));
+        
+        InventoryStats first = aggregates.stats();
+        assertSame(first, aggregates.stats());
+        
+        aggregates.add(book(2, 20.0));
+        assertNotSame(first, aggregates.stats());
+    }
+    
+    @Test
+    void testClear() {
+        aggregates.add(book(1, 10.0));
+        aggregates.clear();
+        
+        assertEquals(0, aggregates.stats().getTotalCount());
+        aggregates.add(book(2, 5.0));
+        assertEquals(5.0, aggregates.stats().getMedianPrice(), 0.001);
+    }
+    
+    @Test
+    void testMatchesRecomputationUnderRandomChurn() {
+        Random random = new Random(42);
+        List<Material> live = new ArrayList<>();
+        
+        for (int i = 0; i < 2000; i++) {
+            if (live.isEmpty() || random.nextInt(3) > 0) {
+                // Few distinct prices so duplicates straddle the two halves
+                double price = random.nextInt(50) + 0.99;
+                Material material = random.nextBoolean() ? book(i, price) : ebook(i, price);
+                live.add(material);
+                aggregates.add(material);
+            } else {
+                aggregates.remove(live.remove(random.nextInt(live.size())));
+            }
+            
+            if (!live.isEmpty()) {
+                assertEquals(expectedMedian(live), aggregates.stats().getMedianPrice(), 1e-9);
+            }
+        }
+        
+        double expectedAverage = live.stream().mapToDouble(Material::getPrice).average().orElse(0);
+        assertEquals(live.size(), aggregates.stats().getTotalCount());
+        assertEquals(expectedAverage, aggregates.stats().getAveragePrice(), 1e-9);
+    }
+    
+    @Test
+    void testMedianAfterQueuedChangesAndCompaction() {
+        Random random = new Random(7);
+        List<Material> live = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Material material = book(i, random.nextInt(300) + 0.5);
+            live.add(material);
+            aggregates.add(material);
+        }
+        assertEquals(expectedMedian(live), aggregates.stats().getMedianPrice(), 1e-9);
+        
+        Collections.shuffle(live, random);
+        while (live.size() > 1) {
+            for (int i = 0; i < 250 && live.size() > 1; i++) {
+                aggregates.remove(live.remove(live.size() - 1));
+            }
+            assertEquals(expectedMedian(live), aggregates.stats().getMedianPrice(), 1e-9);
+        }
+    }
+    
+    @Test
+    void testConcurrentWritersKeepTotals() throws Exception {
+        int writers = 4;
+        int perWriter = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int offset = w * perWriter;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < offset + perWriter; i++) {
+                        aggregates.add(book(i, 1.0 + i % 10));
+                    }
+                    // Remove the other writer's half, so removals land on other stripes
+                    int other = (offset + perWriter) % (writers * perWriter);
+                    for (int i = other; i < other + perWriter / 2; i++) {
+                        aggregates.remove(book(i, 1.0 + i % 10));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        List<Material> live = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            for (int i = w * perWriter + perWriter / 2; i < (w + 1) * perWriter; i++) {
+                live.add(book(i, 1.0 + i % 10));
+            }
+        }
+        InventoryStats stats = aggregates.stats();
+        assertEquals(live.size(), stats.getTotalCount());
+        assertEquals(InventoryAggregates.exactSum(live, Material::getPrice), aggregates.totalValue(), 1e-9);
+        assertEquals(expectedMedian(live), stats.getMedianPrice(), 1e-9);
+    }
+    
+    @Test
+    void testRebuildWaitsForWriteInFlight() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CurrentYear.setClock(Clock.fixed(Instant.parse("2024-06-15T00:00:00Z"), ZoneOffset.UTC));
+            InventoryAggregates monthly = new InventoryAggregates();
+            Material book = new PrintedBook("9781234567890", "Book", "Author", 20.0, 2020, 100, "Publisher", false);
+            
+            monthly.enterWrite();
+            monthly.add(book);
+            CurrentYear.setClock(Clock.fixed(Instant.parse("2024-07-01T00:00:00Z"), ZoneOffset.UTC));
+            Future<Double> rebuilt = executor.submit(() -> monthly.totalDiscountAmount(List.of(book)));
+            
+            Thread.sleep(100);
+            assertFalse(rebuilt.isDone());
+            
+            monthly.exitWrite();
+            assertEquals(3.0, rebuilt.get(5, TimeUnit.SECONDS), 0.001);
+        } finally {
+            CurrentYear.useSystemClock();
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void testMediaTypesFollowAddsAndRemoves() {
+        Material ebook = ebook(1, 10.0);
+        aggregates.add(book(2, 20.0));
+        aggregates.add(ebook);
+        
+        assertEquals(List.of(Material.MaterialType.E_BOOK), aggregates.mediaTypes());
+        
+        aggregates.remove(ebook);
+        
+        assertEquals(List.of(), aggregates.mediaTypes());
+    }
+    
+    @Test
+    void testDiscountsRebuiltFromStoreAfterMonthChange() {
+        try {
+            CurrentYear.setClock(Clock.fixed(Instant.parse("2024-06-15T00:00:00Z"), ZoneOffset.UTC));
+            InventoryAggregates monthly = new InventoryAggregates();
+            // Not yet two years old in 2024, so not discounted
+            Material book = new PrintedBook("9781234567890", "Book", "Author", 20.0, 2022, 100, "Publisher", false);
+            monthly.add(book);
+            assertEquals(0.0, monthly.totalDiscountAmount(List.of(book)), 0.001);
+            assertEquals(List.of(), monthly.discountedTypes(List.of(book)));
+            
+            CurrentYear.setClock(Clock.fixed(Instant.parse("2025-01-10T00:00:00Z"), ZoneOffset.UTC));
+            assertEquals(3.0, monthly.totalDiscountAmount(List.of(book)), 0.001);
+            assertEquals(17.0, monthly.totalDiscountedValue(List.of(book)), 0.001);
+            assertEquals(List.of(Material.MaterialType.BOOK), monthly.discountedTypes(List.of(book)));
+            
+            // Later writes are added at the new rate
+            Material other = new PrintedBook("9780987654321", "Other", "Author", 10.0, 2020, 100, "Publisher", false);
+            monthly.add(other);
+            assertEquals(4.5, monthly.totalDiscountAmount(List.of()), 0.001);
+        } finally {
+            CurrentYear.useSystemClock();
+        }
+    }
+    
+    private static double expectedMedian(List<Material> materials) {
+        double[] prices = materials.stream().mapToDouble(Material::getPrice).sorted().toArray();
+        int mid = prices.length / 2;
+        return prices.length % 2 == 0 ? (prices[mid - 1] + prices[mid]) / 2 : prices[mid];
+    }
+    
+    private static Material book(int seed, double price) {
+        return new PrintedBook(String.format("978%010d", seed), "Book " + seed, "Author",
+            price, 2020, 100, "Publisher", false);
+    }
+    
+    private static Material ebook(int seed, double price) {
+        return new EBook("E" + seed, "EBook " + seed, "Author", price, 2020,
+            "PDF", 1.0, false, 50, Media.MediaQuality.HIGH);
+    }
+}
\ No newline at end of file
@@ -1,11 +1,15 @@
 package com.university.bookstore.impl;
 
+import com.university.bookstore.api.MaterialPage;
 import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.api.ModernMaterialStore;
 import com.university.bookstore.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
@@ -107,6 +111,21 @@ public class MaterialStoreImplTest {
         assertEquals(1, results.size());
     }
     
+    @Test
+    @DisplayName("Search keys follow adds and removals")
+    void testSearchKeysFollowWrites() {
+        store.addMaterial(book1);
+        store.addMaterial(audioBook);
+        
+        assertEquals(Arrays.asList(audioBook), store.searchByTitle("1984"));
+        assertEquals(Arrays.asList(audioBook), store.searchByCreator("GEORGE orwell"));
+        
+        store.removeMaterial(audioBook.getId());
+        assertTrue(store.searchByTitle("1984").isEmpty());
+        assertTrue(store.searchByCreator("Orwell").isEmpty());
+        assertEquals(0, store.streamByTitle("1984").count());
+    }
+    
     @Test
     @DisplayName("Get materials by type")
     void testGetMaterialsByType() {
@@ -224,6 +243,88 @@ public class MaterialStoreImplTest {
         assertFalse(notFound.isPresent());
     }
     
+    @Test
+    @DisplayName("Removal keeps insertion order")
+    void testRemovalKeepsInsertionOrder() {
+        store.addMaterial(book1);
+        store.addMaterial(book2);
+        store.addMaterial(magazine);
+        List<Material> before = store.getAllMaterials();
+        
+        store.removeMaterial(book2.getId());
+        store.addMaterial(audioBook);
+        store.addMaterial(book2);
+        
+        assertEquals(Arrays.asList(book1, book2, magazine), before);
+        assertEquals(Arrays.asList(book1, magazine, audioBook, book2), store.getAllMaterials());
+        assertEquals(book2, store.findById(book2.getId()).orElseThrow());
+        assertEquals(4, store.size());
+    }
+    
+    @Test
+    @DisplayName("Top-K queries")
+    void testTopKQueries() {
+        store.addMaterial(book1);
+        store.addMaterial(book2);
+        store.addMaterial(magazine);
+        store.addMaterial(audioBook);
+        store.addMaterial(video);
+        
+        assertEquals(Arrays.asList(magazine, audioBook), store.findCheapest(2, null));
+        assertEquals(Arrays.asList(book2, book1), store.findMostExpensive(2, Material.MaterialType.BOOK));
+        assertEquals(Arrays.asList(magazine, audioBook, book1), store.findNewest(3, null));
+        assertEquals(Arrays.asList(video), store.findNewest(5, Material.MaterialType.VIDEO));
+        assertEquals(Arrays.asList(audioBook, book2),
+            store.topK(2, Comparator.comparing(Material::getTitle), null));
+        assertTrue(store.findCheapest(0, null).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> store.findCheapest(-1, null));
+    }
+    
+    @Test
+    @DisplayName("Keyset and offset pagination")
+    void testPagination() {
+        store.addMaterial(book1);
+        store.addMaterial(book2);
+        store.addMaterial(magazine);
+        store.addMaterial(audioBook);
+        store.addMaterial(video);
+        
+        List<Material> paged = new ArrayList<>();
+        MaterialPage page = store.getSortedPage(null, 2);
+        paged.addAll(page.items());
+        while (page.hasNext()) {
+            page = store.getSortedPage(page.next().orElseThrow(), 2);
+            paged.addAll(page.items());
+        }
+        assertEquals(store.getAllMaterialsSorted(), paged);
+        
+        MaterialPage titlePage = store.searchByTitlePage("i", MaterialPage.Cursor.after(book2), 1);
+        assertEquals(Arrays.asList(book1), titlePage.items());
+        assertTrue(titlePage.hasNext());
+        assertEquals(Arrays.asList(book2), store.searchByTitle("a", 1, 1));
+        assertTrue(store.searchByTitle("a", 10, 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> store.getSortedPage(null, 0));
+    }
+    
+    @Test
+    @DisplayName("Remove materials in one batch")
+    void testRemoveMaterialsBatch() {
+        store.addMaterial(book1);
+        store.addMaterial(book2);
+        store.addMaterial(magazine);
+        store.addMaterial(audioBook);
+        
+        ModernMaterialStore.BatchOperationResult result = store.removeMaterialsBatch(
+            Arrays.asList(book1.getId(), magazine.getId(), "invalid", book1.getId()));
+        
+        assertEquals(2, result.successful());
+        assertEquals(2, result.failed());
+        assertEquals(2, store.size());
+        assertEquals(Arrays.asList(book2, audioBook), store.getAllMaterials());
+        assertTrue(store.getMaterialsByType(Material.MaterialType.MAGAZINE).isEmpty());
+        assertEquals(2, store.getInventoryStats().getTotalCount());
+    }
+    
     @Test
     @DisplayName("Sorted materials")
     void testGetAllMaterialsSorted() {
@@ -237,6 +338,25 @@ public class MaterialStoreImplTest {
         assertEquals("Inception", sorted.get(2).getTitle());
     }
     
+    @Test
+    @DisplayName("Sorted views are shared until the next write")
+    void testSortedViewsSharedUntilWrite() {
+        store.addMaterial(video);
+        store.addMaterial(book1);
+        Comparator<Material> byPrice = Comparator.comparingDouble(Material::getPrice);
+        
+        List<Material> sorted = store.getAllMaterialsSorted();
+        List<Material> cheapestFirst = store.getSorted(byPrice);
+        assertSame(sorted, store.getAllMaterialsSorted());
+        assertSame(cheapestFirst, store.getSorted(byPrice));
+        assertThrows(UnsupportedOperationException.class, () -> cheapestFirst.add(book2));
+        
+        store.addMaterial(audioBook);
+        assertNotSame(cheapestFirst, store.getSorted(byPrice));
+        assertEquals(3, store.getSorted(byPrice).size());
+        assertEquals(2, cheapestFirst.size());
+    }
+    
     @Test
     @DisplayName("Group materials by type")
     void testGroupByType() {
@@ -342,4 +462,20 @@ public class MaterialStoreImplTest {
         List<Material> blankCreatorSearch = store.searchByCreator("   ");
         assertTrue(blankCreatorSearch.isEmpty());
     }
+    
+    @Test
+    @DisplayName("Indexed lookups return materials in insertion order")
+    void testIndexedLookupsKeepInsertionOrder() {
+        List<Material> books = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Material book = new PrintedBook(String.format("978%010d", 500 - i), "Book " + i, "Author",
+                15.0, 2021, 100, "Publisher", false);
+            books.add(book);
+            store.addMaterial(book);
+        }
+        
+        assertEquals(books, store.getMaterialsByType(Material.MaterialType.BOOK));
+        assertEquals(books, store.getMaterialsByYear(2021));
+        assertEquals(books, store.getMaterialsByPriceRange(10.0, 20.0));
+    }
 }
\ No newline at end of file
@@ -8,7 +8,10 @@ import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.*;
 
+import com.university.bookstore.api.MaterialPage;
+import com.university.bookstore.api.ModernMaterialStore;
 import com.university.bookstore.model.*;
+import com.university.bookstore.search.QueryPlanner;
 
 /**
  * Test class for ModernConcurrentMaterialStore.
@@ -52,14 +55,104 @@ public class ModernConcurrentMaterialStoreTest {
             new EBook("E001", "EBook 1", "Author 3", 14.99, 2024, "PDF", 1.5, true, 50, Media.MediaQuality.HIGH)
         );
         
-        CompletableFuture<Map<String, Boolean>> future = store.addMaterialsBatchAsync(materials);
-        Map<String, Boolean> results = future.get(2, TimeUnit.SECONDS);
+        CompletableFuture<ModernMaterialStore.BatchOperationResult> future = store.addMaterialsBatchAsync(materials);
+        ModernMaterialStore.BatchOperationResult result = future.get(2, TimeUnit.SECONDS);
         
-        assertEquals(3, results.size());
-        assertTrue(results.values().stream().allMatch(Boolean::booleanValue));
+        assertEquals(3, result.successful());
+        assertTrue(result.isCompleteSuccess());
         assertEquals(3, store.size());
     }
     
+    @Test
+    @DisplayName("Test batch addition reports nulls, duplicates and existing IDs")
+    void testBatchAddFailures() {
+        PrintedBook existing = new PrintedBook("9781234567890", "Book 1", "Author 1", 19.99, 2024, 200, "ABC", true);
+        store.addMaterial(existing);
+        EBook first = new EBook("E001", "EBook 1", "Author 3", 14.99, 2024, "PDF", 1.5, true, 50, Media.MediaQuality.HIGH);
+        EBook repeat = new EBook("E001", "EBook 2", "Author 4", 9.99, 2024, "PDF", 1.5, true, 50, Media.MediaQuality.HIGH);
+        
+        ModernMaterialStore.BatchOperationResult result = store.addMaterialsBatch(
+            Arrays.asList(first, null, existing, repeat));
+        
+        assertEquals(1, result.successful());
+        assertEquals(3, result.failed());
+        assertEquals(3, result.errors().size());
+        assertEquals("EBook 1", store.findById("E001").orElseThrow().getTitle());
+        assertEquals(1, store.searchByTitle("ebook").size());
+        assertEquals(2, store.getInventoryStats().getTotalCount());
+    }
+    
+    @Test
+    @DisplayName("Test bulk constructor builds indexes and aggregates")
+    void testBulkConstructor() {
+        List<Material> materials = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            materials.add(new PrintedBook(String.format("978%010d", i % 400), "Book " + i, "Author " + (i % 7),
+                10.0 + i % 50, 2000 + i % 20, 100, "Publisher", false));
+        }
+        materials.add(null);
+        
+        try (ModernConcurrentMaterialStore loaded = new ModernConcurrentMaterialStore(materials)) {
+            assertEquals(400, loaded.size());
+            assertEquals(400, loaded.getInventoryStats().getTotalCount());
+            assertEquals(400, loaded.getMaterialsByType(Material.MaterialType.BOOK).size());
+            assertEquals(20, loaded.getMaterialsByYear(2005).size());
+            assertEquals(1, loaded.searchByTitle("Book 399").size());
+            
+            loaded.removeMaterial(String.format("978%010d", 5));
+            assertEquals(19, loaded.getMaterialsByYear(2005).size());
+        }
+    }
+    
+    @Test
+    @DisplayName("Test batch removal reports misses and keeps indexes in step")
+    void testBatchRemoveMaterials() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            store.addMaterial(new PrintedBook(String.format("978%010d", i), "Book " + i, "Author " + (i % 2),
+                10.0 + i, 2020, 100, "Publisher", false));
+        }
+        List<Material> before = store.getAllMaterials();
+        
+        List<String> ids = Arrays.asList(String.format("978%010d", 1), String.format("978%010d", 2),
+            null, "missing", String.format("978%010d", 1));
+        ModernMaterialStore.BatchOperationResult result = store.removeMaterialsBatchAsync(ids).get(2, TimeUnit.SECONDS);
+        
+        assertEquals(2, result.successful());
+        assertEquals(3, result.failed());
+        assertEquals(3, result.errors().size());
+        assertEquals(8, store.size());
+        assertEquals(8, store.getInventoryStats().getTotalCount());
+        assertEquals(8, store.getMaterialsByYear(2020).size());
+        assertTrue(store.searchByTitle("Book 1").isEmpty());
+        assertNotSame(before, store.getAllMaterials());
+        assertEquals(8, store.getModernInventoryStatsAsync().get(1, TimeUnit.SECONDS).totalCount());
+    }
+    
+    @Test
+    @DisplayName("Test streamed and paged title search")
+    void testStreamedAndPagedTitleSearch() {
+        for (int i = 0; i < 50; i++) {
+            store.addMaterial(new PrintedBook(String.format("978%010d", i), "Java Volume " + (i % 10), "Author",
+                19.99, 2024, 100, "Publisher", false));
+        }
+        
+        assertEquals(3, store.streamByTitle("volume").limit(3).count());
+        assertEquals(50, store.streamMaterials().count());
+        
+        List<Material> expected = store.searchByTitle("volume 3");
+        Collections.sort(expected);
+        List<Material> paged = new ArrayList<>();
+        MaterialPage.Cursor cursor = null;
+        MaterialPage page;
+        do {
+            page = store.searchByTitlePage("volume 3", cursor, 2);
+            paged.addAll(page.items());
+            cursor = page.next().orElse(null);
+        } while (page.hasNext());
+        assertEquals(expected, paged);
+        assertEquals(store.getAllMaterialsSorted().subList(0, 4), store.getSortedPage(null, 4).items());
+    }
+    
     @Test
     @DisplayName("Test async find by ID")
     void testAsyncFindById() throws Exception {
@@ -176,7 +269,7 @@ public class ModernConcurrentMaterialStoreTest {
         long duration = System.nanoTime() - startTime;
         
         // Should complete quickly due to optimistic reads
-        assertTrue(duration < TimeUnit.SECONDS.toNanos(1), 
+        assertTrue(duration < TimeUnit.SECONDS.toNanos(1),
             "Optimistic reads should complete in under 1 second");
     }
     
@@ -223,6 +316,102 @@ public class ModernConcurrentMaterialStoreTest {
         assertNull(results.get("9999999999999"));
     }
     
+    @Test
+    @DisplayName("Test repeated queries are memoized until an affecting write")
+    void testQueryMemoization() {
+        store.addMaterial(new PrintedBook("9781234567890", "Book", "Author", 15.0, 2024, 200, "Publisher", true));
+        store.addMaterial(new EBook("E001", "EBook", "Author", 45.0, 2010, "PDF", 1.5, true, 50, Media.MediaQuality.HIGH));
+        
+        List<Material> books = store.getMaterialsByType(Material.MaterialType.BOOK);
+        List<Material> cheap = store.getMaterialsByPriceRange(0, 20);
+        List<Material> recent = store.findRecentMaterials(5);
+        assertSame(books, store.getMaterialsByType(Material.MaterialType.BOOK));
+        assertSame(recent, store.findRecentMaterials(5));
+        assertThrows(UnsupportedOperationException.class, () -> books.clear());
+        
+        // An old, expensive e-book changes none of them
+        store.addMaterial(new EBook("E002", "EBook 2", "Author", 60.0, 2005, "PDF", 1.5, true, 50, Media.MediaQuality.HIGH));
+        assertSame(books, store.getMaterialsByType(Material.MaterialType.BOOK));
+        assertSame(cheap, store.getMaterialsByPriceRange(0, 20));
+        assertSame(recent, store.findRecentMaterials(5));
+        
+        store.removeMaterial("9781234567890");
+        assertTrue(store.getMaterialsByType(Material.MaterialType.BOOK).isEmpty());
+        assertTrue(store.getMaterialsByPriceRange(0, 20).isEmpty());
+        assertTrue(store.findRecentMaterials(5).isEmpty());
+        
+        store.addMaterialsBatch(List.of(new PrintedBook("9789876543210", "Book 2", "Author", 10.0, 2024, 200, "Publisher", true)));
+        assertEquals(1, store.getMaterialsByType(Material.MaterialType.BOOK).size());
+        store.clearInventory();
+        assertTrue(store.getMaterialsByPriceRange(0, 20).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Test async dispatch by workload and mode")
+    void testAsyncExecutionModes() throws Exception {
+        PrintedBook book = new PrintedBook("9781234567890", "Java Book", "Author", 29.99, 2024, 200, "Publisher", true);
+        AsyncExecutionStrategy async = store.getAsyncExecution();
+        assertEquals(AsyncExecutionStrategy.Mode.ADAPTIVE, async.getMode());
+        
+        // Cheap operations complete on the calling thread
+        CompletableFuture<Boolean> added = store.addMaterialAsync(book);
+        assertTrue(added.isDone());
+        assertTrue(added.get());
+        assertEquals(Optional.of(book), store.findByIdAsync(book.getId()).get());
+        assertEquals(2, async.getInlineCompletions());
+        assertEquals(0, async.getThreadHops());
+        
+        // Scans still run on the pool
+        assertEquals(1, store.searchByTitleAsync("java").get(2, TimeUnit.SECONDS).size());
+        assertEquals(1, async.getThreadHops());
+        
+        CompletableFuture<String> blocking = async.supply(AsyncExecutionStrategy.Workload.BLOCKING,
+            () -> Thread.currentThread().getName());
+        assertNotEquals(Thread.currentThread().getName(), blocking.get(2, TimeUnit.SECONDS));
+        
+        // Failures surface through the future rather than the caller
+        CompletableFuture<Integer> failed = async.supply(AsyncExecutionStrategy.Workload.CHEAP, () -> {
+            throw new IllegalStateException("boom");
+        });
+        assertTrue(failed.isCompletedExceptionally());
+        
+        async.setMode(AsyncExecutionStrategy.Mode.POOLED);
+        assertEquals(Optional.of(book), store.findByIdAsync(book.getId()).get(2, TimeUnit.SECONDS));
+        assertEquals(3, async.getInlineCompletions());
+        assertEquals(3, async.getThreadHops());
+    }
+    
+    @Test
+    @DisplayName("Test async dispatch follows batch size and concurrency mode")
+    void testAsyncWorkloadClassification() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            PrintedBook book = new PrintedBook(String.format("978%010d", i), "Book " + i, "Author",
+                10.0 + i, 2020, 100, "Publisher", false);
+            store.addMaterial(book);
+            ids.add(book.getId());
+        }
+        AsyncExecutionStrategy async = store.getAsyncExecution();
+        
+        assertEquals(2, store.findByIdsAsync(ids.subList(0, 2)).get().size());
+        assertEquals(0, async.getThreadHops());
+        assertEquals(20, store.findByIdsAsync(ids).get(2, TimeUnit.SECONDS).size());
+        assertEquals(1, async.getThreadHops());
+        
+        try (ModernConcurrentMaterialStore stamped = new ModernConcurrentMaterialStore(
+                ModernConcurrentMaterialStore.ConcurrencyMode.STAMPED_LOCK)) {
+            PrintedBook book = new PrintedBook("9781234567890", "Java Book", "Author", 29.99, 2024, 200, "Publisher", true);
+            
+            assertTrue(stamped.addMaterialAsync(book).get(2, TimeUnit.SECONDS));
+            assertTrue(stamped.findByIdAsync(book.getId()).get(2, TimeUnit.SECONDS).isPresent());
+            assertEquals(1, stamped.findByIdsAsync(List.of(book.getId())).get(2, TimeUnit.SECONDS).size());
+            assertEquals(29.99, stamped.getTotalInventoryValueAsync().get(2, TimeUnit.SECONDS), 0.001);
+            assertEquals(1, stamped.getInventoryStatsAsync().get(2, TimeUnit.SECONDS).getTotalCount());
+            assertEquals(0, stamped.getAsyncExecution().getInlineCompletions());
+            assertEquals(5, stamped.getAsyncExecution().getThreadHops());
+        }
+    }
+    
     @Test
     @DisplayName("Test resource cleanup on close")
     void testResourceCleanup() throws Exception {
@@ -255,4 +444,185 @@ public class ModernConcurrentMaterialStoreTest {
         
         assertEquals(65.00, totalValue, 0.01);
     }
+    
+    @Test
+    @DisplayName("Test lock-free mode is the default")
+    void testDefaultConcurrencyMode() {
+        assertEquals(ModernConcurrentMaterialStore.ConcurrencyMode.LOCK_FREE, store.getConcurrencyMode());
+    }
+    
+    @Test
+    @DisplayName("Test StampedLock mode supports the full read/write cycle")
+    void testStampedLockMode() {
+        try (ModernConcurrentMaterialStore lockedStore = new ModernConcurrentMaterialStore(
+                ModernConcurrentMaterialStore.ConcurrencyMode.STAMPED_LOCK)) {
+            PrintedBook book = new PrintedBook("9781234567890", "Locked Book", "Author", 29.99, 2024, 200, "Publisher", true);
+            
+            assertTrue(lockedStore.addMaterial(book));
+            assertFalse(lockedStore.addMaterial(book));
+            assertEquals(1, lockedStore.searchByTitle("locked").size());
+            assertEquals(29.99, lockedStore.getTotalInventoryValue(), 0.01);
+            assertEquals(Optional.of(book), lockedStore.removeMaterial("9781234567890"));
+            assertTrue(lockedStore.isEmpty());
+        }
+    }
+    
+    @Test
+    @DisplayName("Test StampedLock reads run optimistically and can be switched to locked reads")
+    void testOptimisticReads() {
+        try (ModernConcurrentMaterialStore lockedStore = new ModernConcurrentMaterialStore(
+                ModernConcurrentMaterialStore.ConcurrencyMode.STAMPED_LOCK)) {
+            lockedStore.addMaterial(new PrintedBook("9781234567890", "Locked Book", "Author", 29.99, 2024, 200, "Publisher", true));
+            assertTrue(lockedStore.isOptimisticReads());
+            
+            assertTrue(lockedStore.findById("9781234567890").isPresent());
+            assertEquals(1, lockedStore.getMaterialsByType(Material.MaterialType.BOOK).size());
+            assertEquals(29.99, lockedStore.getTotalInventoryValue(), 0.01);
+            ModernConcurrentMaterialStore.ReadStats stats = lockedStore.getReadStats();
+            assertEquals(3, stats.optimisticReads());
+            assertEquals(0, stats.lockedReads());
+            assertEquals(1.0, stats.optimisticSuccessRate(), 1e-9);
+            
+            lockedStore.setOptimisticReads(false);
+            assertEquals(1, lockedStore.size());
+            assertEquals(1, lockedStore.getReadStats().lockedReads());
+            assertEquals(3, lockedStore.getReadStats().optimisticReads());
+        }
+        
+        store.findById("missing");
+        assertEquals(new ModernConcurrentMaterialStore.ReadStats(0, 0, 0), store.getReadStats());
+    }
+    
+    @Test
+    @DisplayName("Test groupByType is a lazy view in type order and toString reads the summary")
+    void testGroupByTypeAndSummary() {
+        store.addMaterial(new PrintedBook("9781234567890", "Book", "Author", 20.00, 2024, 200, "Publisher", true));
+        store.addMaterial(new EBook("E001", "EBook 1", "Author 3", 10.00, 2024, "PDF", 1.5, true, 50, Media.MediaQuality.HIGH));
+        store.addMaterial(new EBook("E002", "EBook 2", "Author 3", 12.00, 2024, "PDF", 1.5, true, 50, Media.MediaQuality.HIGH));
+        
+        Map<Material.MaterialType, List<Material>> groups = store.groupByType();
+        assertEquals(List.of(Material.MaterialType.BOOK, Material.MaterialType.E_BOOK),
+            new ArrayList<>(groups.keySet()));
+        assertEquals(2, groups.get(Material.MaterialType.E_BOOK).size());
+        assertSame(groups.get(Material.MaterialType.E_BOOK), groups.get(Material.MaterialType.E_BOOK));
+        assertNull(groups.get(Material.MaterialType.MAGAZINE));
+        assertEquals(3, groups.values().stream().mapToInt(List::size).sum());
+        assertThrows(UnsupportedOperationException.class, () -> groups.remove(Material.MaterialType.BOOK));
+        
+        assertEquals(new ModernConcurrentMaterialStore.Summary(3, 2, 42.00), store.getSummary());
+        assertEquals("ModernConcurrentMaterialStore[Size=3, Types=2, Value=$42.00]", store.toString());
+    }
+    
+    @Test
+    @DisplayName("Test lock-free readers and writers keep per-key consistency")
+    void testLockFreeConcurrentAddRemove() throws Exception {
+        int threadCount = 16;
+        int keysPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<?>> futures = new ArrayList<>();
+        
+        for (int t = 0; t < threadCount; t++) {
+            final int threadId = t;
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < keysPerThread; j++) {
+                    String id = "978" + String.format("%010d", threadId * 1000 + j);
+                    PrintedBook book = new PrintedBook(id, "Book " + id, "Author", 10.0, 2024, 100, "Publisher", true);
+                    assertTrue(store.addMaterial(book));
+                    store.getMaterialsByType(Material.MaterialType.BOOK);
+                    if (j % 2 == 0) {
+                        assertTrue(store.removeMaterial(id).isPresent());
+                    }
+                }
+            }));
+        }
+        
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        assertEquals(threadCount * keysPerThread / 2, store.size());
+        assertEquals(store.size(), store.getAllMaterials().size());
+    }
+    
+    @Test
+    @DisplayName("Test advanced search requires every criterion")
+    void testAdvancedSearchAsync() throws Exception {
+        store.addMaterial(new PrintedBook("9781234567890", "Java Book", "John Doe", 39.99, 2024, 400, "Publisher", true));
+        store.addMaterial(new PrintedBook("9789876543210", "Java Basics", "Jane Smith", 19.99, 2020, 200, "Publisher", false));
+        store.addMaterial(new EBook("E001", "Java Guide", "John Doe", 29.99, 2024, "PDF", 2.0, false, 100, Media.MediaQuality.HIGH));
+        
+        ModernMaterialStore.SearchCriteria criteria = ModernMaterialStore.SearchCriteria.builder()
+            .withTitle("java")
+            .withCreator("john")
+            .withType(Material.MaterialType.BOOK)
+            .build();
+        
+        List<Material> results = store.advancedSearchAsync(criteria).get(2, TimeUnit.SECONDS);
+        
+        assertEquals(1, results.size());
+        assertEquals("9781234567890", results.get(0).getId());
+        assertEquals(QueryPlanner.AccessPath.TYPE_INDEX, store.explain(criteria).accessPath());
+    }
+    
+    @Test
+    @DisplayName("Test exact recompute mode agrees with running totals")
+    void testExactTotalsMode() {
+        for (int i = 0; i < 100; i++) {
+            store.addMaterial(new PrintedBook(String.format("978%010d", i), "Book " + i, "Author",
+                10.0 + i, 2000 + i % 25, 100, "Publisher", false));
+        }
+        store.removeMaterial(String.format("978%010d", 7));
+        
+        double value = store.getTotalInventoryValue();
+        double discounted = store.getTotalDiscountedValue();
+        double savings = store.getTotalDiscountAmount();
+        
+        store.setExactTotals(true);
+        assertTrue(store.isExactTotals());
+        assertEquals(store.getTotalInventoryValue(), value, 1e-9);
+        assertEquals(store.getTotalDiscountedValue(), discounted, 1e-9);
+        assertEquals(store.getTotalDiscountAmount(), savings, 1e-9);
+    }
+    
+    @Test
+    @DisplayName("Test title and creator search keys follow adds and removes")
+    void testSearchKeysFollowMutations() {
+        store.addMaterial(new PrintedBook("9781234567890", "JAVA Book", "John DOE", 39.99, 2024, 400, "Publisher", true));
+        store.addMaterial(new EBook("E001", "Python Guide", "Jane Smith", 29.99, 2024, "PDF", 2.0, false, 100, Media.MediaQuality.HIGH));
+        
+        assertEquals(1, store.searchByTitle("  java ").size());
+        assertEquals(1, store.searchByCreator("doe").size());
+        
+        store.removeMaterial("9781234567890");
+        assertTrue(store.searchByTitle("java").isEmpty());
+        assertTrue(store.searchByCreator("doe").isEmpty());
+        
+        store.clearInventory();
+        assertTrue(store.searchByTitle("guide").isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Test full and sorted reads share one snapshot until a write")
+    void testSnapshotReadsSharedBetweenWrites() {
+        store.addMaterial(new PrintedBook("9781234567890", "Zebra Book", "Author", 39.99, 2024, 400, "Publisher", true));
+        store.addMaterial(new PrintedBook("9789876543210", "Apple Book", "Author", 19.99, 2020, 200, "Publisher", false));
+        
+        List<Material> all = store.getAllMaterials();
+        List<Material> sorted = store.getAllMaterialsSorted();
+        Comparator<Material> byPrice = Comparator.comparingDouble(Material::getPrice);
+        
+        assertSame(all, store.getAllMaterials());
+        assertSame(sorted, store.getAllMaterialsSorted());
+        assertSame(store.getSorted(byPrice), store.getSorted(byPrice));
+        assertEquals("Apple Book", sorted.get(0).getTitle());
+        assertThrows(UnsupportedOperationException.class, () -> all.clear());
+        
+        store.addMaterial(new EBook("E001", "Middle Guide", "Author", 9.99, 2024, "PDF", 2.0, false, 100, Media.MediaQuality.HIGH));
+        
+        assertNotSame(all, store.getAllMaterials());
+        assertEquals(2, all.size());
+        assertEquals(3, store.getAllMaterialsSorted().size());
+        assertEquals("E001", store.getSorted(byPrice).get(0).getId());
+    }
 }
\ No newline at end of file
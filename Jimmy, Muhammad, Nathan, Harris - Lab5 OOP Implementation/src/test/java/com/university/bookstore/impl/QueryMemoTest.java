@@ -0,0 +1,164 @@
+package com.university.bookstore.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+
+class QueryMemoTest {
+    
+    private QueryMemo memo;
+    private AtomicLong version;
+    private AtomicInteger computations;
+    
+    @BeforeEach
+    void setUp() {
+        memo = new QueryMemo(4);
+        version = new AtomicLong();
+        computations = new AtomicInteger();
+    }
+    
+    @Test
+    void testRepeatedQueryIsMemoized() {
+        List<Material> first = query(QueryMemo.Key.type(Material.MaterialType.BOOK));
+        List<Material> second = query(QueryMemo.Key.type(Material.MaterialType.BOOK));
+        
+        assertSame(first, second);
+        assertEquals(1, computations.get());
+        assertEquals(1, memo.hits());
+        assertEquals(1, memo.misses());
+        assertThrows(UnsupportedOperationException.class, () -> first.add(book(1, 10.0, 2020)));
+    }
+    
+    @Test
+    void testWriteInvalidatesOnlyAffectedTypes() {
+        QueryMemo.Key books = QueryMemo.Key.type(Material.MaterialType.BOOK);
+        QueryMemo.Key ebooks = QueryMemo.Key.type(Material.MaterialType.E_BOOK);
+        List<Material> bookResult = query(books);
+        List<Material> ebookResult = query(ebooks);
+        
+        write(ebook(1, 10.0, 2020));
+        
+        assertSame(bookResult, query(books));
+        assertNotSame(ebookResult, query(ebooks));
+    }
+    
+    @Test
+    void testWriteInvalidatesOnlyOverlappingPriceRanges() {
+        QueryMemo.Key cheap = QueryMemo.Key.priceRange(0, 20);
+        QueryMemo.Key dear = QueryMemo.Key.priceRange(50, 100);
+        List<Material> cheapResult = query(cheap);
+        List<Material> dearResult = query(dear);
+        
+        write(book(1, 19.99, 2020));
+        
+        assertNotSame(cheapResult, query(cheap));
+        assertSame(dearResult, query(dear));
+    }
+    
+    @Test
+    void testWriteInvalidatesOnlyCoveringYears() {
+        QueryMemo.Key recent = QueryMemo.Key.yearAtLeast(2020);
+        QueryMemo.Key year = QueryMemo.Key.year(2021);
+        List<Material> recentResult = query(recent);
+        List<Material> yearResult = query(year);
+        
+        write(book(1, 10.0, 2010));
+        assertSame(recentResult, query(recent));
+        
+        write(book(2, 10.0, 2024));
+        assertNotSame(recentResult, query(recent));
+        assertSame(yearResult, query(year));
+    }
+    
+    @Test
+    void testResultComputedDuringWriteIsNotReused() {
+        QueryMemo.Key books = QueryMemo.Key.type(Material.MaterialType.BOOK);
+        Material racing = book(1, 10.0, 2020);
+        
+        // The write lands while the query runs, after the query read the version
+        List<Material> stale = memo.get(books, version::get, () -> {
+            write(racing);
+            return new ArrayList<>();
+        });
+        
+        assertNotSame(stale, query(books));
+    }
+    
+    @Test
+    void testClearAndBound() {
+        List<Material> result = query(QueryMemo.Key.year(2000));
+        memo.clear(version.incrementAndGet());
+        assertNotSame(result, query(QueryMemo.Key.year(2000)));
+        
+        for (int year = 2001; year < 2010; year++) {
+            query(QueryMemo.Key.year(year));
+        }
+        assertTrue(memo.size() <= 4);
+        assertThrows(IllegalArgumentException.class, () -> new QueryMemo(0));
+    }
+    
+    @Test
+    void testEvictsUnreferencedEntryFirst() {
+        List<Material> first = query(QueryMemo.Key.year(2001));
+        query(QueryMemo.Key.year(2002));
+        query(QueryMemo.Key.year(2003));
+        List<Material> fourth = query(QueryMemo.Key.year(2004));
+        query(QueryMemo.Key.year(2001));
+        query(QueryMemo.Key.year(2002));
+        query(QueryMemo.Key.year(2003));
+        
+        query(QueryMemo.Key.year(2005));
+        
+        assertEquals(4, memo.size());
+        assertSame(first, query(QueryMemo.Key.year(2001)));
+        assertNotSame(fourth, query(QueryMemo.Key.year(2004)));
+    }
+    
+    @Test
+    void testPriceBandsAreLogScaledAndBounded() {
+        QueryMemo.Key cheap = QueryMemo.Key.priceRange(0, 20);
+        QueryMemo.Key wide = QueryMemo.Key.priceRange(0, Double.MAX_VALUE);
+        List<Material> cheapResult = query(cheap);
+        List<Material> wideResult = query(wide);
+        
+        write(book(1, 1_000_000.0, 2020));
+        
+        assertSame(cheapResult, query(cheap));
+        assertNotSame(wideResult, query(wide));
+        
+        write(book(2, 0.5, 1450));
+        assertNotSame(cheapResult, query(cheap));
+    }
+    
+    private List<Material> query(QueryMemo.Key key) {
+        return memo.get(key, version::get, () -> {
+            computations.incrementAndGet();
+            return new ArrayList<>();
+        });
+    }
+    
+    private void write(Material material) {
+        memo.stamp(material, version.incrementAndGet());
+    }
+    
+    private static Material book(int seed, double price, int year) {
+        return new PrintedBook(String.format("978%010d", seed), "Book " + seed, "Author",
+            price, year, 100, "Publisher", false);
+    }
+    
+    private static Material ebook(int seed, double price, int year) {
+        return new EBook("E" + seed, "EBook " + seed, "Author", price, year,
+            "PDF", 1.0, false, 50, Media.MediaQuality.HIGH);
+    }
+}
\ No newline at end of file
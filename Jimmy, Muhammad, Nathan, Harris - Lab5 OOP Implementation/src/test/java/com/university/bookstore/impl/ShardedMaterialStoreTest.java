@@ -0,0 +1,192 @@
+package com.university.bookstore.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.api.MaterialPage;
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.model.AudioBook;
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Magazine;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+
+class ShardedMaterialStoreTest {
+    
+    private ShardedMaterialStore store;
+    private MaterialStoreImpl reference;
+    
+    @BeforeEach
+    void setUp() {
+        store = new ShardedMaterialStore(4);
+        reference = new MaterialStoreImpl();
+        for (int i = 0; i < 40; i++) {
+            Material material = createMaterial(i);
+            store.addMaterial(material);
+            reference.addMaterial(material);
+        }
+    }
+    
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+    
+    @Test
+    void testRoutingAndCrud() {
+        assertEquals(4, store.getShardCount());
+        assertEquals(40, store.size());
+        
+        Material material = createMaterial(7);
+        assertSame(store.shardFor(material.getId()), store.shardFor(material.getId()));
+        assertEquals(material, store.findById(material.getId()).orElseThrow());
+        assertFalse(store.addMaterial(material));
+        
+        assertEquals(material, store.removeMaterial(material.getId()).orElseThrow());
+        assertTrue(store.findById(material.getId()).isEmpty());
+        assertTrue(store.removeMaterial(material.getId()).isEmpty());
+        assertEquals(39, store.size());
+        
+        assertThrows(NullPointerException.class, () -> store.addMaterial(null));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedMaterialStore(0));
+    }
+    
+    @Test
+    void testMaterialsSpreadAcrossShards() {
+        long usedShards = store.getAllMaterials().stream()
+            .map(m -> store.shardFor(m.getId()))
+            .distinct()
+            .count();
+        assertEquals(4, usedShards);
+    }
+    
+    @Test
+    void testSortedOutputMatchesSingleStore() {
+        assertEquals(reference.getAllMaterialsSorted(), store.getAllMaterialsSorted());
+        
+        Comparator<Material> byPrice = Comparator.comparingDouble(Material::getPrice)
+            .thenComparing(Material::getId);
+        assertEquals(reference.getSorted(byPrice), store.getSorted(byPrice));
+    }
+    
+    @Test
+    void testFanOutQueriesMatchSingleStore() {
+        assertEquals(sortedIds(reference.getAllMaterials()), sortedIds(store.getAllMaterials()));
+        assertEquals(sortedIds(reference.getMaterialsByType(Material.MaterialType.E_BOOK)),
+            sortedIds(store.getMaterialsByType(Material.MaterialType.E_BOOK)));
+        assertEquals(sortedIds(reference.getMaterialsByPriceRange(20.0, 40.0)),
+            sortedIds(store.getMaterialsByPriceRange(20.0, 40.0)));
+        assertEquals(sortedIds(reference.searchByTitle("Guide")), sortedIds(store.searchByTitle("Guide")));
+        assertEquals(reference.getMediaMaterials().size(), store.getMediaMaterials().size());
+        assertEquals(reference.getTotalInventoryValue(), store.getTotalInventoryValue(), 0.001);
+        assertEquals(reference.getTotalDiscountedValue(), store.getTotalDiscountedValue(), 0.001);
+    }
+    
+    @Test
+    void testTopKMatchesSingleStore() {
+        assertEquals(prices(reference.findCheapest(5, null)), prices(store.findCheapest(5, null)));
+        assertEquals(prices(reference.findMostExpensive(5, Material.MaterialType.E_BOOK)),
+            prices(store.findMostExpensive(5, Material.MaterialType.E_BOOK)));
+        assertEquals(reference.findNewest(3, null).stream().map(Material::getYear).toList(),
+            store.findNewest(3, null).stream().map(Material::getYear).toList());
+        assertEquals(prices(reference.topK(4, Comparator.comparing(Material::getTitle), null)),
+            prices(store.topK(4, Comparator.comparing(Material::getTitle), null)));
+    }
+    
+    @Test
+    void testPagesMatchSingleStore() {
+        MaterialPage.Cursor cursor = null;
+        for (int i = 0; i < 3; i++) {
+            MaterialPage expected = reference.getSortedPage(cursor, 7);
+            MaterialPage actual = store.getSortedPage(cursor, 7);
+            assertEquals(expected, actual);
+            cursor = actual.next().orElseThrow();
+        }
+        assertEquals(reference.searchByTitlePage("Guide", null, 5), store.searchByTitlePage("Guide", null, 5));
+        assertEquals(reference.streamMaterials().count(), store.streamMaterials().count());
+    }
+    
+    @Test
+    void testMergedStatsMatchSingleStore() {
+        assertStatsEqual(reference.getInventoryStats(), store.getInventoryStats());
+        assertSame(store.getInventoryStats(), store.getInventoryStats());
+        
+        store.removeMaterial(createMaterial(3).getId());
+        reference.removeMaterial(createMaterial(3).getId());
+        assertStatsEqual(reference.getInventoryStats(), store.getInventoryStats());
+        
+        store.clearInventory();
+        assertTrue(store.isEmpty());
+        assertEquals(0, store.getInventoryStats().getTotalCount());
+    }
+    
+    @Test
+    void testConcurrentAdds() throws InterruptedException {
+        ShardedMaterialStore concurrent = new ShardedMaterialStore(8);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            int offset = t * 250;
+            executor.submit(() -> {
+                for (int i = 0; i < 250; i++) {
+                    concurrent.addMaterial(createMaterial(1000 + offset + i));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        
+        assertEquals(1000, concurrent.size());
+        assertEquals(1000, concurrent.getInventoryStats().getTotalCount());
+    }
+    
+    private static List<Double> prices(List<Material> materials) {
+        return materials.stream().map(Material::getPrice).toList();
+    }
+    
+    private static void assertStatsEqual(MaterialStore.InventoryStats expected, MaterialStore.InventoryStats actual) {
+        assertEquals(expected.getTotalCount(), actual.getTotalCount());
+        assertEquals(expected.getAveragePrice(), actual.getAveragePrice(), 0.001);
+        assertEquals(expected.getMedianPrice(), actual.getMedianPrice(), 0.001);
+        assertEquals(expected.getUniqueTypes(), actual.getUniqueTypes());
+        assertEquals(expected.getMediaCount(), actual.getMediaCount());
+        assertEquals(expected.getPrintCount(), actual.getPrintCount());
+    }
+    
+    private static List<String> sortedIds(List<? extends Material> materials) {
+        List<String> ids = new ArrayList<>();
+        for (Material material : materials) {
+            ids.add(material.getId());
+        }
+        ids.sort(null);
+        return ids;
+    }
+    
+    private static Material createMaterial(int seed) {
+        switch (seed % 4) {
+            case 0:
+                return new EBook("E-" + seed, "Java Guide " + seed, "Author " + (seed % 5),
+                    10.0 + seed, 2000 + (seed % 24), "EPUB", 2.5, seed % 3 == 0, 50000, Media.MediaQuality.HIGH);
+            case 1:
+                return new PrintedBook(String.format("978%010d", seed), "Printed " + seed, "Author " + (seed % 5),
+                    15.0 + seed, 2000 + (seed % 24), 300, "Publisher", true);
+            case 2:
+                return new Magazine(String.format("%08d", seed), "Magazine " + seed, "Publisher",
+                    5.0 + seed, 2000 + (seed % 24), 1 + seed % 12, "Monthly", "Tech");
+            default:
+                return new AudioBook(String.format("979%010d", seed), "Audio Guide " + seed, "Author " + (seed % 5),
+                    "Narrator", 20.0 + seed, 2000 + (seed % 24), 300, "MP3", 50.0,
+                    Media.MediaQuality.STANDARD, "English", seed % 2 == 0);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.university.bookstore.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.api.MaterialPage;
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+
+class TrigramIndexedMaterialStoreTest {
+    
+    private TrigramIndexedMaterialStore store;
+    private Material javaBook;
+    private Material pythonEBook;
+    
+    @BeforeEach
+    void setUp() {
+        MaterialStoreImpl delegate = new MaterialStoreImpl();
+        javaBook = new PrintedBook("9781234567890", "Java Programming", "John Doe", 49.99, 2020, 500, "Tech Press", false);
+        delegate.addMaterial(javaBook);
+        store = new TrigramIndexedMaterialStore(delegate);
+        pythonEBook = new EBook("E001", "Python Basics", "Jane Smith", 19.99, 2022, "PDF", 2.0, false, 80, Media.MediaQuality.HIGH);
+        store.addMaterial(pythonEBook);
+    }
+    
+    @Test
+    void testIndexesExistingAndNewMaterials() {
+        assertEquals(2, store.getTextIndex().size());
+        assertEquals(List.of(javaBook), store.searchByTitle(" PROGRAM "));
+        assertEquals(List.of(pythonEBook), store.searchByCreator("smith"));
+        assertTrue(store.searchByTitle("   ").isEmpty());
+        assertTrue(store.searchByTitle(null).isEmpty());
+    }
+    
+    @Test
+    void testTitlePagesMatchDelegate() {
+        MaterialStoreImpl plain = new MaterialStoreImpl();
+        plain.addMaterial(javaBook);
+        plain.addMaterial(pythonEBook);
+        for (int i = 0; i < 12; i++) {
+            Material material = new EBook("E1" + i, "Java Volume " + (i % 5), "Author", 10.0 + i, 2021,
+                "PDF", 1.0, false, 10, Media.MediaQuality.HIGH);
+            store.addMaterial(material);
+            plain.addMaterial(material);
+        }
+        store.removeMaterial("E13");
+        plain.removeMaterial("E13");
+        
+        assertEquals(plain.searchByTitle("java", 3, 4), store.searchByTitle("java", 3, 4));
+        assertEquals(plain.searchByTitle("java"), store.searchByTitle("java"));
+        assertTrue(store.searchByTitle(null, 0, 4).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> store.searchByTitle("java", -1, 4));
+        
+        MaterialPage.Cursor cursor = null;
+        do {
+            MaterialPage expected = plain.searchByTitlePage("VOLUME", cursor, 3);
+            MaterialPage page = store.searchByTitlePage("VOLUME", cursor, 3);
+            assertEquals(expected, page);
+            cursor = page.next().orElse(null);
+        } while (cursor != null);
+        assertTrue(store.searchByTitlePage(" ", null, 3).items().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> store.searchByTitlePage("java", null, 0));
+    }
+    
+    @Test
+    void testIndexFollowsDelegateOutcome() {
+        assertFalse(store.addMaterial(javaBook));
+        assertEquals(2, store.getTextIndex().size());
+        
+        store.removeMaterial("9781234567890");
+        assertTrue(store.searchByTitle("java").isEmpty());
+        assertTrue(store.removeMaterial("9781234567890").isEmpty());
+        
+        store.clearInventory();
+        assertTrue(store.isEmpty());
+        assertTrue(store.searchByTitle("python").isEmpty());
+        assertThrows(NullPointerException.class, () -> store.addMaterial(null));
+    }
+}
\ No newline at end of file
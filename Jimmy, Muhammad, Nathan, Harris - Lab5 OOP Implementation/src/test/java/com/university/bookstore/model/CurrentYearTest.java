@@ -0,0 +1,69 @@
+package com.university.bookstore.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the shared current-year provider.
+ */
+@DisplayName("Current Year Provider Tests")
+class CurrentYearTest {
+    
+    @AfterEach
+    void tearDown() {
+        CurrentYear.useSystemClock();
+    }
+    
+    @Test
+    @DisplayName("System clock matches Year.now()")
+    void testSystemClock() {
+        assertEquals(Year.now().getValue(), CurrentYear.get());
+        assertTrue(CurrentYear.endOfMonth() > CurrentYear.millis());
+    }
+    
+    @Test
+    @DisplayName("Fixed clock drives year, month and month end")
+    void testFixedClock() {
+        CurrentYear.setClock(Clock.fixed(Instant.parse("2030-12-31T23:00:00Z"), ZoneOffset.UTC));
+        
+        assertEquals(2030, CurrentYear.get());
+        assertEquals(12, CurrentYear.monthOfYear());
+        assertEquals(Instant.parse("2031-01-01T00:00:00Z").toEpochMilli(), CurrentYear.endOfMonth());
+        
+        // The same instant is already next year further east
+        CurrentYear.setClock(Clock.fixed(Instant.parse("2030-12-31T23:00:00Z"), ZoneId.of("Asia/Tokyo")));
+        assertEquals(2031, CurrentYear.get());
+        assertEquals(1, CurrentYear.monthOfYear());
+    }
+    
+    @Test
+    @DisplayName("Year validation and discounts follow the shared clock")
+    void testValidationAndDiscountsFollowClock() {
+        CurrentYear.setClock(Clock.fixed(Instant.parse("2030-06-15T00:00:00Z"), ZoneOffset.UTC));
+        
+        assertDoesNotThrow(() -> new Book("9780134685991", "Future", "Author", 10.0, 2031));
+        assertThrows(IllegalArgumentException.class,
+            () -> new Book("9780134685991", "Future", "Author", 10.0, 2032));
+        assertEquals(0.15, new PrintedBook("9780134685991", "Old", "Author", 10.0, 2027,
+            100, "Publisher", false).getDiscountRate());
+        
+        CurrentYear.setClock(Clock.fixed(Instant.parse("2028-06-15T00:00:00Z"), ZoneOffset.UTC));
+        assertEquals(0.0, new PrintedBook("9780134685991", "Old", "Author", 10.0, 2027,
+            100, "Publisher", false).getDiscountRate());
+    }
+    
+    @Test
+    @DisplayName("Null clock is rejected")
+    void testNullClock() {
+        assertThrows(NullPointerException.class, () -> CurrentYear.setClock(null));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.university.bookstore.performance;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.university.bookstore.impl.AsyncExecutionStrategy;
+import com.university.bookstore.impl.ModernConcurrentMaterialStore;
+import com.university.bookstore.model.Material;
+
+/**
+ * JMH benchmark for the latency of {@link ModernConcurrentMaterialStore#findByIdAsync}
+ * and {@link ModernConcurrentMaterialStore#addMaterialAsync} under each
+ * {@link AsyncExecutionStrategy.Mode}.
+ * 
+ * <p>The lookup itself costs well under a microsecond, so the POOLED figures are
+ * dominated by the hand-off to the pool and the wake-up of the joining thread, which
+ * ADAPTIVE mode avoids by completing inline.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2G", "-Xmx2G"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class AsyncDispatchBenchmark {
+    
+    private static final int SIZE = 100000;
+    
+    @Param({"POOLED", "ADAPTIVE"})
+    private AsyncExecutionStrategy.Mode mode;
+    
+    private ModernConcurrentMaterialStore store;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        store = new ModernConcurrentMaterialStore();
+        for (int i = 0; i < SIZE; i++) {
+            store.addMaterial(BenchmarkMaterials.create(i));
+        }
+        store.getAsyncExecution().setMode(mode);
+        next = SIZE;
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close();
+    }
+    
+    @Benchmark
+    public Optional<Material> findByIdAsync() {
+        return store.findByIdAsync("E-" + (next++ % SIZE & ~1)).join();
+    }
+    
+    @Benchmark
+    public Boolean addMaterialAsync() {
+        return store.addMaterialAsync(BenchmarkMaterials.create(next++)).join();
+    }
+}
\ No newline at end of file
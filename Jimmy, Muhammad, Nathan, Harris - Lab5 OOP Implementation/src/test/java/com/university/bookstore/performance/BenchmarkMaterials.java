@@ -0,0 +1,39 @@
+package com.university.bookstore.performance;
+
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+
+/**
+ * Deterministic materials shared by the benchmarks, so every benchmark measures the
+ * same catalog shape.
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+final class BenchmarkMaterials {
+    
+    private BenchmarkMaterials() {
+        // Utility class
+    }
+    
+    /**
+     * Creates the material for a seed: an e-book for even seeds with ID {@code "E-" + seed},
+     * a printed book for odd ones. Titles, creators, prices and years cycle with the seed.
+     * 
+     * @param seed the seed
+     * @return the material
+     */
+    static Material create(int seed) {
+        if (seed % 2 == 0) {
+            return new EBook("E-" + seed, "Java Programming Guide " + seed, "Author " + (seed % 100),
+                           9.99 + (seed % 90), 2000 + (seed % 24),
+                           "EPUB", 2.5, seed % 3 == 0, 50000, Media.MediaQuality.HIGH);
+        }
+        return new PrintedBook(String.format("978%010d", seed), "Advanced Java " + seed, "Author " + (seed % 100),
+                             19.99 + (seed % 80), 2000 + (seed % 24),
+                             300, "Publisher", true);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.university.bookstore.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.university.bookstore.api.ModernMaterialStore.BatchOperationResult;
+import com.university.bookstore.impl.ModernConcurrentMaterialStore;
+import com.university.bookstore.model.Material;
+
+/**
+ * JMH benchmark for loading a {@link ModernConcurrentMaterialStore} from scratch.
+ * 
+ * <p>Each invocation builds and closes a fresh store, comparing the bulk constructor
+ * and {@code addMaterialsBatch} against adding one material at a time, and against the
+ * previous constructor and batch implementations.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms4G", "-Xmx4G"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BulkLoadBenchmark {
+    
+    @Param({"100000", "1000000"})
+    private int size;
+    
+    private List<Material> materials;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        materials = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            materials.add(BenchmarkMaterials.create(i));
+        }
+    }
+    
+    @Benchmark
+    public int bulkConstructor() {
+        try (ModernConcurrentMaterialStore store = new ModernConcurrentMaterialStore(materials)) {
+            return store.size();
+        }
+    }
+    
+    @Benchmark
+    public BatchOperationResult batchAdd() {
+        try (ModernConcurrentMaterialStore store = new ModernConcurrentMaterialStore()) {
+            return store.addMaterialsBatch(materials);
+        }
+    }
+    
+    @Benchmark
+    public int sequentialAdd() {
+        try (ModernConcurrentMaterialStore store = new ModernConcurrentMaterialStore()) {
+            for (Material material : materials) {
+                store.addMaterial(material);
+            }
+            return store.size();
+        }
+    }
+    
+    /**
+     * The previous constructor implementation, for reference.
+     */
+    @Benchmark
+    public int parallelPerItemAdd() {
+        try (ModernConcurrentMaterialStore store = new ModernConcurrentMaterialStore()) {
+            materials.parallelStream().forEach(store::addMaterial);
+            return store.size();
+        }
+    }
+    
+    /**
+     * The previous batch implementation, one future per material, for reference.
+     */
+    @Benchmark
+    public Map<String, Boolean> perItemFutures() {
+        try (ModernConcurrentMaterialStore store = new ModernConcurrentMaterialStore()) {
+            List<CompletableFuture<Map.Entry<String, Boolean>>> futures = materials.stream()
+                .map(material -> CompletableFuture.supplyAsync(
+                    () -> Map.entry(material.getId(), store.addMaterial(material))))
+                .toList();
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> futures.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)))
+                .join();
+        }
+    }
+}
\ No newline at end of file
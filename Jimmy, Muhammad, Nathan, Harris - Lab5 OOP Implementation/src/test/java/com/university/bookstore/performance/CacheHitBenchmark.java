@@ -0,0 +1,90 @@
+package com.university.bookstore.performance;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.search.ModernSearchCache;
+
+/**
+ * JMH benchmark for the hit path of {@link ModernSearchCache}.
+ * 
+ * <p>Every key is cached, so each call is a hit. Run with {@code -prof gc} to see the
+ * bytes allocated per hit next to the latency.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2G", "-Xmx2G"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class CacheHitBenchmark {
+    
+    private static final int KEYS = 10000;
+    
+    private ModernSearchCache cache;
+    private String[] keys;
+    private List<Material> results;
+    private Function<String, List<Material>> loader;
+    private Function<String, CompletableFuture<List<Material>>> asyncLoader;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        results = List.of(
+            new PrintedBook("9780000000001", "Java Basics", "Author", 29.99, 2020, 300, "Publisher", false),
+            new PrintedBook("9780000000002", "Java Advanced", "Author", 39.99, 2021, 400, "Publisher", false));
+        loader = key -> results;
+        asyncLoader = key -> CompletableFuture.completedFuture(results);
+        
+        cache = new ModernSearchCache(2 * KEYS, Duration.ofHours(1), Duration.ofHours(1));
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "prefix:query-" + i;
+            cache.put(keys[i], results);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cache.close();
+    }
+    
+    @Benchmark
+    public List<Material> hit() {
+        return cache.get(keys[ThreadLocalRandom.current().nextInt(KEYS)], loader);
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public List<Material> hitFourThreads() {
+        return cache.get(keys[ThreadLocalRandom.current().nextInt(KEYS)], loader);
+    }
+    
+    @Benchmark
+    public CompletableFuture<List<Material>> hitAsync() {
+        return cache.getAsync(keys[ThreadLocalRandom.current().nextInt(KEYS)], asyncLoader);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.university.bookstore.performance;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.search.ModernSearchCache;
+
+/**
+ * Replays synthetic query traces against {@link ModernSearchCache} and reports its hit
+ * ratio next to that of a plain LRU cache of the same capacity.
+ * 
+ * <p>Before W-TinyLFU the cache admitted every key and trimmed the least recently
+ * accessed entries, and only from periodic maintenance, so a strict LRU bounded on
+ * every put is the best the previous policy could do. Three traces are replayed:
+ * Zipf-distributed prefixes, the same with one-off long-tail queries mixed in, and a
+ * Zipf trace whose popular keys change halfway through.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+public class CacheTraceReplay {
+    
+    private static final int DISTINCT_KEYS = 50000;
+    private static final int REQUESTS = 500000;
+    private static final double ZIPF_EXPONENT = 0.9;
+    private static final List<Material> RESULT = List.of(
+        new PrintedBook("9780000000000", "Java Book", "Author", 29.99, 2020, 300, "Publisher", false));
+    
+    /**
+     * Replays every trace at several cache sizes and prints the hit ratios.
+     * 
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        Map<String, String[]> traces = new LinkedHashMap<>();
+        traces.put("zipf", zipfTrace(REQUESTS, 0.0, false, 42));
+        traces.put("zipf + one-off queries", zipfTrace(REQUESTS, 0.3, false, 42));
+        traces.put("zipf, popularity shift", zipfTrace(REQUESTS, 0.0, true, 42));
+        
+        System.out.printf("%-24s %8s %10s %10s%n", "trace", "capacity", "LRU", "W-TinyLFU");
+        for (Map.Entry<String, String[]> trace : traces.entrySet()) {
+            for (int capacity : new int[] {500, 2000, 8000}) {
+                System.out.printf("%-24s %8d %9.2f%% %9.2f%%%n", trace.getKey(), capacity,
+                    100 * lruHitRatio(trace.getValue(), capacity),
+                    100 * modernCacheHitRatio(trace.getValue(), capacity));
+            }
+        }
+    }
+    
+    /**
+     * Builds a trace of prefix keys.
+     * 
+     * @param requests the trace length
+     * @param oneOffShare the share of requests for keys that never recur
+     * @param shift whether the popular keys change halfway through
+     * @param seed the random seed
+     * @return the keys in request order
+     */
+    static String[] zipfTrace(int requests, double oneOffShare, boolean shift, long seed) {
+        double[] cumulative = new double[DISTINCT_KEYS];
+        double sum = 0;
+        for (int rank = 0; rank < DISTINCT_KEYS; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cumulative[rank] = sum;
+        }
+        
+        Random random = new Random(seed);
+        String[] trace = new String[requests];
+        for (int i = 0; i < requests; i++) {
+            if (random.nextDouble() < oneOffShare) {
+                trace[i] = "prefix:once-" + i;
+                continue;
+            }
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            rank = rank < 0 ? -rank - 1 : rank;
+            if (shift && i >= requests / 2) {
+                rank = DISTINCT_KEYS - 1 - rank;
+            }
+            trace[i] = "prefix:" + rank;
+        }
+        return trace;
+    }
+    
+    /**
+     * Replays a trace through {@link ModernSearchCache#get}, loading on every miss.
+     * 
+     * @param trace the keys in request order
+     * @param capacity the cache size
+     * @return the hit ratio
+     */
+    static double modernCacheHitRatio(String[] trace, int capacity) {
+        try (ModernSearchCache cache = new ModernSearchCache(capacity, Duration.ofHours(1), Duration.ofHours(1))) {
+            for (String key : trace) {
+                cache.get(key, k -> RESULT);
+            }
+            return cache.getStats().hitRate();
+        }
+    }
+    
+    /**
+     * Replays a trace through a strict LRU cache.
+     * 
+     * @param trace the keys in request order
+     * @param capacity the cache size
+     * @return the hit ratio
+     */
+    static double lruHitRatio(String[] trace, int capacity) {
+        Map<String, List<Material>> lru = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<Material>> eldest) {
+                return size() > capacity;
+            }
+        };
+        long hits = 0;
+        for (String key : trace) {
+            if (lru.get(key) != null) {
+                hits++;
+            } else {
+                lru.put(key, RESULT);
+            }
+        }
+        return (double) hits / trace.length;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.university.bookstore.performance;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.university.bookstore.impl.ModernConcurrentMaterialStore;
+import com.university.bookstore.impl.ModernConcurrentMaterialStore.ConcurrencyMode;
+import com.university.bookstore.model.Material;
+
+/**
+ * JMH benchmark comparing the lock-free and StampedLock modes of
+ * {@link ModernConcurrentMaterialStore} under a mixed 95% read / 5% write load.
+ * 
+ * <p>Reads are mostly ID lookups with an occasional type scan, mirroring the REST
+ * traffic; writes add and remove materials from a churn range so the catalog size
+ * stays stable. In StampedLock mode reads run optimistically or always take the read
+ * lock; the read counters are printed after each trial. Run {@link #main(String[])}
+ * to sweep 1 to 32 threads.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2G", "-Xmx2G"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class ConcurrentStoreContentionBenchmark {
+    
+    private static final int CATALOG_SIZE = 10000;
+    private static final int CHURN_SIZE = 1000;
+    private static final int WRITE_PERCENT = 5;
+    private static final int SCAN_EVERY = 50;
+    
+    @Param({"LOCK_FREE", "STAMPED_LOCK"})
+    private ConcurrencyMode mode;
+    
+    @Param({"true", "false"})
+    private boolean optimisticReads;
+    
+    private ModernConcurrentMaterialStore store;
+    private String[] ids;
+    private Material[] churn;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        store = new ModernConcurrentMaterialStore(mode);
+        store.setOptimisticReads(optimisticReads);
+        ids = new String[CATALOG_SIZE];
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            Material material = BenchmarkMaterials.create(i);
+            ids[i] = material.getId();
+            store.addMaterial(material);
+        }
+        
+        churn = new Material[CHURN_SIZE];
+        for (int i = 0; i < CHURN_SIZE; i++) {
+            churn[i] = BenchmarkMaterials.create(CATALOG_SIZE + i);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println(store.getReadStats());
+        store.close();
+    }
+    
+    @Benchmark
+    public void mixedReadWrite(Blackhole blackhole) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        
+        if (roll < WRITE_PERCENT) {
+            Material material = churn[random.nextInt(CHURN_SIZE)];
+            if (!store.addMaterial(material)) {
+                blackhole.consume(store.removeMaterial(material.getId()));
+            }
+        } else if (roll % SCAN_EVERY == 0) {
+            blackhole.consume(store.getMaterialsByType(Material.MaterialType.E_BOOK));
+        } else {
+            blackhole.consume(store.findById(ids[random.nextInt(CATALOG_SIZE)]));
+        }
+    }
+    
+    /**
+     * Runs the benchmark for 1, 2, 4, 8, 16 and 32 threads.
+     * 
+     * @param args unused
+     * @throws RunnerException if JMH fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] {1, 2, 4, 8, 16, 32}) {
+            Options options = new OptionsBuilder()
+                .include(ConcurrentStoreContentionBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.university.bookstore.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.university.bookstore.impl.ModernConcurrentMaterialStore;
+import com.university.bookstore.model.Material;
+
+/**
+ * JMH benchmark for the inventory value totals of {@link ModernConcurrentMaterialStore}
+ * at 1K, 100K and 1M materials.
+ * 
+ * <p>Compares the maintained running sums against the exact recompute mode, and against
+ * the parallel stream the store used before the totals were maintained.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms4G", "-Xmx4G"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class InventoryTotalsBenchmark {
+    
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+    
+    @Param({"false", "true"})
+    private boolean exactTotals;
+    
+    private ModernConcurrentMaterialStore store;
+    private List<Material> materials;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        store = new ModernConcurrentMaterialStore();
+        store.setExactTotals(exactTotals);
+        materials = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Material material = BenchmarkMaterials.create(i);
+            materials.add(material);
+            store.addMaterial(material);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close();
+    }
+    
+    @Benchmark
+    public double totalInventoryValue() {
+        return store.getTotalInventoryValue();
+    }
+    
+    @Benchmark
+    public double totalDiscountedValue() {
+        return store.getTotalDiscountedValue();
+    }
+    
+    @Benchmark
+    public double totalDiscountAmount() {
+        return store.getTotalDiscountAmount();
+    }
+    
+    /**
+     * The pre-aggregation implementation, for reference.
+     */
+    @Benchmark
+    public double parallelStreamTotal() {
+        return materials.parallelStream()
+            .mapToDouble(Material::getDiscountedPrice)
+            .sum();
+    }
+}
\ No newline at end of file
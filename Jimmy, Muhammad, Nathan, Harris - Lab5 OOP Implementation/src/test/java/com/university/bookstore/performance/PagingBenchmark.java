@@ -0,0 +1,85 @@
+package com.university.bookstore.performance;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.university.bookstore.api.MaterialPage;
+import com.university.bookstore.impl.ModernConcurrentMaterialStore;
+import com.university.bookstore.model.Material;
+
+/**
+ * JMH benchmark for serving one 50-item page of a broad title search, or of the whole
+ * catalog, from a {@link ModernConcurrentMaterialStore}.
+ * 
+ * <p>Compares offset and keyset pages against materializing the full result and
+ * slicing it. Run with {@code -prof gc} to compare allocation per request, which is
+ * bounded by the page size for the paged variants.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2G", "-Xmx2G"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class PagingBenchmark {
+    
+    private static final int PAGE_SIZE = 50;
+    
+    @Param({"100000", "1000000"})
+    private int size;
+    
+    private ModernConcurrentMaterialStore store;
+    private MaterialPage.Cursor deepCursor;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        store = new ModernConcurrentMaterialStore();
+        for (int i = 0; i < size; i++) {
+            store.addMaterial(BenchmarkMaterials.create(i));
+        }
+        deepCursor = MaterialPage.Cursor.after(store.getAllMaterialsSorted().get(size / 2));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close();
+    }
+    
+    @Benchmark
+    public List<Material> fullSearchThenSlice() {
+        return store.searchByTitle("java").subList(0, PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public List<Material> offsetPage() {
+        return store.searchByTitle("java", PAGE_SIZE, PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public MaterialPage keysetSearchPage() {
+        return store.searchByTitlePage("guide 1", null, PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public MaterialPage deepSortedPage() {
+        return store.getSortedPage(deepCursor, PAGE_SIZE);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.university.bookstore.performance;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.university.bookstore.impl.ModernConcurrentMaterialStore;
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+
+/**
+ * JMH benchmark for the typical REST reads of {@link ModernConcurrentMaterialStore}:
+ * materials of one type, recent materials and a price range.
+ * 
+ * <p>The {@code repeated} variants measure a memo hit. The {@code afterUnrelatedWrite}
+ * variants add and remove a printed book priced and dated outside every query between
+ * reads, so they should stay hits. The {@code afterAffectingWrite} variant does the same
+ * with an e-book, so the query is recomputed; it is the cost every read paid before
+ * memoization.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2G", "-Xmx2G"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class QueryMemoBenchmark {
+    
+    @Param({"100000", "1000000"})
+    private int size;
+    
+    private ModernConcurrentMaterialStore store;
+    private Material unrelated;
+    private Material affecting;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        store = new ModernConcurrentMaterialStore();
+        for (int i = 0; i < size; i++) {
+            store.addMaterial(BenchmarkMaterials.create(i));
+        }
+        unrelated = new PrintedBook("9999999999999", "Unrelated", "Author", 500.0, 1950, 100, "Publisher", false);
+        affecting = new EBook("E-NEW", "Affecting", "Author", 15.0, 2024,
+                              "EPUB", 2.5, false, 50000, Media.MediaQuality.HIGH);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close();
+    }
+    
+    @Benchmark
+    public List<Material> typeRepeated() {
+        return store.getMaterialsByType(Material.MaterialType.E_BOOK);
+    }
+    
+    @Benchmark
+    public List<Material> recentRepeated() {
+        return store.findRecentMaterials(5);
+    }
+    
+    @Benchmark
+    public List<Material> priceRangeRepeated() {
+        return store.getMaterialsByPriceRange(0, 20);
+    }
+    
+    @Benchmark
+    public List<Material> typeAfterUnrelatedWrite() {
+        store.addMaterial(unrelated);
+        store.removeMaterial(unrelated.getId());
+        return store.getMaterialsByType(Material.MaterialType.E_BOOK);
+    }
+    
+    @Benchmark
+    public List<Material> typeAfterAffectingWrite() {
+        store.addMaterial(affecting);
+        store.removeMaterial(affecting.getId());
+        return store.getMaterialsByType(Material.MaterialType.E_BOOK);
+    }
+}
\ No newline at end of file
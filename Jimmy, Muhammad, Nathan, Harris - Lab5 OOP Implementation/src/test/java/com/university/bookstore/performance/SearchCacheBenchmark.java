@@ -0,0 +1,115 @@
+package com.university.bookstore.performance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.search.SearchResultCache;
+
+/**
+ * JMH benchmark for {@link SearchResultCache} under 16 threads.
+ * 
+ * <p>Compares the CLOCK cache, whose hits take no lock, with the conventional O(1)
+ * LRU: an access-ordered {@link LinkedHashMap} behind a single lock, which every hit
+ * must take to relink its entry. The hit benchmarks read keys already cached; the
+ * mixed benchmarks draw keys from twice the capacity and put on a miss, so about half
+ * the calls evict.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Threads(16)
+@Fork(value = 1, jvmArgs = {"-Xms2G", "-Xmx2G"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class SearchCacheBenchmark {
+    
+    @Param({"10000", "100000"})
+    private int size;
+    
+    private SearchResultCache clockCache;
+    private Map<String, List<Material>> lockedLru;
+    private String[] keys;
+    private List<Material> results;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(new PrintedBook(String.format("978%010d", i), "Java Book " + i, "Author",
+                29.99, 2020, 300, "Publisher", false));
+        }
+        
+        keys = new String[2 * size];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "prefix:query-" + i;
+        }
+        
+        clockCache = new SearchResultCache(size);
+        int capacity = size;
+        lockedLru = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<Material>> eldest) {
+                return size() > capacity;
+            }
+        });
+        for (int i = 0; i < size; i++) {
+            clockCache.put(keys[i], results);
+            lockedLru.put(keys[i], Collections.unmodifiableList(new ArrayList<>(results)));
+        }
+    }
+    
+    @Benchmark
+    public Optional<List<Material>> clockHit() {
+        return clockCache.get(keys[ThreadLocalRandom.current().nextInt(size)]);
+    }
+    
+    @Benchmark
+    public List<Material> lockedLruHit() {
+        return lockedLru.get(keys[ThreadLocalRandom.current().nextInt(size)]);
+    }
+    
+    @Benchmark
+    public List<Material> clockMixed() {
+        String key = keys[ThreadLocalRandom.current().nextInt(keys.length)];
+        Optional<List<Material>> cached = clockCache.get(key);
+        return cached.isPresent() ? cached.get() : clockCache.put(key, results);
+    }
+    
+    @Benchmark
+    public List<Material> lockedLruMixed() {
+        String key = keys[ThreadLocalRandom.current().nextInt(keys.length)];
+        List<Material> cached = lockedLru.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<Material> copy = Collections.unmodifiableList(new ArrayList<>(results));
+        lockedLru.put(key, copy);
+        return copy;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.university.bookstore.performance;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.university.bookstore.impl.MaterialStoreImpl;
+import com.university.bookstore.model.Material;
+
+/**
+ * JMH benchmark for removing materials from a {@link MaterialStoreImpl} at 1K, 100K
+ * and 1M materials.
+ * 
+ * <p>Each operation removes a material from the middle of the inventory and adds it
+ * back, so the store size stays constant. The store is compared against the
+ * {@code ArrayList} plus {@code HashMap} layout it used before, where removal scanned
+ * and shifted the list.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms4G", "-Xmx4G"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class StoreRemovalBenchmark {
+    
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+    
+    private MaterialStoreImpl store;
+    private List<Material> listLayout;
+    private Map<String, Material> listLayoutIds;
+    private List<Material> materials;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        store = new MaterialStoreImpl();
+        listLayout = new ArrayList<>(size);
+        listLayoutIds = new HashMap<>();
+        materials = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Material material = BenchmarkMaterials.create(i);
+            materials.add(material);
+            store.addMaterial(material);
+            listLayout.add(material);
+            listLayoutIds.put(material.getId(), material);
+        }
+    }
+    
+    @Benchmark
+    public boolean removeAndReAdd() {
+        Material material = pick();
+        store.removeMaterial(material.getId());
+        return store.addMaterial(material);
+    }
+    
+    /**
+     * The previous layout, for reference.
+     */
+    @Benchmark
+    public boolean listLayoutRemoveAndReAdd() {
+        Material material = pick();
+        Material removed = listLayoutIds.remove(material.getId());
+        listLayout.remove(removed);
+        listLayoutIds.put(material.getId(), material);
+        return listLayout.add(material);
+    }
+    
+    /**
+     * Cycles through the middle half of the original insertion order; re-added
+     * materials move to the end, so the list layout keeps scanning past half the list.
+     */
+    private Material pick() {
+        int offset = size / 4 + next;
+        next = (next + 1) % Math.max(1, size / 2);
+        return materials.get(offset);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.university.bookstore.performance;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.university.bookstore.impl.ModernConcurrentMaterialStore;
+import com.university.bookstore.model.Material;
+
+/**
+ * JMH benchmark for the reporting views of {@link ModernConcurrentMaterialStore}.
+ * 
+ * <p>Measures {@code toString()}, now read from the running aggregates, against the
+ * three scans it used to make, and reading one group of {@code groupByType()}, now a
+ * lazy view over the type index, against grouping every material.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2G", "-Xmx2G"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class StoreSummaryBenchmark {
+    
+    @Param({"10000", "100000"})
+    private int size;
+    
+    private ModernConcurrentMaterialStore store;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        store = new ModernConcurrentMaterialStore();
+        for (int i = 0; i < size; i++) {
+            store.addMaterial(BenchmarkMaterials.create(i));
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close();
+    }
+    
+    @Benchmark
+    public String summaryToString() {
+        return store.toString();
+    }
+    
+    @Benchmark
+    public String scanningToString() {
+        List<Material> all = store.getAllMaterials();
+        return String.format("ModernConcurrentMaterialStore[Size=%d, Types=%d, Value=$%.2f]",
+            all.size(),
+            all.stream().collect(Collectors.groupingBy(Material::getType)).size(),
+            all.stream().mapToDouble(Material::getPrice).sum());
+    }
+    
+    @Benchmark
+    public int lazyGroup() {
+        return store.groupByType().get(Material.MaterialType.BOOK).size();
+    }
+    
+    @Benchmark
+    public int fullGrouping() {
+        Map<Material.MaterialType, List<Material>> groups = store.getAllMaterials().stream()
+            .collect(Collectors.groupingBy(Material::getType));
+        return groups.get(Material.MaterialType.BOOK).size();
+    }
+}
\ No newline at end of file
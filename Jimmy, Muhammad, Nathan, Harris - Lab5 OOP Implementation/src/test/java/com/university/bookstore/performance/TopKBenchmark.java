@@ -0,0 +1,92 @@
+package com.university.bookstore.performance;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.university.bookstore.impl.ModernConcurrentMaterialStore;
+import com.university.bookstore.model.Material;
+
+/**
+ * JMH benchmark for "k cheapest" queries on {@link ModernConcurrentMaterialStore} at
+ * 100K and 1M materials.
+ * 
+ * <p>Compares the price index walk and the bounded-heap selection against sorting the
+ * whole catalog and truncating. The price comparator is built once, so
+ * {@code sortAndTruncate} reuses the snapshot's cached sort after the first call;
+ * {@code freshSortAndTruncate} uses a new comparator per call, as ad hoc callers do.</p>
+ * 
+ * @author Navid Mohaghegh
+ * @version 4.0
+ * @since 2024-09-15
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2G", "-Xmx2G"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class TopKBenchmark {
+    
+    private static final Comparator<Material> BY_PRICE = Comparator.comparingDouble(Material::getPrice);
+    
+    @Param({"100000", "1000000"})
+    private int size;
+    
+    @Param({"10", "100"})
+    private int k;
+    
+    private ModernConcurrentMaterialStore store;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        store = new ModernConcurrentMaterialStore();
+        for (int i = 0; i < size; i++) {
+            store.addMaterial(BenchmarkMaterials.create(i));
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close();
+    }
+    
+    @Benchmark
+    public List<Material> indexedCheapest() {
+        return store.findCheapest(k, null);
+    }
+    
+    @Benchmark
+    public List<Material> indexedCheapestEBooks() {
+        return store.findCheapest(k, Material.MaterialType.E_BOOK);
+    }
+    
+    @Benchmark
+    public List<Material> heapTopK() {
+        return store.topK(k, BY_PRICE, null);
+    }
+    
+    @Benchmark
+    public List<Material> sortAndTruncate() {
+        return store.getSorted(BY_PRICE).subList(0, k);
+    }
+    
+    @Benchmark
+    public List<Material> freshSortAndTruncate() {
+        return store.getSorted(Comparator.comparingDouble(Material::getPrice)).subList(0, k);
+    }
+}
\ No newline at end of file
@@ -256,6 +256,27 @@ class CachedSearchServiceTest {
         assertEquals(3, thirdSearch.size());
     }
     
+    @Test
+    void testInvalidationCoversEveryLimit() {
+        assertEquals(2, searchService.searchByPrefixWithLimit("java", 3).size());
+        assertEquals(2, searchService.searchByPrefixWithLimit("jav", 7).size());
+        List<Material> python = searchService.searchByPrefixWithLimit("python", 3);
+        
+        Material newBook = new PrintedBook("9787777777777", "Java Streams", "Author7", 55.99, 2023, 550, "Press7", false);
+        searchService.addMaterial(newBook);
+        
+        assertEquals(3, searchService.searchByPrefixWithLimit("java", 3).size());
+        assertEquals(3, searchService.searchByPrefixWithLimit("jav", 7).size());
+        assertEquals(List.of(newBook), searchService.searchByPrefix("java s"));
+        // Other prefixes keep their cached results
+        assertSame(python, searchService.searchByPrefixWithLimit("python", 3));
+        
+        searchService.removeMaterial(newBook);
+        assertEquals(2, searchService.searchByPrefixWithLimit("java", 3).size());
+        // Recomputed results replace the superseded ones instead of piling up
+        assertEquals(4, searchService.getCacheStats().getCurrentSize());
+    }
+    
     @Test
     void testSearchCaseInsensitive() {
         List<Material> lowercase = searchService.searchByPrefix("java");
@@ -0,0 +1,47 @@
+package com.university.bookstore.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class FrequencySketchTest {
+    
+    @Test
+    void testCountsIncrements() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("prefix:java");
+        }
+        sketch.increment("prefix:python");
+        
+        assertTrue(sketch.frequency("prefix:java") >= 5);
+        assertTrue(sketch.frequency("prefix:python") >= 1);
+        assertTrue(sketch.frequency("prefix:java") > sketch.frequency("prefix:python"));
+    }
+    
+    @Test
+    void testCountersSaturate() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("hot");
+        }
+        
+        assertEquals(15, sketch.frequency("hot"));
+    }
+    
+    @Test
+    void testCountersAgeAfterSample() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment("old");
+        }
+        int before = sketch.frequency("old");
+        
+        // Ten times the size in increments halves every counter
+        for (int i = 0; i < 160; i++) {
+            sketch.increment("key-" + i);
+        }
+        
+        assertTrue(sketch.frequency("old") < before);
+    }
+}
\ No newline at end of file
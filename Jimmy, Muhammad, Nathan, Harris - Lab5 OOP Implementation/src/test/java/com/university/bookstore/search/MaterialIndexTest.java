@@ -0,0 +1,164 @@
+package com.university.bookstore.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+
+class MaterialIndexTest {
+    
+    private MaterialIndex index;
+    private Material javaBook;
+    private Material pythonBook;
+    private Material javaEBook;
+    
+    @BeforeEach
+    void setUp() {
+        index = new MaterialIndex();
+        javaBook = new PrintedBook("9781234567890", "Java Programming", "John Doe", 49.99, 2020, 500, "Tech Press", false);
+        pythonBook = new PrintedBook("9780987654321", "Python Basics", "Jane Smith", 19.99, 2022, 300, "Tech Press", false);
+        javaEBook = new EBook("E001", "Java Concurrency", "John Doe", 29.99, 2022, "PDF", 2.0, false, 80, Media.MediaQuality.HIGH);
+        index.add(javaBook);
+        index.add(pythonBook);
+        index.add(javaEBook);
+    }
+    
+    @Test
+    void testFindByType() {
+        assertEquals(2, index.findByType(Material.MaterialType.BOOK).size());
+        assertEquals(List.of(javaEBook), index.findByType(Material.MaterialType.E_BOOK));
+        assertTrue(index.findByType(Material.MaterialType.VIDEO).isEmpty());
+        assertTrue(index.findByType(null).isEmpty());
+        assertEquals(2, index.countByType(Material.MaterialType.BOOK));
+    }
+    
+    @Test
+    void testFindByYear() {
+        assertEquals(List.of(javaBook), index.findByYear(2020));
+        assertEquals(2, index.findByYear(2022).size());
+        assertTrue(index.findByYear(1999).isEmpty());
+    }
+    
+    @Test
+    void testFindByYearRange() {
+        List<Material> results = index.findByYearRange(2020, 2021);
+        assertEquals(List.of(javaBook), results);
+        assertEquals(3, index.findByYearRange(2000, 2030).size());
+        assertTrue(index.findByYearRange(2030, 2000).isEmpty());
+    }
+    
+    @Test
+    void testFindByCreators() {
+        assertEquals(2, index.findByCreators(Set.of("John Doe")).size());
+        assertEquals(3, index.findByCreators(Set.of("John Doe", "Jane Smith")).size());
+        assertTrue(index.findByCreators(Set.of("john doe")).isEmpty());
+    }
+    
+    @Test
+    void testFindByPriceRangeIsOrderedByPrice() {
+        List<Material> results = index.findByPriceRange(0, 100);
+        assertEquals(List.of(pythonBook, javaEBook, javaBook), results);
+        assertEquals(List.of(javaEBook), index.findByPriceRange(29.99, 29.99));
+        assertTrue(index.findByPriceRange(50, 10).isEmpty());
+    }
+    
+    @Test
+    void testRemoveDropsMaterialFromEveryIndex() {
+        index.remove(javaEBook);
+        
+        assertTrue(index.findByType(Material.MaterialType.E_BOOK).isEmpty());
+        assertEquals(List.of(pythonBook), index.findByYear(2022));
+        assertEquals(List.of(javaBook), index.findByCreators(Set.of("John Doe")));
+        assertTrue(index.findByPriceRange(29.99, 29.99).isEmpty());
+    }
+    
+    @Test
+    void testRemoveUnknownMaterialIsNoOp() {
+        Material other = new PrintedBook("9781111111111", "Other", "Nobody", 5.0, 2010, 10, "Press", false);
+        index.remove(other);
+        index.remove(null);
+        
+        assertEquals(3, index.findByPriceRange(0, 100).size());
+    }
+    
+    @Test
+    void testConcurrentAddAndRemoveSharingYearAndPrice() throws Exception {
+        Material first = new PrintedBook("9781111111111", "First", "Author", 77.0, 2019, 100, "Press", false);
+        Material second = new PrintedBook("9782222222222", "Second", "Author", 77.0, 2019, 100, "Press", false);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> churn = List.of(
+                executor.submit(() -> churn(first)),
+                executor.submit(() -> churn(second)));
+            for (Future<?> future : churn) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        // Each thread ends with its material added; neither may be lost to an unlinked bucket
+        assertEquals(Set.of(first, second), Set.copyOf(index.findByYear(2019)));
+        assertEquals(Set.of(first, second), Set.copyOf(index.findByPriceRange(77.0, 77.0)));
+    }
+    
+    @Test
+    void testBucketsKeepInsertionOrder() {
+        MaterialIndex ordered = new MaterialIndex();
+        List<Material> books = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            // IDs in descending order, so hash or ID order would differ from insertion order
+            books.add(new PrintedBook(String.format("978%010d", 1000 - i), "Book " + i, "Author",
+                10.0, 2020, 100, "Press", false));
+        }
+        books.forEach(ordered::add);
+        
+        assertEquals(books, ordered.findByType(Material.MaterialType.BOOK));
+        assertEquals(books, ordered.findByYear(2020));
+        assertEquals(books, ordered.findSinceYear(2000));
+        assertEquals(books, ordered.findByPriceRange(10.0, 10.0));
+        assertEquals(books, ordered.findByCreators(Set.of("Author")));
+        
+        // Removed and added again, a material moves to the end
+        Material first = books.remove(0);
+        ordered.remove(first);
+        ordered.add(first);
+        books.add(first);
+        assertEquals(books, ordered.findByType(Material.MaterialType.BOOK));
+        
+        MaterialIndex bulk = new MaterialIndex();
+        bulk.addAll(books);
+        assertEquals(books, bulk.findByYear(2020));
+    }
+    
+    @Test
+    void testClear() {
+        index.clear();
+        
+        assertTrue(index.findByType(Material.MaterialType.BOOK).isEmpty());
+        assertTrue(index.findByYearRange(0, 3000).isEmpty());
+        assertTrue(index.findByPriceRange(0, 1000).isEmpty());
+        assertTrue(index.findByCreators(Set.of("John Doe")).isEmpty());
+    }
+    
+    private void churn(Material material) {
+        for (int i = 0; i < 20_000; i++) {
+            index.add(material);
+            index.remove(material);
+        }
+        index.add(material);
+    }
+}
\ No newline at end of file
@@ -156,6 +156,32 @@ class MaterialTrieTest {
         assertFalse(trie.hasPrefix("   "));
     }
     
+    @Test
+    void testPrefixVersion() {
+        Material java = new PrintedBook("9781234567890", "Java", "Author", 29.99, 2023, 300, "Publisher", false);
+        Material python = new PrintedBook("9780987654321", "Python", "Author", 39.99, 2023, 400, "Publisher", false);
+        
+        assertEquals(0, trie.prefixVersion("java"));
+        trie.insert(java);
+        long javaVersion = trie.prefixVersion("JAVA");
+        assertTrue(javaVersion > 0);
+        assertEquals(javaVersion, trie.prefixVersion("j"));
+        
+        // Only the prefixes of the changed title move
+        trie.insert(python);
+        assertEquals(javaVersion, trie.prefixVersion("java"));
+        assertTrue(trie.prefixVersion("py") > javaVersion);
+        
+        // Removing and re-inserting never brings back an earlier version
+        trie.remove(java);
+        assertEquals(0, trie.prefixVersion("java"));
+        trie.insert(java);
+        assertTrue(trie.prefixVersion("java") > trie.prefixVersion("python"));
+        
+        assertEquals(0, trie.prefixVersion(null));
+        assertEquals(0, trie.prefixVersion(" "));
+    }
+    
     @Test
     void testGetAllMaterials() {
         Material book1 = new PrintedBook("9781234567890", "Book 1", "Author1", 29.99, 2023, 300, "Press1", false);
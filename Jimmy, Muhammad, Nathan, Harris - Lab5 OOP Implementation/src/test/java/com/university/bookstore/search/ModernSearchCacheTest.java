@@ -0,0 +1,223 @@
+package com.university.bookstore.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.PrintedBook;
+
+class ModernSearchCacheTest {
+    
+    private static final Material BOOK = new PrintedBook("9781111111111", "Java Basics", "Author", 29.99, 2023, 300, "Pub", false);
+    private static final Material OTHER = new PrintedBook("9782222222222", "Java Advanced", "Author", 39.99, 2023, 400, "Pub", false);
+    
+    private ModernSearchCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        cache = new ModernSearchCache(100, Duration.ofMinutes(10), Duration.ofMinutes(5));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+    
+    @Test
+    void testGetLoadsOnceThenHits() {
+        AtomicInteger loads = new AtomicInteger();
+        
+        assertEquals(List.of(BOOK), cache.get("prefix:java", k -> {
+            loads.incrementAndGet();
+            return List.of(BOOK);
+        }));
+        assertEquals(List.of(BOOK), cache.get("prefix:java", k -> List.of(OTHER)));
+        
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().hitCount());
+        assertEquals(1, cache.getStats().missCount());
+    }
+    
+    @Test
+    void testHitsShareOneUnmodifiableList() throws Exception {
+        List<Material> loaded = new ArrayList<>(List.of(BOOK));
+        List<Material> first = cache.get("prefix:java", k -> loaded);
+        loaded.add(OTHER);
+        
+        // The cache keeps its own copy, which every hit returns as is
+        assertEquals(List.of(BOOK), first);
+        assertSame(first, cache.get("prefix:java", k -> List.of(OTHER)));
+        assertSame(first, cache.getAsync("prefix:java", k -> null).get(5, TimeUnit.SECONDS));
+        assertThrows(UnsupportedOperationException.class, () -> first.add(OTHER));
+    }
+    
+    @Test
+    void testSizeBoundEnforcedOnPut() {
+        for (int i = 0; i < 1000; i++) {
+            cache.put("prefix:" + i, List.of(BOOK));
+        }
+        
+        assertEquals(100, cache.size());
+        assertEquals(900, cache.getStats().evictionCount());
+    }
+    
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<List<Material>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get("prefix:java", k -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return List.of(BOOK);
+                })));
+            }
+            
+            // Wait until every caller has either started the load or joined it
+            while (cache.getCoalescedLoadCount() < callers - 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<List<Material>> result : results) {
+                assertEquals(List.of(BOOK), result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().loadCount());
+    }
+    
+    @Test
+    void testConcurrentAsyncMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<List<Material>> pending = new CompletableFuture<>();
+        
+        CompletableFuture<List<Material>> first = cache.getAsync("prefix:java", k -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<List<Material>> second = cache.getAsync("prefix:java", k -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(List.of(OTHER));
+        });
+        assertFalse(second.isDone());
+        
+        pending.complete(List.of(BOOK));
+        
+        assertEquals(List.of(BOOK), first.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(BOOK), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertTrue(cache.containsKey("prefix:java"));
+    }
+    
+    @Test
+    void testLoadFailureReachesEveryCallerAndIsNotCached() {
+        CompletableFuture<List<Material>> pending = new CompletableFuture<>();
+        CompletableFuture<List<Material>> first = cache.getAsync("prefix:java", k -> pending);
+        CompletableFuture<List<Material>> second = cache.getAsync("prefix:java", k -> pending);
+        
+        pending.completeExceptionally(new IllegalStateException("search failed"));
+        
+        ExecutionException error = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertTrue(first.isCompletedExceptionally());
+        
+        assertThrows(IllegalArgumentException.class, () -> cache.get("prefix:python", k -> {
+            throw new IllegalArgumentException("bad prefix");
+        }));
+        
+        // Nothing was cached and nothing is left in flight
+        assertEquals(List.of(BOOK), cache.get("prefix:java", k -> List.of(BOOK)));
+        assertEquals(List.of(BOOK), cache.get("prefix:python", k -> List.of(BOOK)));
+    }
+    
+    @Test
+    void testRefreshAheadReloadsInBackground() throws Exception {
+        cache.setRefreshAfter(Duration.ofMillis(1));
+        cache.get("prefix:java", k -> List.of(BOOK));
+        Thread.sleep(5);
+        
+        // The hit returns the cached value and starts a reload
+        assertEquals(List.of(BOOK), cache.get("prefix:java", k -> List.of(OTHER)));
+        assertEquals(1, cache.getRefreshCount());
+        
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!cache.get("prefix:java", k -> List.of(OTHER)).equals(List.of(OTHER))) {
+            assertTrue(System.currentTimeMillis() < deadline, "Refresh did not complete");
+            Thread.sleep(1);
+        }
+    }
+    
+    @Test
+    void testLoadStartedBeforeInvalidationIsNotCached() throws Exception {
+        CompletableFuture<List<Material>> stale = new CompletableFuture<>();
+        CompletableFuture<List<Material>> waiting = cache.getAsync("prefix:java", k -> stale);
+        
+        cache.invalidate("prefix:java");
+        
+        // A caller after the invalidation starts its own load instead of joining the stale one
+        CompletableFuture<List<Material>> fresh = cache.getAsync("prefix:java",
+            k -> CompletableFuture.completedFuture(List.of(OTHER)));
+        assertEquals(List.of(OTHER), fresh.get(5, TimeUnit.SECONDS));
+        
+        stale.complete(List.of(BOOK));
+        
+        assertEquals(List.of(BOOK), waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(OTHER), cache.get("prefix:java", k -> List.of(BOOK)));
+    }
+    
+    @Test
+    void testRefreshStartedBeforeInvalidateAllIsNotCached() throws Exception {
+        CompletableFuture<List<Material>> reload = new CompletableFuture<>();
+        cache.setRefreshAfter(Duration.ofMillis(1));
+        cache.get("prefix:java", k -> List.of(BOOK));
+        Thread.sleep(5);
+        cache.getAsync("prefix:java", k -> reload);
+        assertEquals(1, cache.getRefreshCount());
+        
+        cache.invalidateAll();
+        reload.complete(List.of(OTHER));
+        
+        assertFalse(cache.containsKey("prefix:java"));
+    }
+    
+    @Test
+    void testRefreshAfterValidation() {
+        assertNull(cache.getRefreshAfter());
+        assertThrows(IllegalArgumentException.class, () -> cache.setRefreshAfter(Duration.ofMinutes(10)));
+        
+        cache.setRefreshAfter(Duration.ofMinutes(8));
+        assertEquals(Duration.ofMinutes(8), cache.getRefreshAfter());
+        cache.setRefreshAfter(null);
+        assertNull(cache.getRefreshAfter());
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.university.bookstore.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.api.ModernMaterialStore.SearchCriteria;
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.search.QueryPlanner.AccessPath;
+import com.university.bookstore.search.QueryPlanner.Filter;
+import com.university.bookstore.search.QueryPlanner.QueryPlan;
+
+class QueryPlannerTest {
+    
+    private List<Material> materials;
+    private QueryPlanner planner;
+    
+    @BeforeEach
+    void setUp() {
+        materials = new ArrayList<>();
+        MaterialIndex index = new MaterialIndex();
+        planner = new QueryPlanner(index, () -> materials);
+        
+        // 40 printed books spread over 2000-2019, 10 e-books all from 2023
+        for (int i = 0; i < 40; i++) {
+            materials.add(new PrintedBook(String.format("978%010d", i), "Java Volume " + i,
+                "Author " + (i % 4), 10.0 + i, 2000 + (i % 20), 200, "Publisher", false));
+        }
+        for (int i = 0; i < 10; i++) {
+            materials.add(new EBook("E" + i, "Python Notes " + i, "Author " + (i % 4),
+                5.0 + i, 2023, "PDF", 1.0, false, 50, Media.MediaQuality.HIGH));
+        }
+        materials.forEach(index::add);
+    }
+    
+    @Test
+    void testNoCriteriaUsesFullScan() {
+        QueryPlan plan = planner.plan(SearchCriteria.builder().build());
+        
+        assertEquals(AccessPath.FULL_SCAN, plan.accessPath());
+        assertEquals(50, plan.totalRows());
+        assertEquals(50, planner.execute(SearchCriteria.builder().build()).size());
+    }
+    
+    @Test
+    void testMostSelectiveIndexDrivesQuery() {
+        SearchCriteria criteria = SearchCriteria.builder()
+            .withType(Material.MaterialType.BOOK)
+            .withYearRange(2005, 2005)
+            .build();
+        
+        QueryPlan plan = planner.plan(criteria);
+        
+        assertEquals(AccessPath.YEAR_INDEX, plan.accessPath());
+        assertEquals(2, plan.estimatedRows());
+        assertEquals(List.of(Filter.TYPE), plan.residualFilters());
+    }
+    
+    @Test
+    void testTypeIndexChosenWhenSmallest() {
+        SearchCriteria criteria = SearchCriteria.builder()
+            .withType(Material.MaterialType.E_BOOK)
+            .withYearRange(2000, 2030)
+            .build();
+        
+        QueryPlan plan = planner.plan(criteria);
+        
+        assertEquals(AccessPath.TYPE_INDEX, plan.accessPath());
+        assertEquals(10, plan.estimatedRows());
+        assertEquals(List.of(Filter.YEAR_RANGE), plan.residualFilters());
+    }
+    
+    @Test
+    void testTextOnlyCriteriaScanWithResidualFilters() {
+        SearchCriteria criteria = SearchCriteria.builder()
+            .withTitle("java")
+            .withCreator("author 1")
+            .build();
+        
+        QueryPlan plan = planner.plan(criteria);
+        
+        assertEquals(AccessPath.FULL_SCAN, plan.accessPath());
+        assertEquals(List.of(Filter.CREATOR_CONTAINS, Filter.TITLE_CONTAINS), plan.residualFilters());
+        assertEquals(10, planner.execute(criteria).size());
+    }
+    
+    @Test
+    void testCriteriaAreCombinedWithAnd() {
+        SearchCriteria criteria = SearchCriteria.builder()
+            .withTitle("Volume")
+            .withType(Material.MaterialType.BOOK)
+            .withPriceRange(20.0, 29.0)
+            .withYearRange(2010, 2019)
+            .build();
+        
+        List<Material> results = planner.execute(criteria);
+        
+        assertEquals(10, results.size());
+        assertTrue(results.stream().allMatch(m ->
+            m.getPrice() >= 20.0 && m.getPrice() <= 29.0 && m.getYear() >= 2010));
+        assertEquals(expected(criteria), results.size());
+    }
+    
+    @Test
+    void testOpenEndedRanges() {
+        SearchCriteria criteria = SearchCriteria.builder()
+            .withPriceRange(null, 9.0)
+            .build();
+        
+        List<Material> results = planner.execute(criteria);
+        
+        assertEquals(AccessPath.PRICE_INDEX, planner.plan(criteria).accessPath());
+        assertEquals(5, results.size());
+        assertTrue(results.stream().allMatch(m -> m.getPrice() <= 9.0));
+    }
+    
+    @Test
+    void testEmptyRangeReturnsNothing() {
+        SearchCriteria criteria = SearchCriteria.builder()
+            .withYearRange(2020, 2010)
+            .build();
+        
+        assertTrue(planner.execute(criteria).isEmpty());
+        assertTrue(planner.plan(criteria).explain().startsWith("YEAR_INDEX"));
+    }
+    
+    @Test
+    void testBlankTermsAreIgnored() {
+        SearchCriteria criteria = SearchCriteria.builder()
+            .withTitle("   ")
+            .withType(Material.MaterialType.E_BOOK)
+            .build();
+        
+        assertTrue(planner.plan(criteria).residualFilters().isEmpty());
+        assertEquals(10, planner.execute(criteria).size());
+    }
+    
+    private long expected(SearchCriteria criteria) {
+        return materials.stream()
+            .filter(m -> m.getTitle().toLowerCase().contains(criteria.title().get().toLowerCase()))
+            .filter(m -> m.getType() == criteria.type().get())
+            .filter(m -> m.getPrice() >= criteria.minPrice().get() && m.getPrice() <= criteria.maxPrice().get())
+            .filter(m -> m.getYear() >= criteria.yearFrom().get() && m.getYear() <= criteria.yearTo().get())
+            .count();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.university.bookstore.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ReadBufferTest {
+    
+    @Test
+    void testDrainReplaysReadsInOrder() {
+        ReadBuffer<String> buffer = new ReadBuffer<>();
+        buffer.offer("a");
+        buffer.offer("b");
+        buffer.offer("c");
+        
+        List<String> drained = new ArrayList<>();
+        buffer.drainTo(drained::add);
+        
+        assertEquals(List.of("a", "b", "c"), drained);
+        
+        drained.clear();
+        buffer.drainTo(drained::add);
+        assertTrue(drained.isEmpty());
+    }
+    
+    @Test
+    void testFullStripeAsksForDrainAndDropsReads() {
+        ReadBuffer<Integer> buffer = new ReadBuffer<>();
+        for (int i = 0; i < ReadBuffer.STRIPE_CAPACITY - 1; i++) {
+            assertFalse(buffer.offer(i));
+        }
+        assertTrue(buffer.offer(ReadBuffer.STRIPE_CAPACITY - 1));
+        assertTrue(buffer.offer(-1));
+        
+        List<Integer> drained = new ArrayList<>();
+        buffer.drainTo(drained::add);
+        assertEquals(ReadBuffer.STRIPE_CAPACITY, drained.size());
+        assertFalse(drained.contains(-1));
+        
+        // The ring is reusable once drained
+        assertFalse(buffer.offer(42));
+        drained.clear();
+        buffer.drainTo(drained::add);
+        assertEquals(List.of(42), drained);
+    }
+}
\ No newline at end of file
@@ -2,9 +2,13 @@ package com.university.bookstore.search;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -220,4 +224,94 @@ class SearchResultCacheTest {
         // The implementation doesn't track per-key hits/misses correctly
         // It only tracks stats for entries in the cache
     }
+    
+    @Test
+    void testHitsShareUnmodifiableList() {
+        Material book = new PrintedBook("9781111111111", "Book 1", "Author1", 29.99, 2023, 300, "Pub1", false);
+        List<Material> source = new ArrayList<>(List.of(book));
+        
+        List<Material> cached = cache.put("key1", source);
+        source.clear();
+        
+        assertSame(cached, cache.get("key1").get());
+        assertEquals(List.of(book), cached);
+        assertThrows(UnsupportedOperationException.class, () -> cached.add(book));
+    }
+    
+    @Test
+    void testVersionMismatchIsMissAndReplaced() {
+        Material book1 = new PrintedBook("9781111111111", "Book 1", "Author1", 29.99, 2023, 300, "Pub1", false);
+        Material book2 = new PrintedBook("9782222222222", "Book 2", "Author2", 39.99, 2023, 400, "Pub2", false);
+        
+        cache.put("key1", 1L, List.of(book1));
+        assertEquals(List.of(book1), cache.get("key1", 1L).orElseThrow());
+        assertTrue(cache.get("key1", 2L).isEmpty());
+        
+        cache.put("key1", 2L, List.of(book2));
+        assertEquals(1, cache.size());
+        assertEquals(List.of(book2), cache.get("key1", 2L).orElseThrow());
+        assertTrue(cache.get("key1", 1L).isEmpty());
+        assertEquals(2, cache.getStats().getTotalHits());
+        assertEquals(4, cache.getStats().getTotalRequests());
+    }
+    
+    @Test
+    void testStatsCountHitsAndMisses() {
+        cache.put("key1", List.of());
+        cache.get("key1");
+        cache.get("key1");
+        cache.get("key2");
+        
+        SearchResultCache.CacheStats stats = cache.getStats();
+        assertEquals(3, stats.getTotalRequests());
+        assertEquals(2, stats.getTotalHits());
+        assertEquals(2.0 / 3, stats.getHitRatio(), 1e-9);
+    }
+    
+    @Test
+    void testRemovedSlotIsReused() {
+        cache.put("key1", List.of());
+        cache.put("key2", List.of());
+        cache.put("key3", List.of());
+        assertTrue(cache.remove("key2"));
+        assertFalse(cache.remove("key2"));
+        
+        // The freed slot takes the new entry without evicting anything
+        cache.put("key4", List.of());
+        assertTrue(cache.containsKey("key1"));
+        assertTrue(cache.containsKey("key3"));
+        assertTrue(cache.containsKey("key4"));
+        assertEquals(3, cache.size());
+    }
+    
+    @Test
+    void testConcurrentAccessStaysBounded() throws Exception {
+        SearchResultCache shared = new SearchResultCache(64);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        String key = "key-" + ((i * 31 + thread) % 200);
+                        if (shared.get(key).isEmpty()) {
+                            shared.put(key, List.of());
+                        }
+                        if (i % 50 == 0) {
+                            shared.remove(key);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+        assertTrue(shared.size() <= 64);
+        assertEquals(8 * 5000, shared.getStats().getTotalRequests());
+    }
 }
\ No newline at end of file
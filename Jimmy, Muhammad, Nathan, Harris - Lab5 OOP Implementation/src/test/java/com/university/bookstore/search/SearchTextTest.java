@@ -0,0 +1,22 @@
+package com.university.bookstore.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class SearchTextTest {
+    
+    @Test
+    void testNormalize() {
+        assertEquals("java guide", SearchText.normalize("Java GUIDE"));
+    }
+    
+    @Test
+    void testContainsIgnoreCase() {
+        assertTrue(SearchText.containsIgnoreCase("Effective JAVA", "java"));
+        assertTrue(SearchText.containsIgnoreCase("Java", "java"));
+        assertTrue(SearchText.containsIgnoreCase("Anything", ""));
+        assertFalse(SearchText.containsIgnoreCase("Jav", "java"));
+        assertFalse(SearchText.containsIgnoreCase("Python Guide", "java"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.university.bookstore.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TopKTest {
+    
+    @Test
+    void testSelectMatchesSortAndTruncate() {
+        List<Integer> values = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            values.add(random.nextInt(500));
+        }
+        List<Integer> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        
+        assertEquals(sorted.subList(0, 10), TopK.select(values, 10, Comparator.naturalOrder()));
+        assertEquals(sorted, TopK.select(values, 5000, Comparator.naturalOrder()));
+        Collections.reverse(sorted);
+        assertEquals(sorted.subList(0, 7), TopK.select(values, 7, Comparator.reverseOrder()));
+    }
+    
+    @Test
+    void testSelectEdgeCases() {
+        assertTrue(TopK.select(Arrays.asList(3, 1, 2), 0, Comparator.<Integer>naturalOrder()).isEmpty());
+        assertTrue(TopK.select(new ArrayList<Integer>(), 3, Comparator.<Integer>naturalOrder()).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+            () -> TopK.select(Arrays.asList(1), -1, Comparator.<Integer>naturalOrder()));
+        assertThrows(NullPointerException.class, () -> TopK.select(Arrays.asList(1), 1, null));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.university.bookstore.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+
+class TrigramIndexTest {
+    
+    private TrigramIndex index;
+    private Material javaBook;
+    private Material pythonBook;
+    private Material javaEBook;
+    
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        javaBook = new PrintedBook("9781234567890", "Java Programming", "John Doe", 49.99, 2020, 500, "Tech Press", false);
+        pythonBook = new PrintedBook("9780987654321", "Python Basics", "Jane Smith", 19.99, 2022, 300, "Tech Press", false);
+        javaEBook = new EBook("E001", "Concurrency in JAVA", "John Doe", 29.99, 2022, "PDF", 2.0, false, 80, Media.MediaQuality.HIGH);
+        index.add(javaBook);
+        index.add(pythonBook);
+        index.add(javaEBook);
+    }
+    
+    @Test
+    void testSubstringSearch() {
+        assertEquals(Set.of(javaBook, javaEBook), new HashSet<>(index.searchTitle("java")));
+        assertEquals(List.of(javaBook), index.searchTitle("GRAMMING"));
+        assertEquals(List.of(pythonBook), index.searchTitle("hon bas"));
+        assertTrue(index.searchTitle("javascript").isEmpty());
+        assertTrue(index.searchTitle("").isEmpty());
+        assertEquals(Set.of(javaBook, javaEBook), new HashSet<>(index.searchCreator("n do")));
+        assertEquals(List.of(pythonBook), index.searchCreator("smith"));
+    }
+    
+    @Test
+    void testShortTermsScan() {
+        assertEquals(List.of(pythonBook), index.searchTitle("py"));
+        assertEquals(3, index.searchTitle("a").size());
+    }
+    
+    @Test
+    void testRemoveAndReuse() {
+        index.remove(javaBook);
+        assertEquals(List.of(javaEBook), index.searchTitle("java"));
+        assertEquals(2, index.size());
+        
+        Material rust = new EBook("E002", "Rust in Action", "Tim", 39.99, 2021, "EPUB", 1.0, false, 60, Media.MediaQuality.HIGH);
+        index.add(rust);
+        assertEquals(List.of(rust), index.searchTitle("action"));
+        
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.searchTitle("java").isEmpty());
+    }
+    
+    @Test
+    void testResultsKeepInsertionOrder() {
+        index.clear();
+        List<Material> live = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Material material = new EBook("E-" + i, "Order " + i, "Author", 10.0, 2020,
+                "PDF", 1.0, false, 10, Media.MediaQuality.HIGH);
+            index.add(material);
+            live.add(material);
+            // Frees IDs below the newest ones and forces compactions as the index grows
+            if (i % 3 != 2) {
+                index.remove(live.remove(Math.max(0, live.size() - 1 - i % 2)));
+            }
+        }
+        
+        assertEquals(live, index.searchTitle("order"));
+        assertEquals(live, index.searchTitle("or"));
+        assertEquals(live, index.searchCreator("author"));
+    }
+    
+    @Test
+    void testPagedAndSelectedSearch() {
+        assertEquals(List.of(javaEBook), index.searchTitle("java", 1, 5));
+        assertEquals(List.of(javaBook), index.searchTitle("java", 0, 1));
+        assertTrue(index.searchTitle("java", 2, 5).isEmpty());
+        assertTrue(index.searchTitle("", 0, 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.searchTitle("java", -1, 5));
+        assertThrows(IllegalArgumentException.class, () -> index.searchTitle("java", 0, -1));
+        
+        assertEquals(List.of(javaEBook, javaBook),
+            index.selectTitle("java", m -> true, 5, Comparator.comparing(Material::getPrice)));
+        assertEquals(List.of(javaBook),
+            index.selectTitle("java", m -> m.getYear() == 2020, 5, Comparator.comparing(Material::getPrice)));
+    }
+    
+    @Test
+    void testMatchesLinearScan() {
+        Random random = new Random(7);
+        String[] words = {"java", "guide", "advanced", "python", "data", "systems", "aaa", "aaaa"};
+        List<Material> live = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + i;
+            Material material = new EBook("E-" + i, title, "Author " + (i % 37), 10.0, 2020,
+                "PDF", 1.0, false, 10, Media.MediaQuality.HIGH);
+            index.add(material);
+            live.add(material);
+            if (random.nextInt(4) == 0) {
+                Material victim = live.remove(random.nextInt(live.size()));
+                index.remove(victim);
+            }
+        }
+        live.add(javaBook);
+        live.add(pythonBook);
+        live.add(javaEBook);
+        
+        for (String term : new String[] {"java", "a g", "aaa", "ata sys", "uide 1", "42", "author 3", "zzz"}) {
+            Set<Material> expected = live.stream()
+                .filter(m -> m.getTitle().toLowerCase().contains(term))
+                .collect(Collectors.toSet());
+            assertEquals(expected, new HashSet<>(index.searchTitle(term)), term);
+            
+            Set<Material> expectedCreators = live.stream()
+                .filter(m -> m.getCreator().toLowerCase().contains(term))
+                .collect(Collectors.toSet());
+            assertEquals(expectedCreators, new HashSet<>(index.searchCreator(term)), term);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.university.bookstore.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class WindowTinyLfuTest {
+    
+    @Test
+    void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new WindowTinyLfu<String>(0));
+    }
+    
+    @Test
+    void testNoEvictionBelowCapacity() {
+        WindowTinyLfu<String> policy = new WindowTinyLfu<>(100);
+        for (int i = 0; i < 100; i++) {
+            assertNull(policy.add("key-" + i));
+        }
+        assertEquals(100, policy.size());
+        
+        // Re-adding a tracked key evicts nothing
+        assertNull(policy.add("key-0"));
+    }
+    
+    @Test
+    void testStaysWithinCapacity() {
+        WindowTinyLfu<String> policy = new WindowTinyLfu<>(50);
+        for (int i = 0; i < 1000; i++) {
+            String key = "key-" + (i * 7 % 300);
+            policy.recordAccess(key);
+            String evicted = policy.add(key);
+            if (evicted != null) {
+                assertFalse(policy.contains(evicted));
+            }
+            assertTrue(policy.size() <= 50);
+        }
+    }
+    
+    @Test
+    void testHotKeysSurviveScan() {
+        WindowTinyLfu<String> policy = new WindowTinyLfu<>(100);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 90; i++) {
+                policy.recordAccess("hot-" + i);
+                policy.add("hot-" + i);
+            }
+        }
+        
+        // A scan of one-off keys passes through the window without displacing them
+        for (int i = 0; i < 1000; i++) {
+            policy.recordAccess("once-" + i);
+            policy.add("once-" + i);
+        }
+        
+        for (int i = 0; i < 90; i++) {
+            assertTrue(policy.contains("hot-" + i), "hot-" + i);
+        }
+        assertEquals(100, policy.size());
+    }
+    
+    @Test
+    void testFrequentNewcomerIsAdmitted() {
+        WindowTinyLfu<String> policy = new WindowTinyLfu<>(10);
+        for (int i = 0; i < 10; i++) {
+            policy.recordAccess("key-" + i);
+            policy.add("key-" + i);
+        }
+        for (int i = 0; i < 5; i++) {
+            policy.recordAccess("popular");
+        }
+        
+        policy.add("popular");
+        policy.recordAccess("next");
+        policy.add("next");
+        
+        assertTrue(policy.contains("popular"));
+        assertEquals(10, policy.size());
+    }
+    
+    @Test
+    void testRemoveAndClear() {
+        WindowTinyLfu<String> policy = new WindowTinyLfu<>(10);
+        policy.add("a");
+        policy.add("b");
+        
+        policy.remove("a");
+        assertFalse(policy.contains("a"));
+        assertEquals(1, policy.size());
+        
+        policy.recordAccess("b");
+        policy.clear();
+        assertEquals(0, policy.size());
+        assertTrue(policy.frequency("b") >= 1);
+    }
+}
\ No newline at end of file